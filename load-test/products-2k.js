@@ -0,0 +1,77 @@
+// Load test: 2k concurrent connections on public product endpoints
+//
+// One run = one mode of the app, passed in so results are labeled:
+//   RATE_LIMIT=on|off       (app.rate-limit.enabled)
+//   VIRTUAL_THREADS=on|off  (spring.threads.virtual.enabled)
+//
+// The flags only label the run, the app must be started with the same settings.
+// load-test/run-modes.sh starts the app in each mode and runs this script against it.
+//
+//   k6 run -e BASE_URL=http://localhost:8080/api -e PRODUCT_ID=1 \
+//          -e RATE_LIMIT=off -e VIRTUAL_THREADS=on load-test/products-2k.js
+//
+// Summary is written to load-test/results/<mode>.json (SUMMARY_DIR to change)
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api';
+const PRODUCT_ID = __ENV.PRODUCT_ID || '1';
+const RATE_LIMIT = __ENV.RATE_LIMIT || 'off';
+const VIRTUAL_THREADS = __ENV.VIRTUAL_THREADS || 'off';
+const SUMMARY_DIR = __ENV.SUMMARY_DIR || 'load-test/results';
+
+const MODE = `rate-limit-${RATE_LIMIT}_virtual-threads-${VIRTUAL_THREADS}`;
+
+// Rate limit is per IP: with it on, most requests of a single k6 host are rejected
+const rateLimited = new Counter('rate_limited');
+
+export const options = {
+    scenarios: {
+        concurrent_2k: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 2000),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    tags: { rate_limit: RATE_LIMIT, virtual_threads: VIRTUAL_THREADS },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function record(res, name) {
+    if (res.status === 429) {
+        rateLimited.add(1, { endpoint: name });
+        return;
+    }
+    check(res, { [`${name} 200`]: (r) => r.status === 200 });
+}
+
+export default function () {
+    record(http.get(`${BASE_URL}/products/search?name=phone&size=20`, {
+        tags: { endpoint: 'search' },
+    }), 'search');
+
+    record(http.get(`${BASE_URL}/products/${PRODUCT_ID}`, {
+        tags: { endpoint: 'detail' },
+    }), 'detail');
+}
+
+export function handleSummary(data) {
+    const metric = (name, stat) => (data.metrics[name] ? data.metrics[name].values[stat] : 0);
+
+    const row = {
+        mode: MODE,
+        rate_limit: RATE_LIMIT,
+        virtual_threads: VIRTUAL_THREADS,
+        requests_per_sec: metric('http_reqs', 'rate'),
+        p95_ms: metric('http_req_duration', 'p(95)'),
+        p99_ms: metric('http_req_duration', 'p(99)'),
+        failed_rate: metric('http_req_failed', 'rate'),
+        rate_limited: metric('rate_limited', 'count'),
+    };
+
+    return {
+        stdout: `\n${JSON.stringify(row, null, 2)}\n`,
+        [`${SUMMARY_DIR}/${MODE}.json`]: JSON.stringify(row),
+    };
+}
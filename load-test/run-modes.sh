@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Run products-2k.js once per mode: rate limit on/off x virtual threads on/off
+#
+# Needs the local profile running (Postgres, Redis, MinIO from docker-compose), k6 and jq.
+# Each mode starts a fresh app from the packaged jar, runs k6, then stops the app.
+#
+#   load-test/run-modes.sh                 # all 4 modes
+#   DURATION=30s VUS=500 load-test/run-modes.sh
+#
+# Prints a markdown table of load-test/results/*.json at the end (paste into README).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-8080}
+BASE_URL=${BASE_URL:-http://localhost:${PORT}/api}
+PRODUCT_ID=${PRODUCT_ID:-1}
+SUMMARY_DIR=load-test/results
+
+mkdir -p "$SUMMARY_DIR"
+
+./mvnw -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v plain | head -n 1)
+
+wait_for_app() {
+    for _ in $(seq 1 60); do
+        if curl -fs -o /dev/null "${BASE_URL}/products/${PRODUCT_ID}"; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo "App did not start on ${BASE_URL}" >&2
+    return 1
+}
+
+for rate_limit in on off; do
+    for virtual_threads in off on; do
+        echo "== rate limit ${rate_limit}, virtual threads ${virtual_threads}"
+
+        java -jar "$JAR" \
+            --spring.profiles.active=local \
+            --server.port="$PORT" \
+            --app.order.number.node-id=0 \
+            --app.rate-limit.enabled=$([ "$rate_limit" = on ] && echo true || echo false) \
+            --spring.threads.virtual.enabled=$([ "$virtual_threads" = on ] && echo true || echo false) \
+            > "${SUMMARY_DIR}/app_rate-limit-${rate_limit}_virtual-threads-${virtual_threads}.log" 2>&1 &
+        app_pid=$!
+        trap 'kill $app_pid 2>/dev/null || true' EXIT
+
+        wait_for_app
+
+        k6 run \
+            -e BASE_URL="$BASE_URL" \
+            -e PRODUCT_ID="$PRODUCT_ID" \
+            -e RATE_LIMIT="$rate_limit" \
+            -e VIRTUAL_THREADS="$virtual_threads" \
+            -e SUMMARY_DIR="$SUMMARY_DIR" \
+            -e VUS="${VUS:-2000}" \
+            -e DURATION="${DURATION:-60s}" \
+            load-test/products-2k.js
+
+        kill "$app_pid"
+        wait "$app_pid" 2>/dev/null || true
+    done
+done
+
+echo
+echo "| Rate limit | Virtual threads | req/s | p95 (ms) | p99 (ms) | Failed | 429s |"
+echo "|---|---|---|---|---|---|---|"
+for result in "$SUMMARY_DIR"/rate-limit-*.json; do
+    jq -r '"| \(.rate_limit) | \(.virtual_threads) | \(.requests_per_sec | floor) | \(.p95_ms | floor) | \(.p99_ms | floor) | \(.failed_rate * 100 | floor)% | \(.rate_limited) |"' "$result"
+done
@@ -0,0 +1,17 @@
+package com.techgadget.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enable @Async work
+ * -
+ * Executor is Boot's applicationTaskExecutor:
+ * - spring.threads.virtual.enabled=false -> platform thread pool (spring.task.execution.pool.*)
+ * - spring.threads.virtual.enabled=true  -> 1 virtual thread per task
+ *   (bounded by spring.task.execution.simple.concurrency-limit)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,15 @@
+package com.techgadget.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enable @Scheduled background jobs
+ * -
+ * Jobs run on Boot's taskScheduler (spring.task.scheduling.*),
+ * on every node: jobs must be safe to run concurrently.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -76,6 +76,7 @@ public class SecurityConfig {
                          */
                         .requestMatchers("/admin/**").hasAuthority(UserRole.ADMIN.toString())
                         .requestMatchers("/products/*/images/**").hasAuthority(UserRole.ADMIN.toString())
+                        .requestMatchers("/actuator/**").hasAuthority(UserRole.ADMIN.toString())
 
                         // Open API endpoint
                         .requestMatchers("/v3/api-docs").permitAll() // http://localhost:8080/api/v3/api-docs
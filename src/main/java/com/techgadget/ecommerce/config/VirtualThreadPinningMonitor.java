@@ -0,0 +1,138 @@
+package com.techgadget.ecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads pinned to their carrier thread
+ * -
+ * Active only when spring.threads.virtual.enabled=true.
+ * Listens to JFR event jdk.VirtualThreadPinned (e.g. native frames,
+ * class initialization, synchronized in older drivers) longer than threshold.
+ * -
+ * Report:
+ * - log WARN once per pinning call site (with stack)
+ * - counter jvm.threads.virtual.pinned
+ * - GET /actuator/pinning (ADMIN): pinned count per call site
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnBooleanProperty(name = "app.virtual-threads.pinning-monitor.enabled", matchIfMissing = true)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+
+    // Call site (top frame) -> pinned count
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold
+    ) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to carrier longer than threshold")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(threshold)
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+
+        log.info("Virtual threads enabled - pinning monitor active (threshold: {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Pinned count per call site, most pinned first
+     */
+    @ReadOperation
+    public Map<String, Object> report() {
+
+        Map<String, Long> sites = new LinkedHashMap<>();
+        pinnedBySite.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> sites.put(e.getKey(), e.getValue().sum()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threshold", threshold.toString());
+        report.put("totalPinned", (long) pinnedCounter.count());
+        report.put("pinnedBySite", sites);
+        return report;
+    }
+
+    private void onPinned(RecordedEvent event) {
+
+        pinnedCounter.increment();
+
+        List<String> frames = topFrames(event.getStackTrace());
+        String site = frames.isEmpty() ? "unknown" : frames.getFirst();
+
+        LongAdder count = pinnedBySite.computeIfAbsent(site, s -> new LongAdder());
+        count.increment();
+
+        // Only the first pin of each call site is logged with its stack
+        if (count.sum() == 1) {
+            log.warn("Virtual thread pinned for {} ms at {}\n\tat {}",
+                    event.getDuration().toMillis(), site, String.join("\n\tat ", frames));
+        }
+    }
+
+    private List<String> topFrames(RecordedStackTrace stackTrace) {
+
+        if (stackTrace == null) {
+            return List.of();
+        }
+
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(MAX_REPORTED_FRAMES)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                        + ":" + f.getLineNumber())
+                .toList();
+    }
+}
@@ -5,6 +5,8 @@ import com.techgadget.ecommerce.dto.request.order.UpdateOrderStatusToShipRequest
 import com.techgadget.ecommerce.dto.response.ErrorResponse;
 import com.techgadget.ecommerce.dto.response.order.OrderResponse;
 import com.techgadget.ecommerce.dto.response.PaginatedResponse;
+import com.techgadget.ecommerce.enums.ExportFormat;
+import com.techgadget.ecommerce.service.OrderExportService;
 import com.techgadget.ecommerce.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,9 +15,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/admin/orders")
@@ -24,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     /**
      * Get all orders from every user
@@ -54,6 +63,45 @@ public class AdminOrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Export all orders from every user
+     * -
+     * Same filters as search (page & size are ignored),
+     * streamed as CSV or NDJSON file
+     */
+    @Operation(
+            summary = "Admin export orders",
+            description = "Stream every order matching the filters as CSV (default) or NDJSON"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Orders are streamed"),
+            @ApiResponse(
+                    responseCode = "4**",
+                    description = "Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )),
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Valid @ModelAttribute OrderFilterRequest filter,
+            @RequestParam(defaultValue = "CSV") String format
+    ) {
+        ExportFormat exportFormat = orderExportService.resolveFormat(format);
+
+        StreamingResponseBody body =
+                orderExportService.exportOrders(filter, exportFormat);
+
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("orders-" + LocalDate.now() + "." + exportFormat.getFileExtension())
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
     /**
      * Get all user orders
      * -
@@ -1,6 +1,7 @@
 package com.techgadget.ecommerce.controller;
 
 import com.techgadget.ecommerce.dto.request.cart.AddCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest;
 import com.techgadget.ecommerce.dto.request.cart.UpdateCartItemRequest;
 import com.techgadget.ecommerce.dto.response.cart.CartResponse;
 import com.techgadget.ecommerce.dto.response.ErrorResponse;
@@ -84,6 +85,35 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Add / update / remove many cart items at once
+     * POST /api/cart/items:batch (CUSTOMER)
+     *
+     * Request body = BatchCartItemRequest dto
+     */
+    @Operation(
+            summary = "Apply cart operations in batch",
+            description = "Apply add / update / remove operations in order, in one transaction (all or nothing)"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cart operations are applied"),
+            @ApiResponse(
+                    responseCode = "4**",
+                    description = "Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )),
+    })
+    @PostMapping("/items:batch")
+    public ResponseEntity<CartResponse> applyBatch(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody BatchCartItemRequest request
+    ) {
+        CartResponse response = cartService.applyBatch(userDetails.getUserId(), request);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Update cart item in cart
      * PUT /api/cart/{cartItemId} (CUSTOMER)
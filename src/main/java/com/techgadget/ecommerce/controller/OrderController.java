@@ -4,8 +4,10 @@ import com.techgadget.ecommerce.dto.request.order.CreateOrderRequest;
 import com.techgadget.ecommerce.dto.request.order.OrderFilterRequest;
 import com.techgadget.ecommerce.dto.response.ErrorResponse;
 import com.techgadget.ecommerce.dto.response.order.OrderResponse;
+import com.techgadget.ecommerce.dto.response.order.OrderSummaryResponse;
 import com.techgadget.ecommerce.dto.response.PaginatedResponse;
 import com.techgadget.ecommerce.security.CustomUserDetails;
+import com.techgadget.ecommerce.service.IdempotencyService;
 import com.techgadget.ecommerce.service.OrderService;
 import com.techgadget.ecommerce.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +31,7 @@ public class OrderController {
 
     private final OrderService orderService;
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create order from selected cart items.
@@ -39,6 +42,9 @@ public class OrderController {
      *   "addressId": 1,
      *   "cartItemIds": [1, 2, 3]
      * }
+     * -
+     * Optional Idempotency-Key header: retries with the same key
+     * replay the first response instead of creating another order.
      */
     @Operation(
             summary = "Create new order",
@@ -56,11 +62,15 @@ public class OrderController {
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @Valid @RequestBody CreateOrderRequest request
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
 
-        OrderResponse response = orderService
-                .createOrder(userDetails.getUserId(), request);
+        Long userId = userDetails.getUserId();
+        OrderResponse response = idempotencyService.execute(
+                "order:create", userId, idempotencyKey, request, OrderResponse.class,
+                () -> orderService.createOrder(userId, request)
+        );
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -99,6 +109,8 @@ public class OrderController {
      * Logic of Order payment (DUMMY)
      * Mark order as PAID and CONFIRMED
      * POST /api/orders/{orderId}/pay
+     * -
+     * Optional Idempotency-Key header (same as create order)
      */
     @Operation(
             summary = "Pay order",
@@ -116,13 +128,17 @@ public class OrderController {
     @PostMapping("/{orderId}/pay")
     public ResponseEntity<OrderResponse> payOrder(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @PathVariable Long orderId
+            @PathVariable Long orderId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
         // TODO: Create PaymentService
 
         // After payment successes, MARK order
-        OrderResponse response = paymentService
-                .payOrder(userDetails.getUserId(), orderId);
+        Long userId = userDetails.getUserId();
+        OrderResponse response = idempotencyService.execute(
+                "order:pay:" + orderId, userId, idempotencyKey, null, OrderResponse.class,
+                () -> paymentService.payOrder(userId, orderId)
+        );
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -157,6 +173,35 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get user order summaries (totals only, no items)
+     * GET /api/orders/summaries
+     */
+    @Operation(
+            summary = "Get user order summaries",
+            description = "Order list without items and address, same filters as get user orders"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = ""),
+            @ApiResponse(
+                    responseCode = "4**",
+                    description = "Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )),
+    })
+    @GetMapping("/summaries")
+    public ResponseEntity<PaginatedResponse<OrderSummaryResponse>> getUserOrderSummaries(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @ModelAttribute OrderFilterRequest filter
+    ) {
+
+        PaginatedResponse<OrderSummaryResponse> response = orderService
+                .getUserOrderSummaries(userDetails.getUserId(), filter);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get single user order
      * GET /api/orders/{orderId}
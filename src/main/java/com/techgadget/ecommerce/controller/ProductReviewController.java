@@ -64,7 +64,8 @@ public class ProductReviewController {
                         request.getPage(),
                         request.getSize(),
                         request.getSortBy(),
-                        request.getSortDir()
+                        request.getSortDir(),
+                        request.getCursor()
                 );
 
         return ResponseEntity.ok(response);
@@ -1,5 +1,6 @@
 package com.techgadget.ecommerce.dto.request;
 
+import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -26,4 +27,10 @@ public class PaginationRequest {
 
     @NotNull(message = "Sort dir is required.")
     private String sortDir = "desc";
+
+    /**
+     * Opt-in keyset (cursor) pagination, see {@link com.techgadget.ecommerce.repository.KeysetCursor}
+     */
+    @Nullable
+    private String cursor;
 }
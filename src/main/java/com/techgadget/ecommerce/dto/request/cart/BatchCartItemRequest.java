@@ -0,0 +1,56 @@
+package com.techgadget.ecommerce.dto.request.cart;
+
+import com.techgadget.ecommerce.enums.CartOperationType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO request to add / update / remove many cart items at once (e.g. buy again)
+ * -
+ * Operations are applied in order, all or nothing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCartItemRequest {
+
+    public static final int MAX_OPERATIONS = 100;
+
+    @Valid
+    @NotEmpty(message = "Operations required.")
+    @Size(max = MAX_OPERATIONS, message = "At most " + MAX_OPERATIONS + " operations per request.")
+    private List<CartItemOperation> operations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CartItemOperation {
+
+        @NotNull(message = "Operation type required.")
+        private CartOperationType type;
+
+        /**
+         * ADD only
+         */
+        private Long productId;
+
+        /**
+         * UPDATE / REMOVE only
+         */
+        private Long cartItemId;
+
+        /**
+         * ADD / UPDATE only
+         */
+        @Min(value = 1, message = "Quantity must be at least 1.")
+        private Integer quantity;
+    }
+}
@@ -36,4 +36,10 @@ public class OrderFilterRequest {
 
     @NotNull(message = "Sort is required.")
     private String sort = "NEWEST";
+
+    /**
+     * Opt-in keyset (cursor) pagination, see {@link com.techgadget.ecommerce.repository.KeysetCursor}
+     */
+    @Nullable
+    private String cursor;
 }
@@ -29,12 +29,23 @@ public class SearchProductRequest {
     @NotNull(message = "Size is required.")
     private Integer size = 20;
 
+    /**
+     * createdAt | name | price | relevance
+     * -
+     * relevance ranks by name similarity to keyword (sortDir ignored)
+     */
     @NotNull(message = "Sort by is required.")
     private String sortBy = "createdAt";
 
     @NotNull(message = "Sort dir is required.")
     private String sortDir = "desc";
 
+    /**
+     * Opt-in keyset (cursor) pagination, see {@link com.techgadget.ecommerce.repository.KeysetCursor}
+     */
+    @Nullable
+    private String cursor;
+
     /**
      * Search keyword
      */
@@ -1,5 +1,6 @@
 package com.techgadget.ecommerce.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.util.List;
@@ -14,10 +15,22 @@ public class PaginatedResponse<T> {
 
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+
+    /**
+     * Offset mode only: null in cursor mode (count is skipped) and omitted from the JSON
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
+
     private boolean hasNextPage;
     private boolean hasPreviousPage;
     private List<T> content;
 
+    /**
+     * Cursor mode only: token for the next slice, null on the last slice
+     */
+    private String nextCursor;
+
 }
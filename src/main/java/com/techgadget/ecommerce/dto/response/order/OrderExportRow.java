@@ -0,0 +1,29 @@
+package com.techgadget.ecommerce.dto.response.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order of admin order export (CSV row / NDJSON line)
+ * -
+ * Flat, order level only (no items)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+
+    private Long id;
+    private String orderNumber;
+    private LocalDateTime createdAt;
+    private Long userId;
+    private String orderStatus;
+    private String paymentStatus;
+    private String paymentMethod;
+    private Long amount;
+    private String shippingProvider;
+    private String trackingNumber;
+}
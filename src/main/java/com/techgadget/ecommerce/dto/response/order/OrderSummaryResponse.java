@@ -0,0 +1,54 @@
+package com.techgadget.ecommerce.dto.response.order;
+
+import com.techgadget.ecommerce.enums.OrderStatus;
+import com.techgadget.ecommerce.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order without items & address (order list views)
+ * -
+ * Selected straight from orders + payments columns,
+ * no entity is loaded and order_items is not touched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+
+    private Long id;
+    private String orderNumber;
+    private String orderStatus;
+    private String paymentStatus;
+
+    private Long totalPrice;
+    private Integer totalItems;
+
+    private LocalDateTime createdAt;
+
+    /**
+     * Constructor expression of the summary query
+     */
+    public OrderSummaryResponse(
+            Long id,
+            String orderNumber,
+            OrderStatus orderStatus,
+            PaymentStatus paymentStatus,
+            Long totalPrice,
+            Integer totalItems,
+            LocalDateTime createdAt
+    ) {
+        this(
+                id,
+                orderNumber,
+                orderStatus.toString(),
+                paymentStatus != null ? paymentStatus.toString() : null,
+                totalPrice,
+                totalItems,
+                createdAt
+        );
+    }
+}
@@ -19,7 +19,8 @@ public class Cart extends Auditable {
 
     @Setter(AccessLevel.NONE)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -30,9 +31,19 @@ public class Cart extends Auditable {
     private User user;
 
     @Setter(AccessLevel.NONE)
-    @OneToMany(mappedBy = "cart", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "cart", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> items = new HashSet<>();
 
+    /**
+     * Denormalized sum of item quantities
+     * -
+     * Maintained in DB by CartRepository.refreshTotalQuantity,
+     * never written by Hibernate.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "total_quantity", nullable = false, insertable = false, updatable = false)
+    private Integer totalQuantity = 0;
+
     /**
      * Constructor to create new cart without any item
      */
@@ -26,7 +26,8 @@ public class Order extends Auditable {
 
     @Setter(AccessLevel.NONE)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -59,28 +60,32 @@ public class Order extends Auditable {
 
     private String trackingNumber;
 
+    /*
+        Denormalized totals, maintained by addItem()
+        - list views read them without loading items
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private Long totalPrice = 0L;
+
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private Integer totalItems = 0;
+
     public Order(User user, String orderNumber, Address shippingAddress) {
         this.user = user;
         this.orderNumber = orderNumber;
         this.shippingAddress = shippingAddress;
     }
 
+    /**
+     * Add item (quantity & price must be set) and update totals
+     */
     public void addItem(OrderItem orderItem) {
         orderItem.setOrder(this);
         items.add(orderItem);
-    }
-
-    /**
-     * Get total price from each item
-     */
-    public Long getTotalPrice() {
-        return this.items.stream()
-                .mapToLong(OrderItem::getSubtotal)
-                .sum();
-    }
-
-    public Integer getTotalItems() {
-        return this.items.size();
+        totalPrice += orderItem.getSubtotal();
+        totalItems++;
     }
 
     @Override
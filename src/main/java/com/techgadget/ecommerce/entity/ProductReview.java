@@ -24,7 +24,8 @@ public class ProductReview extends Auditable {
 
     @Setter(AccessLevel.NONE)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_reviews_seq")
+    @SequenceGenerator(name = "product_reviews_seq", sequenceName = "product_reviews_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,7 @@
+package com.techgadget.ecommerce.enums;
+
+public enum CartOperationType {
+    ADD,    // productId + quantity, added to the quantity already in cart
+    UPDATE, // cartItemId + quantity
+    REMOVE  // cartItemId
+}
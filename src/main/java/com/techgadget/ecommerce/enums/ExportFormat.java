@@ -0,0 +1,14 @@
+package com.techgadget.ecommerce.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"); // 1 JSON object per line
+
+    private final String contentType;
+    private final String fileExtension;
+}
@@ -0,0 +1,9 @@
+package com.techgadget.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class UnprocessableContentException extends BaseException {
+    public UnprocessableContentException(String message) {
+        super(HttpStatus.UNPROCESSABLE_CONTENT, message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Read-only row of a cart item (JPQL constructor expression)
+ * -
+ * Cart item + the product columns shown in cart + primary image key,
+ * without loading Cart / CartItem / Product entities.
+ */
+public record CartItemRow(
+        Long id,
+        Long productId,
+        String productName,
+        Long price,
+        Integer quantity,
+        @Nullable String primaryImageKey
+) {
+
+    public Long subtotal() {
+        return price * quantity;
+    }
+}
@@ -0,0 +1,14 @@
+package com.techgadget.ecommerce.repository;
+
+/**
+ * One line of a cart, without product data (JPQL constructor expression / Redis cart store)
+ * -
+ * Cart item ID is allocated from cart_items_seq when the line is created,
+ * so it stays the same before and after the line is written to cart_items.
+ */
+public record CartLine(
+        Long cartItemId,
+        Long productId,
+        Integer quantity
+) {
+}
@@ -3,14 +3,16 @@ package com.techgadget.ecommerce.repository;
 import com.techgadget.ecommerce.entity.Cart;
 import com.techgadget.ecommerce.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartRepository extends JpaRepository<Cart, Long> {
+public interface CartRepository extends JpaRepository<Cart, Long>, CartSyncRepository {
 
     /**
      * Find cart by user ID
@@ -26,10 +28,41 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
             "where c.user.id = :userId")
     Optional<Cart> findByUser_IdWithItems(@Param("userId") Long userId);
 
+    /**
+     * Find lines of user's cart (cart item ID, product ID, quantity), oldest item first
+     * -
+     * cart_items only, product data comes from ProductSnapshotCache.
+     */
+    @Query("select new com.techgadget.ecommerce.repository.CartLine(ci.id, ci.product.id, ci.quantity) " +
+            "from CartItem ci " +
+            "where ci.cart.user.id = :userId " +
+            "order by ci.id")
+    List<CartLine> findLinesByUserId(@Param("userId") Long userId);
+
     /**
      * Find cart by user ID without items
      */
     Optional<Cart> findByUser_Id(Long userId);
 
     boolean existsByUser_Id(Long userId);
+
+    /**
+     * Total item quantity of user's cart (carts row only, cart_items not read)
+     * -
+     * Empty when the user has no cart yet.
+     */
+    @Query("select c.totalQuantity from Cart c where c.user.id = :userId")
+    Optional<Integer> findTotalQuantityByUserId(@Param("userId") Long userId);
+
+    /**
+     * Recalculate total item quantity of cart from its items
+     * -
+     * Pending item changes are flushed first.
+     * Recalculated (not incremented) -> any drift is fixed by the next change.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE carts " +
+            "SET total_quantity = (SELECT COALESCE(SUM(ci.quantity), 0) FROM cart_items ci WHERE ci.cart_id = :cartId) " +
+            "WHERE id = :cartId")
+    int refreshTotalQuantity(@Param("cartId") Long cartId);
 }
@@ -0,0 +1,34 @@
+package com.techgadget.ecommerce.repository;
+
+import java.util.Collection;
+
+/**
+ * Custom fragment of CartRepository for write-behind of the Redis cart store
+ * -
+ * A cart is written as a whole (its current lines),
+ * so writing the same cart twice is harmless.
+ */
+public interface CartSyncRepository {
+
+    /**
+     * Allocate the ID of a new cart item
+     * -
+     * One SELECT nextval reserves a block of 50 IDs (INCREMENT BY 50),
+     * handed out in memory like Hibernate's pooled optimizer: (nextval - 49) .. nextval.
+     * Hibernate only uses IDs of blocks it fetched itself,
+     * so an ID taken here is never handed out twice.
+     */
+    long nextCartItemId();
+
+    /**
+     * Make cart_items of the user's cart equal to lines (cart created if missing)
+     * 1) Upsert carts row (uk_user_id)
+     * 2) Delete items not in lines (by cart item ID & product ID),
+     *    so a line never conflicts with another row of its product (uk_cart_product)
+     * 3) Upsert lines by cart item ID in one JDBC batch (lines of deleted products skipped)
+     * 4) Recalculate carts.total_quantity
+     * -
+     * Must run inside a transaction.
+     */
+    void replaceCartLines(Long userId, Collection<CartLine> lines);
+}
@@ -0,0 +1,103 @@
+package com.techgadget.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JDBC implementation of {@link CartSyncRepository}
+ * -
+ * Runs on the connection of the current JPA transaction.
+ */
+@RequiredArgsConstructor
+public class CartSyncRepositoryImpl implements CartSyncRepository {
+
+    /**
+     * INCREMENT BY of cart_items_seq (V7) = allocationSize of CartItem
+     */
+    private static final int CART_ITEM_ID_BLOCK_SIZE = 50;
+
+    private static final String NEXT_CART_ITEM_ID_SQL = "SELECT nextval('cart_items_seq')";
+
+    private static final String UPSERT_CART_SQL = """
+            INSERT INTO carts (user_id, created_at, updated_at)
+            VALUES (?, LOCALTIMESTAMP, LOCALTIMESTAMP)
+            ON CONFLICT (user_id) DO UPDATE SET updated_at = LOCALTIMESTAMP
+            RETURNING id
+            """;
+
+    // Also rows of a line's product under another ID (e.g. added on the DB path): uk_cart_product
+    private static final String DELETE_OTHER_ITEMS_SQL = """
+            DELETE FROM cart_items
+            WHERE cart_id = ?
+              AND (id, product_id) NOT IN (SELECT * FROM unnest(?::bigint[], ?::bigint[]))
+            """;
+
+    private static final String UPSERT_ITEM_SQL = """
+            INSERT INTO cart_items (id, cart_id, product_id, quantity, created_at, updated_at)
+            SELECT ?, ?, p.id, ?, LOCALTIMESTAMP, LOCALTIMESTAMP
+            FROM products p
+            WHERE p.id = ?
+            ON CONFLICT (id) DO UPDATE
+            SET quantity = EXCLUDED.quantity, updated_at = LOCALTIMESTAMP
+            WHERE cart_items.quantity <> EXCLUDED.quantity
+            """;
+
+    private static final String REFRESH_TOTAL_QUANTITY_SQL = """
+            UPDATE carts
+            SET total_quantity = (SELECT COALESCE(SUM(quantity), 0) FROM cart_items WHERE cart_id = ?)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Reserved block of cart item IDs: nextCartItemId .. lastCartItemId
+    private final ReentrantLock cartItemIdLock = new ReentrantLock();
+    private long nextCartItemId = 1;
+    private long lastCartItemId = 0;
+
+    @Override
+    public long nextCartItemId() {
+
+        cartItemIdLock.lock();
+        try {
+            // Block used up: reserve the next one (pooled: nextval is its highest ID)
+            if (nextCartItemId > lastCartItemId) {
+                lastCartItemId = Objects.requireNonNull(
+                        jdbcTemplate.queryForObject(NEXT_CART_ITEM_ID_SQL, Long.class));
+                nextCartItemId = lastCartItemId - CART_ITEM_ID_BLOCK_SIZE + 1;
+            }
+
+            return nextCartItemId++;
+        } finally {
+            cartItemIdLock.unlock();
+        }
+    }
+
+    @Override
+    public void replaceCartLines(Long userId, Collection<CartLine> lines) {
+
+        long cartId = Objects.requireNonNull(
+                jdbcTemplate.queryForObject(UPSERT_CART_SQL, Long.class, userId));
+
+        Long[] cartItemIds = lines.stream().map(CartLine::cartItemId).toArray(Long[]::new);
+        Long[] productIds = lines.stream().map(CartLine::productId).toArray(Long[]::new);
+        jdbcTemplate.update(DELETE_OTHER_ITEMS_SQL, cartId, cartItemIds, productIds);
+
+        if (!lines.isEmpty()) {
+            List<Object[]> batchArgs = new ArrayList<>(lines.size());
+            for (CartLine line : lines) {
+                batchArgs.add(new Object[]{line.cartItemId(), cartId, line.quantity(), line.productId()});
+            }
+
+            jdbcTemplate.batchUpdate(UPSERT_ITEM_SQL, batchArgs);
+        }
+
+        jdbcTemplate.update(REFRESH_TOTAL_QUANTITY_SQL, cartId, cartId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.techgadget.ecommerce.repository;
+
+/**
+ * DB stock of a hot product + whether a hot inventory flush batch is already in it
+ * -
+ * Both read in one statement (same snapshot).
+ */
+public record HotStock(
+        int stock,
+        boolean batchApplied
+) {
+}
@@ -0,0 +1,165 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position for keyset (seek) pagination
+ * -
+ * Holds the sort value + id of the LAST row of a page.
+ * Next page = rows strictly after (sortValue, id) in sort order,
+ * so no OFFSET scan and no count query is needed.
+ * -
+ * Sent to clients as an opaque base64url token.
+ * -
+ * cursor request parameter (list endpoints with opt-in cursor mode):
+ * null   -> offset paging with page + total count
+ * ""     -> first slice in cursor mode
+ * token  -> slice after nextCursor of previous response (page is ignored)
+ */
+public record KeysetCursor(
+        String sortBy,
+        Sort.Direction direction,
+        String value,
+        Long id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Build cursor from the last row of a page
+     */
+    public static KeysetCursor of(String sortBy, Sort.Direction direction, Object value, Long id) {
+        return new KeysetCursor(sortBy, direction, String.valueOf(value), id);
+    }
+
+    /**
+     * Decode cursor token sent by client
+     * -
+     * Returns null for an empty token (first page)
+     * Throws IllegalArgumentException for a malformed token
+     */
+    @Nullable
+    public static KeysetCursor decode(@Nullable String token) {
+
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            // sortBy|direction|id|value (value is last, it may contain the separator)
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+
+            return new KeysetCursor(
+                    parts[0],
+                    Sort.Direction.fromString(parts[1]),
+                    parts[3],
+                    Long.valueOf(parts[2])
+            );
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), String.valueOf(id), value);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Make sure cursor was issued for the same sort as the current request,
+     * and its value parses into the type of the sorted attribute
+     * -
+     * Throws IllegalArgumentException otherwise
+     */
+    public void assertMatches(String sortBy, Sort.Direction direction, Class<?> valueType) {
+        if (!this.sortBy.equals(sortBy) || this.direction != direction) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort.");
+        }
+        parse(value, valueType);
+    }
+
+    /**
+     * Parse value into the type of the sorted attribute
+     */
+    @SuppressWarnings("unchecked")
+    public <Y extends Comparable<? super Y>> Y typedValue(Class<? extends Y> type) {
+        return (Y) parse(value, type);
+    }
+
+    /**
+     * (sortBy, id) > (value, id) for ASC
+     * (sortBy, id) < (value, id) for DESC
+     */
+    public <T, Y extends Comparable<? super Y>> Predicate seekPredicate(Root<T> root, CriteriaBuilder cb) {
+
+        Path<Y> sortPath = root.get(sortBy);
+        Path<Long> idPath = root.get("id");
+        Y sortValue = typedValue(sortPath.getJavaType());
+
+        if (direction.isAscending()) {
+            return cb.or(
+                    cb.greaterThan(sortPath, sortValue),
+                    cb.and(cb.equal(sortPath, sortValue), cb.greaterThan(idPath, id))
+            );
+        }
+
+        return cb.or(
+                cb.lessThan(sortPath, sortValue),
+                cb.and(cb.equal(sortPath, sortValue), cb.lessThan(idPath, id))
+        );
+    }
+
+    /**
+     * ORDER BY sortBy, id in the same direction (matches the seek predicate)
+     */
+    public static <T> List<Order> orderBy(Root<T> root, CriteriaBuilder cb, String sortBy, Sort.Direction direction) {
+
+        Expression<?> sortPath = root.get(sortBy);
+        Expression<?> idPath = root.get("id");
+
+        return direction.isAscending()
+                ? List.of(cb.asc(sortPath), cb.asc(idPath))
+                : List.of(cb.desc(sortPath), cb.desc(idPath));
+    }
+
+    private static Object parse(String value, Class<?> type) {
+        try {
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == String.class) {
+                return value;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+
+        throw new IllegalStateException("Unsupported keyset type: " + type);
+    }
+}
@@ -0,0 +1,67 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset scroll of entity IDs, shared by the search repository implementations
+ * -
+ * select e.id from Entity e where <spec> and (sortBy, id) > cursor order by sortBy, id limit n + 1
+ */
+final class KeysetScroll {
+
+    private KeysetScroll() {
+    }
+
+    static <T> Slice<Long> scrollIds(
+            EntityManager entityManager,
+            Class<T> entityType,
+            Specification<T> spec,
+            String sortBy,
+            Sort.Direction direction,
+            @Nullable KeysetCursor after,
+            int limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(root.get("id"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (after != null) {
+            predicates.add(after.seekPredicate(root, cb));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        query.orderBy(KeysetCursor.orderBy(root, cb, sortBy, direction));
+
+        // Fetch 1 extra row to know if there is a next slice (no count query)
+        List<Long> ids = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = ids.size() > limit;
+        if (hasNext) {
+            ids = ids.subList(0, limit);
+        }
+
+        return new SliceImpl<>(ids, PageRequest.of(0, limit), hasNext);
+    }
+}
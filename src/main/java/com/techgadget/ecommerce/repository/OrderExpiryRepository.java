@@ -0,0 +1,38 @@
+package com.techgadget.ecommerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom fragment of OrderRepository for expiring unpaid orders set-based
+ * -
+ * Every method must run inside a transaction (locks are held until commit).
+ */
+public interface OrderExpiryRepository {
+
+    /**
+     * Try to take a transaction-level Postgres advisory lock
+     * -
+     * Return false if another transaction (another node) holds it.
+     * Released automatically on commit / rollback.
+     */
+    boolean tryAdvisoryXactLock(long key);
+
+    /**
+     * Lock a chunk of unpaid PENDING orders created before cutoff, oldest first
+     * -
+     * SELECT ... FOR UPDATE SKIP LOCKED: orders locked by a concurrent
+     * payment / cancellation are skipped (picked up by a later run).
+     * Walks idx_orders_status_created (order_status, created_at, id).
+     */
+    List<Long> lockExpiredOrderIds(LocalDateTime cutoff, int limit);
+
+    /**
+     * Cancel locked orders in two statements:
+     * orders -> CANCELLED, payments -> FAILED
+     * -
+     * Return number of cancelled orders
+     */
+    int cancelUnpaidOrders(Collection<Long> orderIds);
+}
@@ -0,0 +1,70 @@
+package com.techgadget.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link OrderExpiryRepository}
+ * -
+ * Runs on the connection of the current JPA transaction.
+ * Order / Payment entities loaded before keep their old status.
+ */
+@RequiredArgsConstructor
+public class OrderExpiryRepositoryImpl implements OrderExpiryRepository {
+
+    private static final String TRY_ADVISORY_XACT_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private static final String LOCK_EXPIRED_ORDER_IDS_SQL = """
+            SELECT o.id
+            FROM orders o
+            JOIN payments p ON p.order_id = o.id
+            WHERE o.order_status = 'PENDING'
+            AND o.created_at < ?
+            AND p.payment_status = 'PENDING'
+            ORDER BY o.created_at, o.id
+            LIMIT ?
+            FOR UPDATE OF o SKIP LOCKED
+            """;
+
+    private static final String FAIL_PAYMENTS_SQL = """
+            UPDATE payments
+            SET payment_status = 'FAILED', updated_at = LOCALTIMESTAMP
+            WHERE order_id = ANY(?)
+            """;
+
+    private static final String CANCEL_ORDERS_SQL = """
+            UPDATE orders
+            SET order_status = 'CANCELLED', updated_at = LOCALTIMESTAMP
+            WHERE id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean tryAdvisoryXactLock(long key) {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject(TRY_ADVISORY_XACT_LOCK_SQL, Boolean.class, key));
+    }
+
+    @Override
+    public List<Long> lockExpiredOrderIds(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(LOCK_EXPIRED_ORDER_IDS_SQL, Long.class, cutoff, limit);
+    }
+
+    @Override
+    public int cancelUnpaidOrders(Collection<Long> orderIds) {
+
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        Long[] ids = orderIds.toArray(Long[]::new);
+
+        jdbcTemplate.update(FAIL_PAYMENTS_SQL, (Object) ids);
+        return jdbcTemplate.update(CANCEL_ORDERS_SQL, (Object) ids);
+    }
+}
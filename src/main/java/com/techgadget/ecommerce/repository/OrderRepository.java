@@ -1,21 +1,19 @@
 package com.techgadget.ecommerce.repository;
 
-import com.techgadget.ecommerce.enums.OrderStatus;
 import com.techgadget.ecommerce.entity.Order;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>,
+        OrderSearchRepository, OrderExpiryRepository {
 
     /**
      * Get order by id with
@@ -36,123 +34,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("userId") Long userId
     );
 
-    /**
-     * Find all user orders with relation
-     * -
-     *  Filtering by:
-     * - orderStatus
-     * - fromDate
-     * - toDate
-     */
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where o.user.id = :userId " +
-            "and (:orderStatus is null or o.orderStatus = :orderStatus) " +
-            "and o.createdAt >= :fromDate " +
-            "and o.createdAt <= :toDate ",
-            countQuery = """
-                select count(o) from Order o
-                where o.user.id = :userId
-                and (:orderStatus is null or o.orderStatus = :orderStatus)
-                and o.createdAt >= :fromDate
-                and o.createdAt <= :toDate
-                """
-    )
-    Page<Order> findUserOrdersBetweenDate(
-            @Param("userId") Long userId,
-            @Param("orderStatus") OrderStatus orderStatus,
-            @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate,
-            Pageable pageable
-    );
-
-    /**
-     * Find all user orders with relation (items and products)
-     * -
-     *  Filtering by:
-     * - orderStatus
-     * WITHOUT any date range
-     */
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where o.user.id = :userId " +
-            "and (:orderStatus is null or o.orderStatus = :orderStatus)",
-            countQuery = """
-                select count(o) from Order o
-                where o.user.id = :userId
-                and (:orderStatus is null or o.orderStatus = :orderStatus)
-                """
-    )
-    Page<Order> findUserOrders(
-            @Param("userId") Long userId,
-            @Param("orderStatus") OrderStatus orderStatus,
-            Pageable pageable
-    );
-
-    /**
-     * Find all user orders with relation (items and products)
-     * -
-     *  Filtering by:
-     * - orderStatus
-     * - fromDate
-     */
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where o.user.id = :userId " +
-            "and (:orderStatus is null or o.orderStatus = :orderStatus) " +
-            "and o.createdAt >= :fromDate ",
-            countQuery = """
-                select count(o) from Order o
-                where o.user.id = :userId
-                and (:orderStatus is null or o.orderStatus = :orderStatus)
-                and o.createdAt >= :fromDate
-                """
-    )
-    Page<Order> findUserOrdersFromDate(
-            @Param("userId") Long userId,
-            @Param("orderStatus") OrderStatus orderStatus,
-            @Param("fromDate") LocalDateTime fromDate,
-            Pageable pageable
-    );
-
-    /**
-     * Find all user orders with relation (items and products)
-     * -
-     *  Filtering by:
-     * - orderStatus
-     * - toDate
-     */
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where o.user.id = :userId " +
-            "and (:orderStatus is null or o.orderStatus = :orderStatus) " +
-            "and o.createdAt <= :toDate ",
-            countQuery = """
-                select count(o) from Order o
-                where o.user.id = :userId
-                and (:orderStatus is null or o.orderStatus = :orderStatus)
-                and o.createdAt <= :toDate
-                """
-    )
-    Page<Order> findUserOrdersToDate(
-            @Param("userId") Long userId,
-            @Param("orderStatus") OrderStatus orderStatus,
-            @Param("toDate") LocalDateTime toDate,
-            Pageable pageable
-    );
-
     @Query("select o from Order o " +
             "left join fetch o.shippingAddress " +
             "left join fetch o.payment " +
@@ -171,87 +52,37 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = {"shippingAddress", "payment", "items"})
     List<Order> findUserOrderByUserId(Long userId);
 
-    boolean existsByIdAndUser_Id(Long id, Long userId);
-
-    // Count all user orders
-    long countByUser_Id(Long userId);
-
+    /**
+     * Load orders with relation for IDs of one page/slice
+     */
+    @EntityGraph(attributePaths = {"shippingAddress", "payment", "items"})
+    List<Order> findOrderListByIdIn(Collection<Long> ids);
 
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where (:orderStatus is null or o.orderStatus = :orderStatus)",
-            countQuery = """
-                select count(o) from Order o
-                where (:orderStatus is null or o.orderStatus = :orderStatus)
-                """
-    )
-    Page<Order> findAllOrdersWithRelation(
-            @Param("orderStatus") OrderStatus orderStatus,
-            Pageable pageable
-    );
+    /**
+     * Sum item quantities of many orders per product (one aggregate query)
+     * -
+     * Used to restore stock of cancelled orders set-based.
+     */
+    @Query("select new com.techgadget.ecommerce.repository.ProductQuantity(" +
+            "oi.productIdSnapshot, sum(oi.quantity)) " +
+            "from OrderItem oi " +
+            "where oi.order.id in :orderIds " +
+            "group by oi.productIdSnapshot")
+    List<ProductQuantity> sumItemQuantitiesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where (:orderStatus is null or o.orderStatus = :orderStatus) " +
-            "and o.createdAt >= :fromDate " +
-            "and o.createdAt <= :toDate ",
-            countQuery = """
-                select count(o) from Order o
-                where (:orderStatus is null or o.orderStatus = :orderStatus)
-                and o.createdAt >= :fromDate
-                and o.createdAt <= :toDate
-                """
-    )
-    Page<Order> findAllOrdersBetweenDateWithRelation(
-            @Param("orderStatus") OrderStatus orderStatus,
-            @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate,
-            Pageable pageable
-    );
+    /**
+     * Lock order row until end of transaction (SELECT ... FOR UPDATE)
+     * -
+     * Call BEFORE loading the order, so status changes of concurrent
+     * transactions (payment, cancellation, expiry sweeper) are serialized & seen.
+     */
+    @Query(value = "SELECT id FROM orders WHERE id = :orderId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("orderId") Long orderId);
 
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where (:orderStatus is null or o.orderStatus = :orderStatus) " +
-            "and o.createdAt >= :fromDate ",
-            countQuery = """
-                select count(o) from Order o
-                where (:orderStatus is null or o.orderStatus = :orderStatus)
-                and o.createdAt >= :fromDate
-                """
-    )
-    Page<Order> findAllOrdersFromDateWithRelation(
-            @Param("orderStatus") OrderStatus orderStatus,
-            @Param("fromDate") LocalDateTime fromDate,
-            Pageable pageable
-    );
+    boolean existsByIdAndUser_Id(Long id, Long userId);
 
-    @Query(
-            value = "select o from Order o " +
-            "left join fetch o.shippingAddress " +
-            "left join fetch o.payment " +
-            "left join fetch o.items oi " +
-            "where (:orderStatus is null or o.orderStatus = :orderStatus) " +
-            "and o.createdAt <= :toDate ",
-            countQuery = """
-                select count(o) from Order o
-                where (:orderStatus is null or o.orderStatus = :orderStatus)
-                and o.createdAt <= :toDate
-                """
-    )
-    Page<Order> findAllOrdersToDateWithRelation(
-            @Param("orderStatus") OrderStatus orderStatus,
-            @Param("toDate") LocalDateTime toDate,
-            Pageable pageable
-    );
+    // Count all user orders
+    long countByUser_Id(Long userId);
 
     @Query("select o from Order o " +
             "left join fetch o.shippingAddress " +
@@ -0,0 +1,60 @@
+package com.techgadget.ecommerce.repository;
+
+import com.techgadget.ecommerce.dto.response.order.OrderSummaryResponse;
+import com.techgadget.ecommerce.entity.Order;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Custom fragment of OrderRepository for dynamic search
+ */
+public interface OrderSearchRepository {
+
+    /**
+     * Page order IDs only (pagination done in SQL)
+     * -
+     * Relations (items, payment, address) must be loaded afterward
+     * for the IDs of this page only.
+     */
+    Page<Long> searchOrderIds(Specification<Order> spec, Pageable pageable);
+
+    /**
+     * Page order summaries (orders + payment status columns only)
+     * -
+     * One query (+ count), no entity and no item is loaded.
+     */
+    Page<OrderSummaryResponse> searchOrderSummaries(Specification<Order> spec, Pageable pageable);
+
+    /**
+     * Keyset page of order IDs strictly after cursor, ordered by (createdAt, id)
+     * -
+     * No OFFSET and no count query.
+     * Relations (items, payment, address) must be loaded afterward
+     * for the IDs of this slice only.
+     */
+    Slice<Long> scrollOrderIds(
+            Specification<Order> spec,
+            Sort.Direction direction,
+            @Nullable KeysetCursor after,
+            int limit
+    );
+
+    /**
+     * Stream orders (with payment) ordered by (createdAt, id)
+     * -
+     * Forward-only JDBC cursor, rows are fetched fetchSize at a time.
+     * Must be consumed (and closed) inside a transaction,
+     * entities are read-only and stay managed until the persistence context is cleared.
+     */
+    Stream<Order> streamOrders(
+            Specification<Order> spec,
+            Sort.Direction direction,
+            int fetchSize
+    );
+}
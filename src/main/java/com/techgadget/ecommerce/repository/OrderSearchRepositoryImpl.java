@@ -0,0 +1,168 @@
+package com.techgadget.ecommerce.repository;
+
+import com.techgadget.ecommerce.dto.response.order.OrderSummaryResponse;
+import com.techgadget.ecommerce.entity.Order;
+import com.techgadget.ecommerce.entity.Payment;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Criteria implementation of {@link OrderSearchRepository}
+ * -
+ * Selects only o.id, so LIMIT/OFFSET is applied in SQL
+ * (fetch join of o.items + LIMIT would paginate in memory).
+ */
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private static final String SORT_FIELD = "createdAt";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> searchOrderIds(Specification<Order> spec, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> root = query.from(Order.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(QueryUtils.toOrders(stableSort(pageable), root, cb));
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Count query only runs when total can't be derived from this page
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Page<OrderSummaryResponse> searchOrderSummaries(Specification<Order> spec, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<OrderSummaryResponse> query = cb.createQuery(OrderSummaryResponse.class);
+        Root<Order> root = query.from(Order.class);
+        Join<Order, Payment> payment = root.join("payment", JoinType.LEFT);
+
+        query.select(cb.construct(
+                OrderSummaryResponse.class,
+                root.get("id"),
+                root.get("orderNumber"),
+                root.get("orderStatus"),
+                payment.get("paymentStatus"),
+                root.get("totalPrice"),
+                root.get("totalItems"),
+                root.get("createdAt")
+        ));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(QueryUtils.toOrders(stableSort(pageable), root, cb));
+
+        List<OrderSummaryResponse> summaries = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(summaries, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<Long> scrollOrderIds(
+            Specification<Order> spec,
+            Sort.Direction direction,
+            @Nullable KeysetCursor after,
+            int limit
+    ) {
+        return KeysetScroll.scrollIds(entityManager, Order.class, spec, SORT_FIELD, direction, after, limit);
+    }
+
+    @Override
+    public Stream<Order> streamOrders(
+            Specification<Order> spec,
+            Sort.Direction direction,
+            int fetchSize
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> root = query.from(Order.class);
+
+        // Inverse side of one-to-one can't be lazy -> fetch in the same row
+        root.fetch("payment", JoinType.LEFT);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(KeysetCursor.orderBy(root, cb, SORT_FIELD, direction));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Sort of pageable (default createdAt DESC), always tie-broken by id so pages are stable
+     */
+    private Sort stableSort(Pageable pageable) {
+
+        Sort sort = pageable.getSort().isSorted()
+                ? pageable.getSort()
+                : Sort.by(Sort.Direction.DESC, SORT_FIELD);
+
+        if (sort.getOrderFor("id") == null) {
+            Sort.Direction direction = sort.iterator().next().getDirection();
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        return sort;
+    }
+
+    private long count(Specification<Order> spec) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> root = query.from(Order.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,73 @@
+package com.techgadget.ecommerce.repository;
+
+import com.techgadget.ecommerce.entity.Order;
+import com.techgadget.ecommerce.enums.OrderStatus;
+import jakarta.annotation.Nullable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable filters for order listing
+ * -
+ * Each filter is skipped when its value is null,
+ * every predicate is a plain comparison on an orders column (sargable).
+ */
+public final class OrderSpecification {
+
+    private OrderSpecification() {}
+
+    /**
+     * Build search specification from all (NULLABLE) filters
+     * -
+     * userId null -> orders of every user (admin)
+     */
+    public static Specification<Order> search(
+            @Nullable Long userId,
+            @Nullable OrderStatus orderStatus,
+            @Nullable LocalDateTime fromDate,
+            @Nullable LocalDateTime toDate
+    ) {
+        List<Specification<Order>> specs = new ArrayList<>();
+
+        if (userId != null) {
+            specs.add(ofUser(userId));
+        }
+        if (orderStatus != null) {
+            specs.add(hasStatus(orderStatus));
+        }
+        if (fromDate != null) {
+            specs.add(createdFrom(fromDate));
+        }
+        if (toDate != null) {
+            specs.add(createdTo(toDate));
+        }
+
+        return Specification.allOf(specs);
+    }
+
+    /**
+     * o.user.id = userId (no join, uses FK column)
+     */
+    public static Specification<Order> ofUser(Long userId) {
+        return (root, query, cb) ->
+                cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus orderStatus) {
+        return (root, query, cb) ->
+                cb.equal(root.get("orderStatus"), orderStatus);
+    }
+
+    public static Specification<Order> createdFrom(LocalDateTime fromDate) {
+        return (root, query, cb) ->
+                cb.greaterThanOrEqualTo(root.get("createdAt"), fromDate);
+    }
+
+    public static Specification<Order> createdTo(LocalDateTime toDate) {
+        return (root, query, cb) ->
+                cb.lessThanOrEqualTo(root.get("createdAt"), toDate);
+    }
+}
@@ -0,0 +1,27 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Read-only row of a product list page (JPQL constructor expression)
+ * -
+ * Flat columns of product + category + primary image key.
+ * Not an entity: nothing is attached to the persistence context,
+ * no dirty-checking snapshot, no images collection, no category proxy.
+ */
+public record ProductListRow(
+        Long id,
+        String name,
+        @Nullable String description,
+        Long price,
+        Integer stock,
+        @Nullable Map<String, Object> specs,
+        LocalDateTime createdAt,
+        Long categoryId,
+        String categoryName,
+        @Nullable String primaryImageKey
+) {
+}
@@ -0,0 +1,10 @@
+package com.techgadget.ecommerce.repository;
+
+/**
+ * Total ordered quantity of one product (JPQL constructor expression)
+ */
+public record ProductQuantity(
+        Long productId,
+        Long quantity
+) {
+}
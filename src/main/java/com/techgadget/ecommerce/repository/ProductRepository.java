@@ -1,235 +1,85 @@
 package com.techgadget.ecommerce.repository;
 
 import com.techgadget.ecommerce.entity.Product;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>,
+        ProductSearchRepository, ProductStockRepository {
 
     /**
-     * Find paginated products by name (case-insensitive)
+     * Find list rows of a single search page by IDs
      * Join:
-     * > Primary image
+     * > Category (name only)
+     * > Primary image (thumbnail key, else original key)
+     * -
+     * DTO projection, no Product entity is hydrated.
+     * Result order is NOT guaranteed, re-order by the page IDs.
+     * A product with several primary images has several rows, keep the first.
      */
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-            """,
-            countQuery = """
-                select count(p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-            """
-    )
-    Page<Product> findProductListByName(String name, Pageable pageable);
+    @Query("SELECT new com.techgadget.ecommerce.repository.ProductListRow(" +
+            "p.id, p.name, p.description, p.price, p.stock, p.specs, p.createdAt, " +
+            "c.id, c.name, COALESCE(pi.thumbnailKey, pi.originalKey)) " +
+            "FROM Product p " +
+            "JOIN p.category c " +
+            "LEFT JOIN ProductImage pi ON pi.product = p AND pi.isPrimary = true " +
+            "WHERE p.id IN :ids")
+    List<ProductListRow> findProductListRowsByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
-     * Search paginated products
-     * by name and category id (complex query)
-     * -
+     * Find cart snapshots of products by IDs
      * Join:
-     * > Primary image
+     * > Primary image (thumbnail key, else original key)
+     * -
+     * DTO projection, no Product entity is hydrated.
+     * A product with several primary images has several rows, keep the first.
      */
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-            """
-    )
-    Page<Product> findProductListByNameAndCategory_Id(
-            @Param("name") String name,
-            @Param("categoryId") Long categoryId,
-            Pageable pageable
-    );
+    @Query("SELECT new com.techgadget.ecommerce.repository.ProductSnapshot(" +
+            "p.id, p.name, p.price, p.stock, COALESCE(pi.thumbnailKey, pi.originalKey)) " +
+            "FROM Product p " +
+            "LEFT JOIN ProductImage pi ON pi.product = p AND pi.isPrimary = true " +
+            "WHERE p.id IN :ids")
+    List<ProductSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
-     * Search paginated products
-     * by name, category id, and price range
-     * -
-     * Join:
-     * > Primary image
+     * Check if category exists
      */
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-                and p.price between :minPrice and :maxPrice
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-                and p.price between :minPrice and :maxPrice
-            """
-    )
-    Page<Product> findProductListByNameAndCategory_IdAndPriceBetween(
-            @Param("name") String name,
-            @Param("categoryId") Long categoryId,
-            @Param("minPrice") Long minPrice,
-            @Param("maxPrice") Long maxPrice,
-            Pageable pageable
-    );
-
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-                and p.price >= :minPrice
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-                and p.price >= :minPrice
-            """
-    )
-    Page<Product> findProductListByNameAndCategory_IdAndPriceGreaterThanEqual(
-            @Param("name") String name,
-            @Param("categoryId") Long categoryId,
-            @Param("minPrice") Long minPrice,
-            Pageable pageable
-    );
-
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-                and p.price <= :maxPrice
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.category.id = :categoryId
-                and p.price <= :maxPrice
-            """
-    )
-    Page<Product> findProductListByNameAndCategory_IdAndPriceLessThanEqual(
-            @Param("name") String name,
-            @Param("categoryId") Long categoryId,
-            @Param("maxPrice") Long maxPrice,
-            Pageable pageable
-    );
+    boolean existsByCategory_Id(Long categoryId);
 
     /**
-     * Search paginated products
-     * by name and price range
-     * -
+     * Find single product for detail page
      * Join:
-     * > Primary image
+     * > Images
+     * > Category
      */
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.price between :minPrice and :maxPrice
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.price between :minPrice and :maxPrice
-            """
-    )
-    Page<Product> findProductListByNameAndPriceBetween(
-            @Param("name") String name,
-            @Param("minPrice") Long minPrice,
-            @Param("maxPrice") Long maxPrice,
-            Pageable pageable
-    );
-
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.price >= :minPrice
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.price >= :minPrice
-            """
-    )
-    Page<Product> findProductListByNameAndPriceGreaterThanEqual(
-            @Param("name") String name,
-            @Param("minPrice") long minPrice,
-            Pageable pageable
-    );
-
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.price <= :maxPrice
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where lower(p.name) like lower(concat('%', :name, '%') )
-                and p.price <= :maxPrice
-            """
-    )
-    Page<Product> findProductListByNameAndPriceLessThanEqual(
-            @Param("name") String name,
-            @Param("maxPrice") long maxPrice,
-            Pageable pageable
-    );
+    @EntityGraph(attributePaths = {"images", "category"})
+    Optional<Product> findProductDetailById(Long id);
 
     /**
-     * Find paginated products by stock availability
-     * Join:
-     * > Primary image
+     * Find products by IDs with images (one query, e.g. batch add to cart)
      */
-    @Query(
-            value = """
-                select distinct p from Product p
-                left join fetch p.images
-                where p.stock > 0
-            """,
-            countQuery = """
-                select count(distinct p) from Product p
-                left join p.images
-                where p.stock > 0
-            """
-    )
-    Page<Product> findAvailableProductList(Pageable pageable);
+    @EntityGraph(attributePaths = "images")
+    List<Product> findWithImagesByIdIn(Collection<Long> ids);
 
     /**
-     * Check if category exists
+     * Current stock in DB (not the loaded entity state)
      */
-    boolean existsByCategory_Id(Long categoryId);
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
 
-    @EntityGraph(attributePaths = {"images"})
-    Optional<Product> findProductDetailById(Long id);
+    /**
+     * Current stock in DB of products by IDs (one query, deleted products left out)
+     */
+    @Query("SELECT new com.techgadget.ecommerce.repository.ProductStock(p.id, p.stock) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductStock> findStocksByIdIn(@Param("ids") Collection<Long> ids);
 
 }
@@ -4,12 +4,15 @@ import com.techgadget.ecommerce.entity.ProductReview;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductReviewRepository extends JpaRepository<ProductReview,Integer> {
+public interface ProductReviewRepository extends
+        JpaRepository<ProductReview,Integer>,
+        JpaSpecificationExecutor<ProductReview> {
 
     @Query(
             value = """
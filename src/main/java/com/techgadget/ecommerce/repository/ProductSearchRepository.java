@@ -0,0 +1,49 @@
+package com.techgadget.ecommerce.repository;
+
+import com.techgadget.ecommerce.entity.Product;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom fragment of ProductRepository for dynamic search
+ */
+public interface ProductSearchRepository {
+
+    /**
+     * Page product IDs only (pagination done in SQL)
+     * -
+     * Relations (images, category) must be loaded afterward
+     * for the IDs of this page only.
+     */
+    Page<Long> searchProductIds(Specification<Product> spec, Pageable pageable);
+
+    /**
+     * Page product IDs ordered by relevance to keyword (best match first)
+     * -
+     * Relevance = pg_trgm word_similarity(keyword, lower(p.name)),
+     * sort of pageable is ignored.
+     */
+    Page<Long> searchProductIdsByRelevance(
+            Specification<Product> spec,
+            String keyword,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset variant: product IDs strictly after cursor, ordered by (sortBy, id)
+     * -
+     * No OFFSET and no count query,
+     * cost stays the same no matter how deep the client scrolls.
+     */
+    Slice<Long> scrollProductIds(
+            Specification<Product> spec,
+            String sortBy,
+            Sort.Direction direction,
+            @Nullable KeysetCursor after,
+            int limit
+    );
+}
@@ -0,0 +1,128 @@
+package com.techgadget.ecommerce.repository;
+
+import com.techgadget.ecommerce.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Criteria implementation of {@link ProductSearchRepository}
+ * -
+ * Selects only p.id with ORDER BY + LIMIT/OFFSET,
+ * so no collection is fetched and nothing is paginated in memory.
+ */
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> searchProductIds(Specification<Product> spec, Pageable pageable) {
+
+        return searchIds(spec, pageable, (root, cb) -> {
+            // Always tie-break by id, so pages are stable
+            Sort sort = pageable.getSort();
+            if (sort.getOrderFor("id") == null) {
+                Sort.Direction direction = sort.stream()
+                        .findFirst()
+                        .map(Sort.Order::getDirection)
+                        .orElse(Sort.Direction.DESC);
+                sort = sort.and(Sort.by(direction, "id"));
+            }
+            return QueryUtils.toOrders(sort, root, cb);
+        });
+    }
+
+    @Override
+    public Page<Long> searchProductIdsByRelevance(
+            Specification<Product> spec,
+            String keyword,
+            Pageable pageable
+    ) {
+        String normalizedKeyword = keyword.trim().toLowerCase();
+
+        return searchIds(spec, pageable, (root, cb) -> {
+            // word_similarity(keyword, lower(p.name)) -> 0..1 (pg_trgm)
+            Expression<Double> relevance = cb.function(
+                    "word_similarity",
+                    Double.class,
+                    cb.literal(normalizedKeyword),
+                    cb.lower(root.get("name"))
+            );
+            return List.of(cb.desc(relevance), cb.desc(root.get("id")));
+        });
+    }
+
+    @Override
+    public Slice<Long> scrollProductIds(
+            Specification<Product> spec,
+            String sortBy,
+            Sort.Direction direction,
+            @Nullable KeysetCursor after,
+            int limit
+    ) {
+        return KeysetScroll.scrollIds(entityManager, Product.class, spec, sortBy, direction, after, limit);
+    }
+
+    /**
+     * select p.id from Product p where ... order by ... limit/offset
+     */
+    private Page<Long> searchIds(
+            Specification<Product> spec,
+            Pageable pageable,
+            BiFunction<Root<Product>, CriteriaBuilder, List<Order>> orderBy
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(orderBy.apply(root, cb));
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Count query only runs when total can't be derived from this page
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Product> spec) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
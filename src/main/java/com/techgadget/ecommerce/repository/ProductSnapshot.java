@@ -0,0 +1,18 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Read-only snapshot of the product columns a cart needs (JPQL constructor expression)
+ * -
+ * Price, stock & primary image key only: no description, specs or category,
+ * small enough to be kept in memory for every product in carts.
+ */
+public record ProductSnapshot(
+        Long id,
+        String name,
+        Long price,
+        Integer stock,
+        @Nullable String primaryImageKey
+) {
+}
@@ -0,0 +1,74 @@
+package com.techgadget.ecommerce.repository;
+
+import com.techgadget.ecommerce.entity.Product;
+import jakarta.annotation.Nullable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable filters for product search
+ * -
+ * Each filter is skipped when its value is null,
+ * so one query covers every combination of
+ * name + category + price range.
+ */
+public final class ProductSpecification {
+
+    private ProductSpecification() {}
+
+    /**
+     * Build search specification from all (NULLABLE) filters
+     */
+    public static Specification<Product> search(
+            @Nullable String name,
+            @Nullable Long categoryId,
+            @Nullable Long minPrice,
+            @Nullable Long maxPrice
+    ) {
+        List<Specification<Product>> specs = new ArrayList<>();
+
+        if (name != null && !name.isBlank()) {
+            specs.add(nameContains(name));
+        }
+        if (categoryId != null) {
+            specs.add(inCategory(categoryId));
+        }
+        if (minPrice != null) {
+            specs.add(priceGreaterThanOrEqual(minPrice));
+        }
+        if (maxPrice != null) {
+            specs.add(priceLessThanOrEqual(maxPrice));
+        }
+
+        return Specification.allOf(specs);
+    }
+
+    /**
+     * lower(p.name) like %lower(name)%
+     */
+    public static Specification<Product> nameContains(String name) {
+        String pattern = "%" + name.trim().toLowerCase() + "%";
+        return (root, query, cb) ->
+                cb.like(cb.lower(root.get("name")), pattern);
+    }
+
+    /**
+     * p.category.id = categoryId (no join, uses FK column)
+     */
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) ->
+                cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> priceGreaterThanOrEqual(Long minPrice) {
+        return (root, query, cb) ->
+                cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceLessThanOrEqual(Long maxPrice) {
+        return (root, query, cb) ->
+                cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+}
@@ -0,0 +1,10 @@
+package com.techgadget.ecommerce.repository;
+
+/**
+ * Current stock of one product (JPQL constructor expression)
+ */
+public record ProductStock(
+        Long productId,
+        Integer stock
+) {
+}
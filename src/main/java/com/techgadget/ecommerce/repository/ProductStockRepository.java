@@ -0,0 +1,60 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custom fragment of ProductRepository for atomic stock changes
+ * -
+ * Stock is changed by conditional UPDATE in the DB,
+ * never by read-modify-write of the entity (no lost update, no oversell).
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Decrease stock of many products in one JDBC batch
+     * -
+     * Per product: UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?
+     * Rows are updated in ascending product ID order, so concurrent checkouts
+     * sharing products always lock them in the same order (no deadlock).
+     * -
+     * Return IDs of products with insufficient stock (row not updated).
+     * If not empty, caller must roll back the transaction.
+     */
+    List<Long> decreaseStocks(Map<Long, Integer> quantityByProductId);
+
+    /**
+     * Give stock back to many products in one JDBC batch (e.g. cancelled orders)
+     * -
+     * Per product: UPDATE products SET stock = stock + ? WHERE id = ?
+     * Ascending product ID order, same lock order as decreaseStocks.
+     * -
+     * Return IDs of products not found (row not updated).
+     */
+    List<Long> increaseStocks(Map<Long, Integer> quantityByProductId);
+
+    /**
+     * Subtract quantities already reserved outside the DB (hot inventory in Redis), once per batch
+     * -
+     * INSERT INTO hot_inventory_flushes (batch_id) ON CONFLICT DO NOTHING, then
+     * per product: UPDATE products SET stock = stock - ? WHERE id = ?
+     * No stock check, the reservation already guaranteed it.
+     * Negative quantity = stock returned (e.g. cancelled order).
+     * Applied in one transaction, ascending product ID order.
+     * -
+     * Return false if the batch was already applied (nothing changed).
+     */
+    @Transactional
+    boolean subtractReservedStocks(UUID batchId, Map<Long, Integer> quantityByProductId);
+
+    /**
+     * DB stock of a product (0 if not found) + whether the flush batch is applied
+     * -
+     * Null batchId = no batch, batchApplied is false.
+     */
+    HotStock findHotStock(Long productId, @Nullable UUID batchId);
+}
@@ -0,0 +1,142 @@
+package com.techgadget.ecommerce.repository;
+
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link ProductStockRepository}
+ * -
+ * Runs on the connection of the current JPA transaction.
+ * Loaded Product entities keep their old stock,
+ * they must not be modified & saved afterward.
+ */
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREASE_STOCK_SQL = """
+            UPDATE products
+            SET stock = stock - ?, updated_at = LOCALTIMESTAMP
+            WHERE id = ? AND stock >= ?
+            """;
+
+    private static final String INCREASE_STOCK_SQL = """
+            UPDATE products
+            SET stock = stock + ?, updated_at = LOCALTIMESTAMP
+            WHERE id = ?
+            """;
+
+    private static final String SUBTRACT_RESERVED_STOCK_SQL = """
+            UPDATE products
+            SET stock = stock - ?, updated_at = LOCALTIMESTAMP
+            WHERE id = ?
+            """;
+
+    private static final String INSERT_FLUSH_BATCH_SQL = """
+            INSERT INTO hot_inventory_flushes (batch_id, applied_at)
+            VALUES (?, LOCALTIMESTAMP)
+            ON CONFLICT (batch_id) DO NOTHING
+            """;
+
+    // A batch is retried within seconds, a day of history is plenty
+    private static final String DELETE_OLD_FLUSH_BATCHES_SQL = """
+            DELETE FROM hot_inventory_flushes
+            WHERE applied_at < LOCALTIMESTAMP - INTERVAL '1 day'
+            """;
+
+    private static final String FIND_HOT_STOCK_SQL = """
+            SELECT COALESCE((SELECT p.stock FROM products p WHERE p.id = ?), 0),
+                   EXISTS (SELECT 1 FROM hot_inventory_flushes f WHERE f.batch_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> decreaseStocks(Map<Long, Integer> quantityByProductId) {
+
+        if (quantityByProductId.isEmpty()) {
+            return List.of();
+        }
+
+        // Sorted by product ID -> consistent lock order
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantityByProductId).keySet());
+
+        List<Object[]> batchArgs = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            int quantity = quantityByProductId.get(productId);
+            batchArgs.add(new Object[]{quantity, productId, quantity});
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(DECREASE_STOCK_SQL, batchArgs);
+
+        List<Long> insufficientProductIds = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                insufficientProductIds.add(productIds.get(i));
+            }
+        }
+        return insufficientProductIds;
+    }
+
+    @Override
+    public List<Long> increaseStocks(Map<Long, Integer> quantityByProductId) {
+
+        if (quantityByProductId.isEmpty()) {
+            return List.of();
+        }
+
+        // Sorted by product ID -> consistent lock order
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantityByProductId).keySet());
+
+        List<Object[]> batchArgs = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            batchArgs.add(new Object[]{quantityByProductId.get(productId), productId});
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(INCREASE_STOCK_SQL, batchArgs);
+
+        List<Long> missingProductIds = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                missingProductIds.add(productIds.get(i));
+            }
+        }
+        return missingProductIds;
+    }
+
+    @Override
+    public boolean subtractReservedStocks(UUID batchId, Map<Long, Integer> quantityByProductId) {
+
+        // Concurrent flush of the same batch waits on this row, then skips
+        if (jdbcTemplate.update(INSERT_FLUSH_BATCH_SQL, batchId) == 0) {
+            return false;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(quantityByProductId.size());
+        new TreeMap<>(quantityByProductId).forEach((productId, quantity) ->
+                batchArgs.add(new Object[]{quantity, productId}));
+
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(SUBTRACT_RESERVED_STOCK_SQL, batchArgs);
+        }
+
+        jdbcTemplate.update(DELETE_OLD_FLUSH_BATCHES_SQL);
+        return true;
+    }
+
+    @Override
+    public HotStock findHotStock(Long productId, @Nullable UUID batchId) {
+        return jdbcTemplate.queryForObject(
+                FIND_HOT_STOCK_SQL,
+                (rs, rowNum) -> new HotStock(rs.getInt(1), rs.getBoolean(2)),
+                productId,
+                batchId
+        );
+    }
+}
@@ -1,9 +1,11 @@
     package com.techgadget.ecommerce.service;
 
     import com.techgadget.ecommerce.dto.request.cart.AddCartItemRequest;
+    import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest;
     import com.techgadget.ecommerce.dto.request.cart.UpdateCartItemRequest;
     import com.techgadget.ecommerce.dto.response.cart.CartResponse;
     import com.techgadget.ecommerce.entity.*;
+    import com.techgadget.ecommerce.exception.BadRequestException;
     import com.techgadget.ecommerce.exception.ConflictException;
     import com.techgadget.ecommerce.exception.NotFoundException;
     import com.techgadget.ecommerce.repository.*;
@@ -13,7 +15,12 @@
     import org.springframework.transaction.annotation.Transactional;
 
     import java.util.ArrayList;
+    import java.util.Collection;
+    import java.util.Comparator;
+    import java.util.HashMap;
+    import java.util.LinkedHashMap;
     import java.util.List;
+    import java.util.Map;
 
     @Service
     @Slf4j
@@ -25,6 +32,8 @@
         private final UserRepository userRepository;
         private final ProductRepository productRepository;
         private final ProductImageService productImageService;
+        private final RedisCartStore redisCartStore;
+        private final ProductSnapshotCache productSnapshotCache;
 
         /**
          * Helper method to get cart entity
@@ -38,14 +47,7 @@
 
             if (cart == null) {
                 log.info("Cart not found for user id = {}.", userId);
-                User user = userRepository.findById(userId)
-                        .orElseThrow(() -> {
-                            log.warn("User not found with id = {}.", userId);
-                            return new NotFoundException("User not found.");
-                        });
-
-                // Create new cart for user
-                cart = cartRepository.save(new Cart(user));
+                cart = createCart(userId);
             }
 
             log.debug("Cart retrieved/created - Cart: {}", cart.getId());
@@ -53,14 +55,46 @@
             return cart;
         }
 
+        /**
+         * Helper method to create new (empty) cart for user
+         */
+        private Cart createCart(Long userId) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> {
+                        log.warn("User not found with id = {}.", userId);
+                        return new NotFoundException("User not found.");
+                    });
+
+            return cartRepository.save(new Cart(user));
+        }
+
         /**
          * Get cart with user ID
+         * -
+         * Read path uses cart lines (cart_items only, DTO projection)
+         * + product snapshots (memory, one batched query for misses),
+         * Cart / CartItem / Product entities are not hydrated.
+         * Cart is still created on first visit.
+         * -
+         * Redis cart store: lines from Redis, no cart created.
          */
         @Transactional
         public CartResponse getCart(Long userId) {
 
-            Cart cart = getOrCreateCartEntity(userId);
-            return mapToCartResponse(cart);
+            if (redisCartStore.isEnabled()) {
+                List<CartLine> lines = redisCartStore.lines(userId);
+                return mapToCartResponse(lines, findProducts(productIdsOf(lines)));
+            }
+
+            List<CartLine> lines = cartRepository.findLinesByUserId(userId);
+
+            // No lines: empty cart, or no cart at all yet
+            if (lines.isEmpty() && !cartRepository.existsByUser_Id(userId)) {
+                log.info("Cart not found for user id = {}.", userId);
+                createCart(userId);
+            }
+
+            return mapToCartResponse(lines, findProducts(productIdsOf(lines)));
         }
 
         /**
@@ -71,6 +105,10 @@
             log.debug("Processing add to cart request - User: {}, Product: {}, Quantity: {}",
                     userId, request.getProductId(), request.getQuantity());
 
+            if (redisCartStore.isEnabled()) {
+                return addToRedisCart(userId, request);
+            }
+
             // Get or create cart
             Cart cart = getOrCreateCartEntity(userId);
 
@@ -129,6 +167,7 @@
 
             // Save cart
             cart = cartRepository.save(cart);
+            cartRepository.refreshTotalQuantity(cart.getId());
 
             log.info("User {} successfully added product {} to cart {} - Quantity: {}, " +
                             "Cart Total Items: {}, Cart Value: Rp {}",
@@ -150,6 +189,10 @@
             log.debug("Processing update cart item - User: {}, CartItem: {}, Quantity: {}",
                     userId, cartItemId, request.getQuantity());
 
+            if (redisCartStore.isEnabled()) {
+                return updateRedisCartItem(userId, cartItemId, request);
+            }
+
             // Get cart item using id and user id
             CartItem cartItem = cartItemRepository.findByIdAndCart_User_IdWithProduct(cartItemId, userId)
                     .orElseThrow(() -> {
@@ -162,6 +205,7 @@
             cartItemRepository.save(cartItem);
 
             Cart cart = getOrCreateCartEntity(userId);
+            cartRepository.refreshTotalQuantity(cart.getId());
 
             log.info("User {} successfully updated cart item {} in cart {} - Quantity: {}",
                     userId,
@@ -180,6 +224,10 @@
             log.debug("Processing remove cart item: User={}, CartItem={}",
                     userId, cartItemId);
 
+            if (redisCartStore.isEnabled()) {
+                return removeRedisCartItem(userId, cartItemId);
+            }
+
             Cart cart = getOrCreateCartEntity(userId);
 
             // Find cart item with id
@@ -194,6 +242,7 @@
             // remove and save
             cart.getItems().remove(cartItem);
             cartRepository.save(cart);
+            cartRepository.refreshTotalQuantity(cart.getId());
 
             log.info("User {} successfully removed cart item {} in cart {}",
                     userId, cartItemId, cart.getId());
@@ -205,10 +254,20 @@
         public CartResponse clearCart(Long userId) {
             log.debug("Processing clear cart - User: {}", userId);
 
+            if (redisCartStore.isEnabled()) {
+                List<CartLine> lines = redisCartStore.lines(userId);
+                if (!lines.isEmpty()) {
+                    redisCartStore.remove(userId, productIdsOf(lines));
+                }
+                log.info("User {} successfully cleared cart", userId);
+                return new CartResponse(List.of(), 0L, 0);
+            }
+
             Cart cart = getOrCreateCartEntity(userId);
 
             cart.getItems().clear();
             cartRepository.save(cart);
+            cartRepository.refreshTotalQuantity(cart.getId());
 
             log.info("User {} successfully cleared cart {}",
                     userId, cart.getId());
@@ -216,25 +275,465 @@
             return mapToCartResponse(cart);
         }
 
+        /**
+         * Apply many cart operations in one transaction (e.g. buy again)
+         * 1) Quantity per product after every operation, in order (nothing written yet)
+         * 2) Products added to cart loaded in one query
+         * 3) Stock of every changed line checked at once
+         * 4) Changes written, one response
+         * -
+         * Any failure rejects the whole batch.
+         * Redis cart store: same steps on the lines in Redis, stock from one DB query,
+         * products of the response from snapshots.
+         */
+        @Transactional
+        public CartResponse applyBatch(Long userId, BatchCartItemRequest request) {
+            log.debug("Processing cart batch - User: {}, Operations: {}",
+                    userId, request.getOperations().size());
+
+            if (redisCartStore.isEnabled()) {
+                return applyRedisBatch(userId, request);
+            }
+
+            Cart cart = getOrCreateCartEntity(userId);
+
+            Map<Long, CartItem> itemsByProductId = new HashMap<>();
+            List<CartLine> lines = new ArrayList<>();
+            for (CartItem item : cart.getItems()) {
+                itemsByProductId.put(item.getProduct().getId(), item);
+                lines.add(new CartLine(item.getId(), item.getProduct().getId(), item.getQuantity()));
+            }
+            lines.sort(Comparator.comparing(CartLine::cartItemId));
+
+            Map<Long, Integer> quantities = applyOperations(userId, lines, request.getOperations());
+
+            // Products not in cart yet, one query (images for the response)
+            List<Long> newProductIds = quantities.keySet().stream()
+                    .filter(productId -> !itemsByProductId.containsKey(productId))
+                    .toList();
+            Map<Long, Product> newProducts = new HashMap<>();
+            if (!newProductIds.isEmpty()) {
+                for (Product product : productRepository.findWithImagesByIdIn(newProductIds)) {
+                    newProducts.put(product.getId(), product);
+                }
+            }
+
+            // Stock of products loaded in this transaction
+            Map<Long, Integer> stocks = new HashMap<>();
+            itemsByProductId.forEach((productId, item) -> stocks.put(productId, item.getProduct().getStock()));
+            newProducts.forEach((productId, product) -> stocks.put(productId, product.getStock()));
+
+            validateBatch(userId, quantitiesOf(lines), quantities, stocks);
+
+            // Write: removed, changed, then added lines
+            cart.getItems().removeIf(item -> !quantities.containsKey(item.getProduct().getId()));
+            quantities.forEach((productId, quantity) -> {
+                CartItem item = itemsByProductId.get(productId);
+                if (item == null) {
+                    cart.addItem(new CartItem(cart, newProducts.get(productId), quantity));
+                } else if (!item.getQuantity().equals(quantity)) {
+                    item.setQuantity(quantity);
+                }
+            });
+
+            Cart saved = cartRepository.save(cart);
+            cartRepository.refreshTotalQuantity(saved.getId());
+
+            log.info("User {} successfully applied {} cart operations to cart {}",
+                    userId, request.getOperations().size(), saved.getId());
+
+            return mapToCartResponse(saved);
+        }
+
+        /**
+         * Get total item quantity of cart (cart badge, polled on every page)
+         * -
+         * Read from the maintained counter (carts.total_quantity),
+         * cart_items is not read and no cart is created (no cart = 0).
+         * -
+         * Redis cart store: counter key in Redis, no DB query.
+         */
         @Transactional(readOnly = true)
         public CartResponse.CartCountResponse getCartItemCount(Long userId) {
             log.debug("Processing get cart item count - User: {}", userId);
 
-            Cart cart = getOrCreateCartEntity(userId);
+            if (redisCartStore.isEnabled()) {
+                return new CartResponse.CartCountResponse(redisCartStore.count(userId));
+            }
+
+            int count = cartRepository.findTotalQuantityByUserId(userId).orElse(0);
+
+            log.info("User {} got total {} cart items", userId, count);
+
+            return new CartResponse.CartCountResponse(count);
+        }
+
+        /**
+         * Quantity per product after applying operations to lines, in order
+         * (products of lines first, then added products)
+         */
+        private Map<Long, Integer> applyOperations(
+                Long userId,
+                List<CartLine> lines,
+                List<BatchCartItemRequest.CartItemOperation> operations
+        ) {
+
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            Map<Long, Long> productIdByCartItemId = new HashMap<>();
+            for (CartLine line : lines) {
+                quantities.put(line.productId(), line.quantity());
+                productIdByCartItemId.put(line.cartItemId(), line.productId());
+            }
+
+            for (int i = 0; i < operations.size(); i++) {
+                BatchCartItemRequest.CartItemOperation operation = operations.get(i);
+                String position = "Operation " + (i + 1) + ": ";
+
+                switch (operation.getType()) {
+                    case ADD -> {
+                        if (operation.getProductId() == null || operation.getQuantity() == null) {
+                            throw new BadRequestException(position + "product ID and quantity required.");
+                        }
+                        quantities.merge(operation.getProductId(), operation.getQuantity(), Integer::sum);
+                    }
+                    case UPDATE -> {
+                        if (operation.getCartItemId() == null || operation.getQuantity() == null) {
+                            throw new BadRequestException(position + "cart item ID and quantity required.");
+                        }
+                        Long productId = productIdOf(userId, quantities, productIdByCartItemId, operation);
+                        quantities.put(productId, operation.getQuantity());
+                    }
+                    case REMOVE -> {
+                        if (operation.getCartItemId() == null) {
+                            throw new BadRequestException(position + "cart item ID required.");
+                        }
+                        quantities.remove(productIdOf(userId, quantities, productIdByCartItemId, operation));
+                    }
+                }
+            }
 
-            log.info("User {} got total {} cart items on cart {}",
-                    userId, cart.getTotalItemsQuantity(), cart.getId());
+            return quantities;
+        }
 
-            return new CartResponse.CartCountResponse(cart.getTotalItemsQuantity());
+        /**
+         * Product of a cart item still in cart (not removed by an earlier operation)
+         */
+        private Long productIdOf(
+                Long userId,
+                Map<Long, Integer> quantities,
+                Map<Long, Long> productIdByCartItemId,
+                BatchCartItemRequest.CartItemOperation operation
+        ) {
+
+            Long productId = productIdByCartItemId.get(operation.getCartItemId());
+            if (productId == null || !quantities.containsKey(productId)) {
+                log.warn("Cart item not found with id = {} - user id = {}.", operation.getCartItemId(), userId);
+                throw new NotFoundException("Cart item not found.");
+            }
+            return productId;
+        }
+
+        /**
+         * Validate quantities after a batch against the cart before it (DB & Redis cart store)
+         * > Added product must exist
+         * > Changed lines must be within stock, one 409 listing every product over stock
+         * -
+         * stocks: current stock of (at least) every changed product, deleted products absent.
+         * Unchanged lines are not checked, a line of a deleted product is kept as is.
+         */
+        private void validateBatch(
+                Long userId,
+                Map<Long, Integer> cartQuantities,
+                Map<Long, Integer> quantities,
+                Map<Long, Integer> stocks
+        ) {
+
+            List<Long> insufficientProductIds = new ArrayList<>();
+            quantities.forEach((productId, quantity) -> {
+                Integer cartQuantity = cartQuantities.get(productId);
+                if (quantity.equals(cartQuantity)) {
+                    return;
+                }
+
+                Integer stock = stocks.get(productId);
+                if (stock == null) {
+                    if (cartQuantity == null) {
+                        log.warn("Product {} not found", productId);
+                        throw new NotFoundException("Product not found.");
+                    }
+                    // Line of a deleted product
+                    return;
+                }
+
+                if (stock < quantity) {
+                    insufficientProductIds.add(productId);
+                }
+            });
+
+            if (!insufficientProductIds.isEmpty()) {
+                log.warn("User {} cart batch exceeds stock of products {}", userId, insufficientProductIds);
+                throw new ConflictException(
+                        "Stock quantity not sufficient for products " + insufficientProductIds + ".");
+            }
+        }
+
+        /**
+         * Products whose quantity differs from the cart (added or changed)
+         */
+        private List<Long> changedProductIds(Map<Long, Integer> cartQuantities, Map<Long, Integer> quantities) {
+            return quantities.entrySet().stream()
+                    .filter(entry -> !entry.getValue().equals(cartQuantities.get(entry.getKey())))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        private Map<Long, Integer> quantitiesOf(List<CartLine> lines) {
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (CartLine line : lines) {
+                quantities.put(line.productId(), line.quantity());
+            }
+            return quantities;
+        }
+
+        // -------------------------
+        // --- REDIS CART STORE ---
+        // -------------------------
+
+        /**
+         * Batch on cart kept in Redis
+         * -
+         * Stock of changed products read from the DB in one query,
+         * product snapshots of every line render the response.
+         * Removed & changed lines are written in one Redis script (all or nothing).
+         */
+        private CartResponse applyRedisBatch(Long userId, BatchCartItemRequest request) {
+
+            List<CartLine> lines = redisCartStore.lines(userId);
+            Map<Long, Integer> quantities = applyOperations(userId, lines, request.getOperations());
+
+            Map<Long, CartLine> linesByProductId = new HashMap<>();
+            for (CartLine line : lines) {
+                linesByProductId.put(line.productId(), line);
+            }
+
+            Map<Long, Integer> cartQuantities = quantitiesOf(lines);
+            List<Long> changedProductIds = changedProductIds(cartQuantities, quantities);
+
+            Map<Long, Integer> stocks = new HashMap<>();
+            if (!changedProductIds.isEmpty()) {
+                for (ProductStock row : productRepository.findStocksByIdIn(changedProductIds)) {
+                    stocks.put(row.productId(), row.stock());
+                }
+            }
+            validateBatch(userId, cartQuantities, quantities, stocks);
+
+            // Lines of deleted products left out of the response
+            Map<Long, ProductSnapshot> products = findProducts(quantities.keySet());
+
+            List<Long> removedProductIds = lines.stream()
+                    .map(CartLine::productId)
+                    .filter(productId -> !quantities.containsKey(productId))
+                    .toList();
+
+            List<CartLine> result = new ArrayList<>(quantities.size());
+            List<CartLine> changedLines = new ArrayList<>();
+            quantities.forEach((productId, quantity) -> {
+                CartLine line = linesByProductId.get(productId);
+                if (line != null && line.quantity().equals(quantity)) {
+                    result.add(line);
+                    return;
+                }
+
+                Long cartItemId = line != null ? line.cartItemId() : cartRepository.nextCartItemId();
+                CartLine changed = new CartLine(cartItemId, productId, quantity);
+                changedLines.add(changed);
+                result.add(changed);
+            });
+
+            // All changes in one script: never half applied
+            if (!removedProductIds.isEmpty() || !changedLines.isEmpty()) {
+                redisCartStore.apply(userId, removedProductIds, changedLines);
+            }
+            result.sort(Comparator.comparing(CartLine::cartItemId));
+
+            log.info("User {} successfully applied {} cart operations", userId, request.getOperations().size());
+
+            return mapToCartResponse(result, products);
+        }
+
+        /**
+         * Add to cart kept in Redis
+         * -
+         * Product snapshots of every line validate the product and render the response.
+         * Quantity is incremented in Redis, capped by stock in the DB.
+         * New line gets its cart item ID now.
+         */
+        private CartResponse addToRedisCart(Long userId, AddCartItemRequest request) {
+
+            List<CartLine> lines = redisCartStore.lines(userId);
+
+            List<Long> productIds = new ArrayList<>(productIdsOf(lines));
+            if (!productIds.contains(request.getProductId())) {
+                productIds.add(request.getProductId());
+            }
+            Map<Long, ProductSnapshot> products = findProducts(productIds);
+
+            ProductSnapshot product = products.get(request.getProductId());
+            if (product == null) {
+                log.warn("Product {} not found", request.getProductId());
+                throw new NotFoundException("Product not found.");
+            }
+
+            CartLine existing = lines.stream()
+                    .filter(line -> line.productId().equals(product.id()))
+                    .findFirst()
+                    .orElse(null);
+
+            // Incremented in Redis, not existing + requested: concurrent adds are never lost
+            Long cartItemId = existing != null ? existing.cartItemId() : cartRepository.nextCartItemId();
+            CartLine line = redisCartStore.add(
+                    userId, product.id(), cartItemId, request.getQuantity(), currentStock(product.id()));
+            if (line == null) {
+                log.warn("User {} adds product {} with quantity {}, but stock not sufficient",
+                        userId, product.id(), request.getQuantity());
+                throw new ConflictException("Stock quantity not sufficient.");
+            }
+
+            log.info("User {} successfully added product {} to cart - Quantity: {}",
+                    userId, product.id(), request.getQuantity());
+
+            return mapToCartResponse(withLine(lines, line), products);
+        }
+
+        /**
+         * Update cart item kept in Redis (stock checked against the DB)
+         */
+        private CartResponse updateRedisCartItem(Long userId, Long cartItemId, UpdateCartItemRequest request) {
+
+            List<CartLine> lines = redisCartStore.lines(userId);
+            CartLine line = findLine(lines, userId, cartItemId);
+
+            Map<Long, ProductSnapshot> products = findProducts(productIdsOf(lines));
+
+            ProductSnapshot product = products.get(line.productId());
+            if (product == null) {
+                log.warn("Product {} not found", line.productId());
+                throw new NotFoundException("Product not found.");
+            }
+
+            if (currentStock(product.id()) < request.getQuantity()) {
+                throw new ConflictException("Product stock is not sufficient for this quantity.");
+            }
+
+            CartLine updated = new CartLine(cartItemId, line.productId(), request.getQuantity());
+            redisCartStore.put(userId, updated);
+
+            log.info("User {} successfully updated cart item {} - Quantity: {}",
+                    userId, cartItemId, request.getQuantity());
+
+            return mapToCartResponse(withLine(lines, updated), products);
+        }
+
+        private CartResponse removeRedisCartItem(Long userId, Long cartItemId) {
+
+            List<CartLine> lines = redisCartStore.lines(userId);
+            CartLine line = findLine(lines, userId, cartItemId);
+
+            redisCartStore.remove(userId, List.of(line.productId()));
+
+            List<CartLine> remaining = new ArrayList<>(lines);
+            remaining.remove(line);
+
+            log.info("User {} successfully removed cart item {}", userId, cartItemId);
+
+            return mapToCartResponse(remaining, findProducts(productIdsOf(remaining)));
+        }
+
+        private CartLine findLine(List<CartLine> lines, Long userId, Long cartItemId) {
+            return lines.stream()
+                    .filter(line -> line.cartItemId().equals(cartItemId))
+                    .findFirst()
+                    .orElseThrow(() -> {
+                        log.warn("Cart item not found with id = {} - user id = {}.", cartItemId, userId);
+                        return new NotFoundException("Cart item not found.");
+                    });
+        }
+
+        /**
+         * Lines with line replaced (same product) or added, oldest item first
+         */
+        private List<CartLine> withLine(List<CartLine> lines, CartLine line) {
+
+            List<CartLine> result = new ArrayList<>(lines.size() + 1);
+            for (CartLine current : lines) {
+                if (!current.productId().equals(line.productId())) {
+                    result.add(current);
+                }
+            }
+            result.add(line);
+            result.sort(Comparator.comparing(CartLine::cartItemId));
+
+            return result;
+        }
+
+        /**
+         * Stock in DB now (snapshot stock is for display only, may be stale)
+         */
+        private int currentStock(Long productId) {
+            return productRepository.findStockById(productId)
+                    .orElseThrow(() -> {
+                        log.warn("Product {} not found", productId);
+                        return new NotFoundException("Product not found.");
+                    });
+        }
+
+        private List<Long> productIdsOf(List<CartLine> lines) {
+            return lines.stream().map(CartLine::productId).toList();
+        }
+
+        /**
+         * Product snapshots by ID (memory, misses loaded in one query)
+         */
+        private Map<Long, ProductSnapshot> findProducts(Collection<Long> productIds) {
+            return productSnapshotCache.getAll(productIds);
+        }
+
+        /**
+         * Lines of deleted products are left out
+         */
+        private CartResponse mapToCartResponse(List<CartLine> lines, Map<Long, ProductSnapshot> products) {
+
+            List<CartItemRow> rows = new ArrayList<>(lines.size());
+            for (CartLine line : lines) {
+                ProductSnapshot product = products.get(line.productId());
+                if (product != null) {
+                    rows.add(new CartItemRow(
+                            line.cartItemId(),
+                            product.id(),
+                            product.name(),
+                            product.price(),
+                            line.quantity(),
+                            product.primaryImageKey()
+                    ));
+                }
+            }
+
+            return mapToCartResponse(rows);
         }
 
         private CartResponse mapToCartResponse(Cart cart) {
 
+            // Get primary image urls of every item in one bulk step
+            Map<String, String> imageUrls = productImageService.getImageUrls(
+                    cart.getItems().stream()
+                            .map(ci -> ci.getProduct().getPrimaryImageKey())
+                            .toList());
+
             // Build list of CartItemResponse
             List<CartResponse.CartItemResponse> items = new ArrayList<>();
             for (CartItem cartItem : cart.getItems()) {
                 // Map to CartItemRes
-                items.add(mapToCartItemResponse(cartItem));
+                items.add(mapToCartItemResponse(cartItem, imageUrls));
             }
 
             // Create cart response
@@ -245,13 +744,48 @@
             );
         }
 
-        private CartResponse.CartItemResponse mapToCartItemResponse(CartItem cartItem) {
+        private CartResponse mapToCartResponse(List<CartItemRow> rows) {
+
+            // Get primary image urls of every item in one bulk step
+            Map<String, String> imageUrls = productImageService.getImageUrls(
+                    rows.stream().map(CartItemRow::primaryImageKey).toList());
+
+            List<CartResponse.CartItemResponse> items = new ArrayList<>();
+            long totalPrice = 0;
+            int totalItems = 0;
+
+            for (CartItemRow row : rows) {
+                String primaryImageUrl = row.primaryImageKey() != null
+                        ? imageUrls.get(row.primaryImageKey())
+                        : null;
+
+                items.add(new CartResponse.CartItemResponse(
+                        row.id(),
+                        row.productId(),
+                        row.productName(),
+                        primaryImageUrl,
+                        row.price(),
+                        row.quantity(),
+                        row.subtotal()
+                ));
+
+                totalPrice += row.subtotal();
+                totalItems += row.quantity();
+            }
+
+            return new CartResponse(items, totalPrice, totalItems);
+        }
+
+        private CartResponse.CartItemResponse mapToCartItemResponse(
+                CartItem cartItem,
+                Map<String, String> imageUrls
+        ) {
 
             // Get primary image URL
             String primaryImageUrl = null;
             String primaryImageKey = cartItem.getProduct().getPrimaryImageKey();
             if (primaryImageKey != null) {
-                primaryImageUrl = productImageService.getImageUrl(primaryImageKey);
+                primaryImageUrl = imageUrls.get(primaryImageKey);
             }
 
             // Build CartItemResponse
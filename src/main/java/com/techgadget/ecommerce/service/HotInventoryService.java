@@ -0,0 +1,495 @@
+package com.techgadget.ecommerce.service;
+
+import com.techgadget.ecommerce.exception.InternalServerException;
+import com.techgadget.ecommerce.repository.HotStock;
+import com.techgadget.ecommerce.repository.ProductRepository;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Hot inventory: stock of flagged SKUs (flash sale) reserved in Redis
+ * -
+ * Checkout of a hot SKU never locks its products row:
+ * > inventory:stock:{id}   available stock (authoritative while flagged)
+ * > inventory:pending      hash productId -> reserved quantity not yet in DB
+ * > inventory:inflight     pending quantities of the batch being flushed + its batch ID
+ * > inventory:flush:seq    incremented each time a batch moves to inflight
+ * -
+ * Reservation is all-or-nothing across SKUs (Lua script, atomic in Redis).
+ * Every app.inventory.hot.flush-interval:
+ * 1) Pending quantities move to inflight (one batch, one at a time)
+ * 2) The batch is subtracted from products.stock, once per batch ID (hot_inventory_flushes)
+ * 3) Inflight is cleared after the DB commit; a failed batch is retried as is
+ * -
+ * Seed: stock = DB stock - pending - inflight (unless the batch is already in DB stock).
+ * DB stock and batch state are read in one statement; the seed is retried
+ * if a batch moved or cleared meanwhile, so a seed never counts a reservation twice.
+ * -
+ * Admin stock changes of a hot product go through reserve / release, or resync the stock key.
+ * Recovery on startup: a leftover inflight batch and pending quantities are flushed,
+ * missing stock keys are seeded.
+ */
+@Service
+@Slf4j
+public class HotInventoryService {
+
+    private static final String STOCK_KEY_PREFIX = "inventory:stock:";
+    private static final String PENDING_KEY = "inventory:pending";
+    private static final String INFLIGHT_KEY = "inventory:inflight";
+    private static final String FLUSH_SEQ_KEY = "inventory:flush:seq";
+    private static final String BATCH_FIELD = "batch";
+    private static final int SEED_ATTEMPTS = 5;
+
+    /**
+     * KEYS: pending hash, stock key of each product
+     * ARGV: product IDs, then quantities (same order as stock keys)
+     * -
+     * 1) Every stock key must exist (else return -index -> seed & retry)
+     * 2) Every stock must be sufficient (else return index, nothing reserved)
+     * 3) Decrement stock & add to pending
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = RedisScript.of("""
+        local n = #KEYS - 1
+
+        for i = 1, n do
+            local stock = redis.call('GET', KEYS[i + 1])
+            if not stock then
+                return -i
+            end
+            if tonumber(stock) < tonumber(ARGV[n + i]) then
+                return i
+            end
+        end
+
+        for i = 1, n do
+            redis.call('DECRBY', KEYS[i + 1], ARGV[n + i])
+            redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[n + i])
+        end
+
+        return 0
+        """, Long.class);
+
+    /**
+     * Same KEYS / ARGV as RESERVE_SCRIPT
+     * -
+     * Give stock back & subtract from pending
+     * (negative pending = stock returned to DB on next flush).
+     * Missing stock key is left missing, it is seeded from DB later.
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+        local n = #KEYS - 1
+
+        for i = 1, n do
+            if redis.call('EXISTS', KEYS[i + 1]) == 1 then
+                redis.call('INCRBY', KEYS[i + 1], ARGV[n + i])
+            end
+            redis.call('HINCRBY', KEYS[1], ARGV[i], -tonumber(ARGV[n + i]))
+        end
+
+        return n
+        """, Long.class);
+
+    /**
+     * KEYS: pending hash, inflight hash, flush seq, stock key
+     * ARGV: product ID, DB stock, flush seq + inflight batch ID read before DB stock,
+     *       1 if that batch was already in DB stock (else 0)
+     * -
+     * Set stock = DB stock - pending - inflight (only if not set yet)
+     * Return -1 if a batch moved / cleared since DB stock was read (read again & retry)
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = RedisScript.of("""
+        if redis.call('EXISTS', KEYS[4]) == 1 then
+            return 0
+        end
+
+        if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[3]
+                or (redis.call('HGET', KEYS[2], 'batch') or '') ~= ARGV[4] then
+            return -1
+        end
+
+        local pending = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0')
+        local inflight = 0
+        if ARGV[5] == '0' then
+            inflight = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+        end
+        redis.call('SET', KEYS[4], tonumber(ARGV[2]) - pending - inflight)
+
+        return 1
+        """, Long.class);
+
+    /**
+     * KEYS: pending hash, inflight hash, flush seq
+     * ARGV: new batch ID
+     * -
+     * If no batch is inflight, move all pending quantities to inflight as a new batch.
+     * Return the inflight batch (new or left by a failed flush): [field, value, ...]
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MOVE_TO_INFLIGHT_SCRIPT = RedisScript.of("""
+        if redis.call('EXISTS', KEYS[2]) == 0 then
+            local entries = redis.call('HGETALL', KEYS[1])
+            if #entries == 0 then
+                return {}
+            end
+
+            for i = 1, #entries, 2 do
+                redis.call('HSET', KEYS[2], entries[i], entries[i + 1])
+            end
+            redis.call('HSET', KEYS[2], 'batch', ARGV[1])
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[3])
+        end
+
+        return redis.call('HGETALL', KEYS[2])
+        """, List.class);
+
+    /**
+     * KEYS: inflight hash
+     * ARGV: batch ID
+     * -
+     * Clear inflight only if it still holds this batch (another node may have moved a new one)
+     */
+    private static final RedisScript<Long> CLEAR_INFLIGHT_SCRIPT = RedisScript.of("""
+        if redis.call('HGET', KEYS[1], 'batch') == ARGV[1] then
+            redis.call('DEL', KEYS[1])
+            return 1
+        end
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProductRepository productRepository;
+    private final ProductDetailCacheService productDetailCacheService;
+    private final Set<Long> hotProductIds;
+
+    public HotInventoryService(
+            StringRedisTemplate stringRedisTemplate,
+            ProductRepository productRepository,
+            ProductDetailCacheService productDetailCacheService,
+            @Value("${app.inventory.hot.product-ids:}") Set<Long> hotProductIds
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.productRepository = productRepository;
+        this.productDetailCacheService = productDetailCacheService;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+    }
+
+    public boolean isHot(Long productId) {
+        return hotProductIds.contains(productId);
+    }
+
+    /**
+     * Reserve stock of hot products, all-or-nothing
+     * -
+     * Inside a transaction, reservation is released if the transaction rolls back.
+     * Return false if any stock is insufficient (nothing reserved).
+     */
+    public boolean reserve(Map<Long, Integer> quantityByProductId) {
+
+        if (quantityByProductId.isEmpty()) {
+            return true;
+        }
+
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantityByProductId).keySet());
+
+        // Each retry seeds one missing stock key
+        for (int attempt = 0; attempt <= productIds.size(); attempt++) {
+
+            Long result = execute(RESERVE_SCRIPT, productIds, quantityByProductId);
+
+            if (result == 0) {
+                releaseOnRollback(Map.copyOf(quantityByProductId));
+                log.debug("Reserved hot inventory - Products: {}", quantityByProductId);
+                return true;
+            }
+
+            if (result > 0) {
+                log.debug("Hot inventory insufficient - Product: {}", productIds.get((int) (result - 1)));
+                return false;
+            }
+
+            seed(productIds.get((int) (-result - 1)));
+        }
+
+        log.error("Failed to seed hot inventory - Products: {}", productIds);
+        throw new InternalServerException();
+    }
+
+    /**
+     * Give stock of hot products back (e.g. cancelled order)
+     * -
+     * Inside a transaction, release runs after commit.
+     */
+    public void release(Map<Long, Integer> quantityByProductId) {
+
+        if (quantityByProductId.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> quantities = Map.copyOf(quantityByProductId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doRelease(quantities);
+                }
+            });
+        } else {
+            doRelease(quantities);
+        }
+    }
+
+    /**
+     * Re-seed stock key from DB after a direct DB stock change of a hot product
+     * -
+     * Inside a transaction, runs after commit.
+     */
+    public void resync(Long productId) {
+
+        if (!isHot(productId)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doResync(productId);
+                }
+            });
+        } else {
+            doResync(productId);
+        }
+    }
+
+    /**
+     * Subtract pending quantities from products.stock (one batch)
+     * -
+     * On DB failure, the batch stays inflight and is retried next run.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot.flush-interval:1s}")
+    public void flush() {
+
+        InflightBatch batch;
+        try {
+            batch = moveToInflight();
+        } catch (RuntimeException e) {
+            log.warn("Failed to move hot inventory pending quantities to inflight", e);
+            return;
+        }
+
+        if (batch == null) {
+            return;
+        }
+
+        boolean applied;
+        try {
+            applied = productRepository.subtractReservedStocks(batch.id(), batch.quantities());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush hot inventory to DB, retrying next run - Batch: {}, Products: {}",
+                    batch.id(), batch.quantities(), e);
+            return;
+        }
+
+        try {
+            stringRedisTemplate.execute(
+                    CLEAR_INFLIGHT_SCRIPT, List.of(INFLIGHT_KEY), batch.id().toString());
+        } catch (RuntimeException e) {
+            // Next run retries the batch, DB skips it (already applied)
+            log.warn("Failed to clear hot inventory inflight batch {}", batch.id(), e);
+        }
+
+        if (!applied) {
+            log.debug("Hot inventory batch already applied - Batch: {}", batch.id());
+            return;
+        }
+
+        // DB stock changed -> cached product detail is stale
+        productDetailCacheService.evict(batch.quantities().keySet());
+
+        log.debug("Flushed hot inventory to DB - Batch: {}, Products: {}", batch.id(), batch.quantities());
+    }
+
+    /**
+     * Recovery after restart
+     * -
+     * 1) Flush the inflight batch + pending quantities left by the previous run
+     * 2) Seed stock keys missing from Redis (e.g. Redis restarted)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+
+        // Inflight batch first, then the pending quantities behind it
+        flush();
+        flush();
+
+        if (hotProductIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            hotProductIds.forEach(this::seed);
+            log.info("Hot inventory active - Products: {}", hotProductIds);
+        } catch (RuntimeException e) {
+            // Seeded lazily by the first reservation
+            log.warn("Failed to seed hot inventory on startup - Products: {}", hotProductIds, e);
+        }
+    }
+
+    /**
+     * Last flush on graceful shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Seed stock key of a product if missing (retried while flush batches move)
+     */
+    private void seed(Long productId) {
+
+        for (int attempt = 0; attempt < SEED_ATTEMPTS; attempt++) {
+
+            // Read before DB stock, checked again by the script
+            String flushSeq = Objects.requireNonNullElse(
+                    stringRedisTemplate.opsForValue().get(FLUSH_SEQ_KEY), "0");
+            Object inflightBatch = stringRedisTemplate.opsForHash().get(INFLIGHT_KEY, BATCH_FIELD);
+            UUID batchId = inflightBatch == null ? null : UUID.fromString(inflightBatch.toString());
+
+            HotStock dbStock = productRepository.findHotStock(productId, batchId);
+
+            Long result = stringRedisTemplate.execute(
+                    SEED_SCRIPT,
+                    List.of(PENDING_KEY, INFLIGHT_KEY, FLUSH_SEQ_KEY, stockKey(productId)),
+                    String.valueOf(productId),
+                    String.valueOf(dbStock.stock()),
+                    flushSeq,
+                    batchId == null ? "" : batchId.toString(),
+                    dbStock.batchApplied() ? "1" : "0"
+            );
+
+            if (result != null && result >= 0) {
+                log.debug("Seeded hot inventory - Product: {}, DbStock: {}", productId, dbStock.stock());
+                return;
+            }
+        }
+
+        log.warn("Hot inventory seed kept racing with flushes - Product: {}", productId);
+    }
+
+    private void doResync(Long productId) {
+
+        stringRedisTemplate.delete(stockKey(productId));
+        seed(productId);
+
+        log.debug("Resynced hot inventory - Product: {}", productId);
+    }
+
+    private void releaseOnRollback(Map<Long, Integer> quantities) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    doRelease(quantities);
+                }
+            }
+        });
+    }
+
+    private void doRelease(Map<Long, Integer> quantities) {
+
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        execute(RELEASE_SCRIPT, productIds, quantities);
+
+        log.debug("Released hot inventory - Products: {}", quantities);
+    }
+
+    private Long execute(RedisScript<Long> script, List<Long> productIds, Map<Long, Integer> quantities) {
+
+        List<String> keys = new ArrayList<>(productIds.size() + 1);
+        keys.add(PENDING_KEY);
+        productIds.forEach(id -> keys.add(stockKey(id)));
+
+        List<String> args = new ArrayList<>(productIds.size() * 2);
+        productIds.forEach(id -> args.add(String.valueOf(id)));
+        productIds.forEach(id -> args.add(String.valueOf(quantities.get(id))));
+
+        Long result = stringRedisTemplate.execute(script, keys, args.toArray());
+
+        if (result == null) {
+            log.error("Hot inventory script returned null. Something went wrong.");
+            throw new InternalServerException();
+        }
+        return result;
+    }
+
+    /**
+     * Inflight batch to flush, null if nothing is pending
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private InflightBatch moveToInflight() {
+
+        List<Object> entries = stringRedisTemplate.execute(
+                MOVE_TO_INFLIGHT_SCRIPT,
+                List.of(PENDING_KEY, INFLIGHT_KEY, FLUSH_SEQ_KEY),
+                UUID.randomUUID().toString()
+        );
+
+        if (entries == null || entries.isEmpty()) {
+            return null;
+        }
+
+        UUID batchId = null;
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (int i = 0; i + 1 < entries.size(); i += 2) {
+            String field = entries.get(i).toString();
+            String value = entries.get(i + 1).toString();
+
+            if (field.equals(BATCH_FIELD)) {
+                batchId = UUID.fromString(value);
+            } else if (Integer.parseInt(value) != 0) {
+                quantities.put(Long.valueOf(field), Integer.parseInt(value));
+            }
+        }
+
+        if (batchId == null) {
+            log.error("Hot inventory inflight batch has no batch ID - Products: {}", quantities);
+            throw new InternalServerException();
+        }
+        return new InflightBatch(batchId, quantities);
+    }
+
+    private String stockKey(Long productId) {
+        return STOCK_KEY_PREFIX + productId;
+    }
+
+    private record InflightBatch(UUID id, Map<Long, Integer> quantities) {
+    }
+}
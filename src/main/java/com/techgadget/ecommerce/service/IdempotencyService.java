@@ -0,0 +1,232 @@
+package com.techgadget.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techgadget.ecommerce.exception.BadRequestException;
+import com.techgadget.ecommerce.exception.ConflictException;
+import com.techgadget.ecommerce.exception.InternalServerException;
+import com.techgadget.ecommerce.exception.UnprocessableContentException;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for retried write requests
+ * -
+ * Key: idempotency:{operation}:{userId}:{Idempotency-Key}
+ * Value: {request hash}:IN_PROGRESS, then {request hash}:{serialized response}
+ * 1) SET NX claims the key atomically (short in-progress TTL)
+ * 2) Claimed: run the operation (commits its own transaction),
+ *    the claim TTL is extended every in-progress-ttl / 3 while it runs,
+ *    then store the serialized response with app.idempotency.ttl
+ * 3) Already claimed: replay the stored response without touching Postgres,
+ *    or 409 while the first request is still running
+ * -
+ * Same key with a different request body: 422, nothing runs.
+ * Operation failed: key released, the client may retry with the same key.
+ * Redis unavailable: operation runs without idempotency, never blocks checkout.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final char SEPARATOR = ':';
+
+    /**
+     * KEYS: idempotency key
+     * ARGV: claim value, TTL millis
+     * -
+     * Extend the claim only while it is still ours & in progress
+     */
+    private static final RedisScript<Long> EXTEND_CLAIM_SCRIPT = RedisScript.of("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final Duration ttl;
+    private final Duration inProgressTtl;
+
+    public IdempotencyService(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            TaskScheduler taskScheduler,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.idempotency.in-progress-ttl:1m}") Duration inProgressTtl
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.ttl = ttl;
+        this.inProgressTtl = inProgressTtl;
+    }
+
+    /**
+     * Run operation at most once per Idempotency-Key
+     * -
+     * request: body of the request (null if none), a retry must send the same one.
+     * No key (header absent): operation simply runs.
+     */
+    public <T> T execute(
+            String operation,
+            Long userId,
+            @Nullable String idempotencyKey,
+            @Nullable Object request,
+            Class<T> responseType,
+            Supplier<T> action
+    ) {
+
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String key = KEY_PREFIX + operation + ":" + userId + ":" + idempotencyKey;
+        String requestHash = hash(request);
+        String claim = requestHash + SEPARATOR + IN_PROGRESS;
+
+        Boolean claimed;
+        try {
+            claimed = stringRedisTemplate.opsForValue().setIfAbsent(key, claim, inProgressTtl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim idempotency key, running without it - Key: {}", key, e);
+            return action.get();
+        }
+
+        if (!Boolean.TRUE.equals(claimed)) {
+            return replay(key, requestHash, responseType);
+        }
+
+        ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(
+                () -> extendClaim(key, claim), inProgressTtl.dividedBy(3));
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            heartbeat.cancel(false);
+            release(key);
+            throw e;
+        }
+
+        heartbeat.cancel(false);
+        store(key, requestHash, response);
+
+        return response;
+    }
+
+    /**
+     * Stored response of the first request
+     */
+    private <T> T replay(String key, String requestHash, Class<T> responseType) {
+
+        String stored = stringRedisTemplate.opsForValue().get(key);
+
+        // Claim expired in between
+        if (stored == null) {
+            log.debug("Idempotent request still in progress - Key: {}", key);
+            throw new ConflictException(
+                    "A request with this " + HEADER + " is still being processed.");
+        }
+
+        int separator = stored.indexOf(SEPARATOR);
+        String storedHash = stored.substring(0, Math.max(separator, 0));
+        String payload = stored.substring(separator + 1);
+
+        if (!storedHash.equals(requestHash)) {
+            log.warn("Idempotency key reused with a different request - Key: {}", key);
+            throw new UnprocessableContentException(
+                    HEADER + " was already used with a different request.");
+        }
+
+        if (IN_PROGRESS.equals(payload)) {
+            log.debug("Idempotent request still in progress - Key: {}", key);
+            throw new ConflictException(
+                    "A request with this " + HEADER + " is still being processed.");
+        }
+
+        try {
+            log.debug("Replaying idempotent response - Key: {}", key);
+            return objectMapper.readValue(payload, responseType);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to read stored idempotent response - Key: {}", key, e);
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Operation already committed: a failed write only loses the replay
+     */
+    private void store(String key, String requestHash, Object response) {
+        try {
+            stringRedisTemplate.opsForValue().set(
+                    key, requestHash + SEPARATOR + objectMapper.writeValueAsString(response), ttl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to store idempotent response - Key: {}", key, e);
+        }
+    }
+
+    private void release(String key) {
+        try {
+            stringRedisTemplate.delete(key);
+        } catch (RuntimeException e) {
+            // Expires with in-progress TTL
+            log.warn("Failed to release idempotency key - Key: {}", key, e);
+        }
+    }
+
+    /**
+     * Heartbeat: the claim outlives a long operation (e.g. slow payment gateway)
+     */
+    private void extendClaim(String key, String claim) {
+        try {
+            stringRedisTemplate.execute(
+                    EXTEND_CLAIM_SCRIPT, List.of(key), claim, String.valueOf(inProgressTtl.toMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to extend idempotency claim - Key: {}", key, e);
+        }
+    }
+
+    /**
+     * SHA-256 of the request serialized as JSON, map entries sorted (same body -> same hash)
+     */
+    private String hash(@Nullable Object request) {
+        try {
+            byte[] body = request == null
+                    ? new byte[0]
+                    : objectMapper.writer()
+                            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                            .writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            log.error("Failed to hash idempotent request", e);
+            throw new InternalServerException();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.techgadget.ecommerce.service;
+
+import com.techgadget.ecommerce.exception.BadRequestException;
+import com.techgadget.ecommerce.repository.KeysetCursor;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Cursor request parameter -> KeysetCursor for the cursor-mode list endpoints
+ * -
+ * Validated here (sort + value type) before any query runs,
+ * so a bad cursor is a 400 instead of a failure inside the repository.
+ */
+final class KeysetCursors {
+
+    private KeysetCursors() {
+    }
+
+    /**
+     * Returns null for an empty token (first slice)
+     */
+    @Nullable
+    static KeysetCursor decode(
+            @Nullable String token,
+            String sortBy,
+            Sort.Direction direction,
+            Class<?> valueType
+    ) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(token);
+            if (cursor != null) {
+                cursor.assertMatches(sortBy, direction, valueType);
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
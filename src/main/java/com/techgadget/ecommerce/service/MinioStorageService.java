@@ -3,6 +3,10 @@ package com.techgadget.ecommerce.service;
 import com.techgadget.ecommerce.dto.response.image.StoredImageDto;
 import com.techgadget.ecommerce.exception.ContentTooLargeException;
 import com.techgadget.ecommerce.exception.InternalServerException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.*;
 import io.minio.errors.*;
 import io.minio.http.Method;
@@ -16,6 +20,16 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -25,17 +39,71 @@ public class MinioStorageService {
     private final MinioClient minioClient;
     private final String bucket;
 
+    /**
+     * Public bucket / CDN mode (NULLABLE)
+     * -
+     * If set, view url = publicBaseUrl + "/" + objectKey (no signing)
+     */
+    private final String publicBaseUrl;
+
+    private final Duration presignExpiry;
+    private final int presignParallelism;
+
+    /**
+     * Presigned url per object key, reused until (expiry - refreshMargin)
+     * -
+     * Same url for the same image -> browser/CDN can cache it.
+     */
+    private final Cache<String, String> presignedUrlCache;
+
+    private final Counter signedCounter;
+    private final Counter cachedCounter;
+    private final Counter publicCounter;
+
     public MinioStorageService(
             MinioClient minioClient,
-            @Value("${minio.bucket}") String bucket
+            MeterRegistry meterRegistry,
+            @Value("${minio.bucket}") String bucket,
+            @Value("${minio.public-base-url:}") String publicBaseUrl,
+            @Value("${minio.presign.expiry:1h}") Duration presignExpiry,
+            @Value("${minio.presign.refresh-margin:20m}") Duration refreshMargin,
+            @Value("${minio.presign.cache-max-size:20000}") long cacheMaxSize,
+            @Value("${minio.presign.parallelism:8}") int presignParallelism
     ) {
         this.minioClient = minioClient;
         this.bucket = bucket;
+        this.publicBaseUrl = publicBaseUrl.isBlank()
+                ? null
+                : publicBaseUrl.replaceAll("/+$", "");
+        this.presignExpiry = presignExpiry;
+        this.presignParallelism = Math.max(1, presignParallelism);
+
+        if (refreshMargin.compareTo(presignExpiry) >= 0) {
+            throw new IllegalStateException("minio.presign.refresh-margin must be shorter than minio.presign.expiry");
+        }
+
+        this.presignedUrlCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(presignExpiry.minus(refreshMargin))
+                .build();
+
+        // storage.presign.requests{source=signed|cached|public}
+        // Signing calls saved = cached + public
+        this.signedCounter = presignCounter(meterRegistry, "signed");
+        this.cachedCounter = presignCounter(meterRegistry, "cached");
+        this.publicCounter = presignCounter(meterRegistry, "public");
 
         // EnsureBucketExists
         this.ensureBucketExists();
     }
 
+    private static Counter presignCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("storage.presign.requests")
+                .description("Image view url requests by source")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
     /**
      * Check if bucket exists
      * -
@@ -99,6 +167,9 @@ public class MinioStorageService {
                             .object(objectKey)
                             .build()
             );
+
+            // Don't hand out url of deleted object
+            presignedUrlCache.invalidate(objectKey);
         } catch (Exception e) {
             log.error("Failed to remove image - ObjectKey={}", objectKey, e);
             throw new InternalServerException();
@@ -106,21 +177,116 @@ public class MinioStorageService {
     }
 
     /**
-     * Get presigned url (GET method)
+     * Get view url of object
+     * -
+     * 1) Public mode: plain url, no signing
+     * 2) Cached presigned url (still valid for at least refreshMargin)
+     * 3) New presigned url (GET method)
+     * -
+     * Return null if signing failed (failure is not cached)
      */
     public String generateViewUrl(String objectKey) {
+
+        if (publicBaseUrl != null) {
+            publicCounter.increment();
+            return publicBaseUrl + "/" + objectKey;
+        }
+
+        String cached = presignedUrlCache.getIfPresent(objectKey);
+        if (cached != null) {
+            cachedCounter.increment();
+            return cached;
+        }
+
+        // null (image is skipped) is not stored, so next call retries
+        return presignedUrlCache.get(objectKey, this::presign);
+    }
+
+    /**
+     * Get view urls of many objects in one step
+     * -
+     * Keys are deduplicated, cached urls are reused,
+     * remaining keys are signed in parallel (bounded by presignParallelism)
+     * on virtual threads.
+     * -
+     * Return map objectKey -> url, keys that failed to sign are absent
+     */
+    public Map<String, String> generateViewUrls(Collection<String> objectKeys) {
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (String objectKey : objectKeys) {
+            if (objectKey != null) {
+                keys.add(objectKey);
+            }
+        }
+
+        Map<String, String> urls = new HashMap<>();
+        if (keys.isEmpty()) {
+            return urls;
+        }
+
+        if (publicBaseUrl != null) {
+            keys.forEach(key -> urls.put(key, publicBaseUrl + "/" + key));
+            publicCounter.increment(keys.size());
+            return urls;
+        }
+
+        urls.putAll(presignedUrlCache.getAllPresent(keys));
+        cachedCounter.increment(urls.size());
+
+        List<String> misses = keys.stream()
+                .filter(key -> !urls.containsKey(key))
+                .toList();
+
+        if (misses.size() <= 1) {
+            for (String key : misses) {
+                String url = presignedUrlCache.get(key, this::presign);
+                if (url != null) {
+                    urls.put(key, url);
+                }
+            }
+            return urls;
+        }
+
+        // Split misses into at most presignParallelism chunks, 1 virtual thread each
+        int chunkSize = Math.ceilDiv(misses.size(), presignParallelism);
+        Map<String, String> signed = new ConcurrentHashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < misses.size(); from += chunkSize) {
+                List<String> chunk = misses.subList(from, Math.min(from + chunkSize, misses.size()));
+                executor.submit(() -> {
+                    for (String key : chunk) {
+                        String url = presignedUrlCache.get(key, this::presign);
+                        if (url != null) {
+                            signed.put(key, url);
+                        }
+                    }
+                });
+            }
+        } // close() waits for every chunk
+
+        urls.putAll(signed);
+        return urls;
+    }
+
+    /**
+     * Sign GET url (NULLABLE)
+     */
+    private String presign(String objectKey) {
         try {
+            signedCounter.increment();
             return minioClient.getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
                             .method(Method.GET) // only GET method
                             .bucket(bucket)
                             .object(objectKey)
-                            .expiry(1, TimeUnit.HOURS)
+                            .expiry((int) presignExpiry.toSeconds(), TimeUnit.SECONDS)
                             .build()
             );
         } catch (Exception e) {
             log.warn("Failed to get presigned url - ObjectKey={}", objectKey, e);
-            return null; // Image is skipped
+            return null;
         }
     }
 
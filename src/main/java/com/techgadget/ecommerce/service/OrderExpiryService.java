@@ -0,0 +1,129 @@
+package com.techgadget.ecommerce.service;
+
+import com.techgadget.ecommerce.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Expiry sweeper for unpaid PENDING orders
+ * -
+ * Stock is deducted when the order is created. An order still unpaid after
+ * app.order.expiry.ttl is cancelled (payment FAILED) and its stock restored.
+ * -
+ * Works in chunks of app.order.expiry.batch-size orders, one transaction each:
+ * 1) Postgres advisory lock (only one node sweeps, the others skip the run)
+ * 2) Lock expired orders, oldest first (FOR UPDATE SKIP LOCKED)
+ * 3) Cancel them with 2 UPDATE statements
+ * 4) Restore stock with 1 aggregate query + 1 JDBC batch (StockLedgerService)
+ * -
+ * Payment / cancellation lock the order row first, so an order is never
+ * paid and expired at the same time, and stock is restored only once.
+ */
+@Service
+@Slf4j
+public class OrderExpiryService {
+
+    /**
+     * Advisory lock key of the sweeper (any constant unique in this DB)
+     */
+    static final long SWEEP_LOCK_KEY = 0x4F524445525F4558L; // "ORDER_EX"
+
+    private final OrderRepository orderRepository;
+    private final StockLedgerService stockLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OrderExpiryService(
+            OrderRepository orderRepository,
+            StockLedgerService stockLedgerService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.order.expiry.ttl:30m}") Duration ttl,
+            @Value("${app.order.expiry.batch-size:200}") int batchSize,
+            @Value("${app.order.expiry.max-batches-per-run:50}") int maxBatchesPerRun
+    ) {
+        this.orderRepository = orderRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Expire unpaid orders older than TTL, chunk by chunk
+     * -
+     * Return number of expired orders
+     */
+    @Scheduled(fixedDelayString = "${app.order.expiry.interval:1m}")
+    public int expireUnpaidOrders() {
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int expired = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+
+            int cancelled;
+            try {
+                cancelled = Objects.requireNonNull(
+                        transactionTemplate.execute(status -> expireBatch(cutoff)));
+            } catch (RuntimeException e) {
+                // Batch rolled back, retried next run
+                log.error("Failed to expire unpaid orders - Cutoff: {}", cutoff, e);
+                break;
+            }
+
+            if (cancelled < 0) {
+                log.debug("Order expiry sweep skipped, another node is sweeping");
+                break;
+            }
+
+            expired += cancelled;
+
+            // Last (partial) chunk
+            if (cancelled < batchSize) {
+                break;
+            }
+        }
+
+        if (expired > 0) {
+            log.info("Expired {} unpaid orders created before {}", expired, cutoff);
+        }
+
+        return expired;
+    }
+
+    /**
+     * One chunk in the current transaction
+     * -
+     * Return number of cancelled orders, -1 if another node holds the lock
+     */
+    private int expireBatch(LocalDateTime cutoff) {
+
+        if (!orderRepository.tryAdvisoryXactLock(SWEEP_LOCK_KEY)) {
+            return -1;
+        }
+
+        List<Long> orderIds = orderRepository.lockExpiredOrderIds(cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        int cancelled = orderRepository.cancelUnpaidOrders(orderIds);
+        stockLedgerService.restoreOrders(orderIds);
+
+        log.debug("Expired unpaid orders - Orders: {}", orderIds);
+
+        return cancelled;
+    }
+}
@@ -0,0 +1,222 @@
+package com.techgadget.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techgadget.ecommerce.dto.request.order.OrderFilterRequest;
+import com.techgadget.ecommerce.dto.response.order.OrderExportRow;
+import com.techgadget.ecommerce.entity.Order;
+import com.techgadget.ecommerce.entity.Payment;
+import com.techgadget.ecommerce.enums.ExportFormat;
+import com.techgadget.ecommerce.enums.OrderStatus;
+import com.techgadget.ecommerce.exception.BadRequestException;
+import com.techgadget.ecommerce.repository.OrderRepository;
+import com.techgadget.ecommerce.repository.OrderSpecification;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * ADMIN - Export filtered orders as CSV / NDJSON
+ * -
+ * Orders are streamed from a forward-only cursor (app.order.export.fetch-size rows per round trip)
+ * and written straight to the response, nothing is collected in memory.
+ * Persistence context is cleared after every fetch, so memory stays constant
+ * no matter how many orders are exported.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER = String.join(",",
+            "id", "order_number", "created_at", "user_id", "order_status",
+            "payment_status", "payment_method", "amount", "shipping_provider", "tracking_number"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public OrderExportService(
+            OrderRepository orderRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.order.export.fetch-size:500}") int fetchSize
+    ) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+
+        // Stream runs after controller returned -> own transaction
+        // (PostgreSQL driver only uses a cursor with autocommit off)
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Convert format query param into ExportFormat
+     */
+    public ExportFormat resolveFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid export format: {}", format);
+            throw new BadRequestException("Invalid export format.");
+        }
+    }
+
+    /**
+     * Build response body streaming every order matching the filter
+     * -
+     * Filter is validated now (400 before anything is written),
+     * page & size are ignored.
+     */
+    public StreamingResponseBody exportOrders(OrderFilterRequest filter, ExportFormat format) {
+
+        log.debug("Processing admin order export - Status: {}, FromDate: {}, ToDate: {}, Format: {}",
+                filter.getStatus(), filter.getFromDate(), filter.getToDate(), format);
+
+        // Convert filter.status to OrderStatus -- NULLABLE
+        OrderStatus orderStatus = OrderFilters.resolveOrderStatus(filter.getStatus());
+        OrderFilters.DateRange range = OrderFilters.toRange(filter);
+        Sort.Direction direction = OrderFilters.direction(filter);
+
+        Specification<Order> spec = OrderSpecification.search(null, orderStatus, range.from(), range.to());
+
+        return out -> writeOrders(spec, direction, format, out);
+    }
+
+    /**
+     * Write orders to output, return number of exported orders
+     */
+    public long writeOrders(
+            Specification<Order> spec,
+            Sort.Direction direction,
+            ExportFormat format,
+            OutputStream out
+    ) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        try {
+            Long exported = readOnlyTransaction.execute(status -> {
+                try (Stream<Order> orders = orderRepository.streamOrders(spec, direction, fetchSize)) {
+                    return writeRows(orders.iterator(), format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            log.info("Admin successfully exported {} orders as {}", exported, format);
+
+            return Objects.requireNonNull(exported);
+        } catch (UncheckedIOException e) {
+            // Mostly client gone (download cancelled)
+            log.warn("Order export aborted: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private long writeRows(Iterator<Order> orders, ExportFormat format, Writer writer) throws IOException {
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long written = 0;
+        while (orders.hasNext()) {
+            OrderExportRow row = mapToExportRow(orders.next());
+
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(row, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+
+            // One fetch written -> push it to client, drop its entities
+            if (++written % fetchSize == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+
+        writer.flush();
+        return written;
+    }
+
+    private OrderExportRow mapToExportRow(Order order) {
+
+        @Nullable Payment payment = order.getPayment();
+
+        return new OrderExportRow(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getCreatedAt(),
+                // FK of lazy proxy, no select
+                order.getUser().getId(),
+                order.getOrderStatus().toString(),
+                payment != null ? payment.getPaymentStatus().toString() : null,
+                payment != null ? payment.getPaymentMethod().toString() : null,
+                payment != null ? payment.getAmount() : null,
+                order.getShippingProvider(),
+                order.getTrackingNumber()
+        );
+    }
+
+    private void writeCsvLine(OrderExportRow row, Writer writer) throws IOException {
+
+        Object[] values = {
+                row.getId(), row.getOrderNumber(), row.getCreatedAt(), row.getUserId(), row.getOrderStatus(),
+                row.getPaymentStatus(), row.getPaymentMethod(), row.getAmount(),
+                row.getShippingProvider(), row.getTrackingNumber()
+        };
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * RFC 4180: quote field containing separator, quote or line break
+     */
+    private String csvField(@Nullable Object value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
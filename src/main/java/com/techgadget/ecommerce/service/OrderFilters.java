@@ -0,0 +1,71 @@
+package com.techgadget.ecommerce.service;
+
+import com.techgadget.ecommerce.dto.request.order.OrderFilterRequest;
+import com.techgadget.ecommerce.enums.OrderStatus;
+import com.techgadget.ecommerce.exception.BadRequestException;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * OrderFilterRequest -> values of OrderSpecification.search
+ * -
+ * Shared by order listing (OrderService) and export (OrderExportService).
+ */
+@Slf4j
+final class OrderFilters {
+
+    /**
+     * createdAt range, each bound NULLABLE (no filter)
+     */
+    record DateRange(@Nullable LocalDateTime from, @Nullable LocalDateTime to) {
+    }
+
+    private OrderFilters() {
+    }
+
+    /**
+     * Convert status filter into OrderStatus (null -> no filter)
+     */
+    @Nullable
+    static OrderStatus resolveOrderStatus(@Nullable String status) {
+
+        if (status == null) {
+            return null;
+        }
+
+        try {
+            return OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid order status: {}", status);
+            throw new BadRequestException("Invalid order status.");
+        }
+    }
+
+    /**
+     * Convert LocalDate filters into LocalDateTime (fromDate start of day, toDate end of day)
+     */
+    static DateRange toRange(OrderFilterRequest filter) {
+
+        LocalDateTime from = filter.getFromDate() != null
+                ? filter.getFromDate().atStartOfDay()
+                : null;
+        LocalDateTime to = filter.getToDate() != null
+                ? filter.getToDate().atTime(LocalTime.MAX)
+                : null;
+
+        return new DateRange(from, to);
+    }
+
+    /**
+     * NEWEST (default) -> createdAt DESC, OLDEST -> createdAt ASC
+     */
+    static Sort.Direction direction(OrderFilterRequest filter) {
+        return filter.getSort().equalsIgnoreCase("OLDEST")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+    }
+}
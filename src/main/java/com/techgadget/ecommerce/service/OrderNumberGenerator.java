@@ -0,0 +1,98 @@
+package com.techgadget.ecommerce.service;
+
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Order number generator (Snowflake-style, lock-free)
+ * -
+ * 64-bit ID = 41 bits milliseconds since EPOCH | 10 bits node ID | 12 bits sequence
+ * > Unique across nodes: every instance has its own node ID (app.order.number.node-id, required)
+ * > Monotonic per node: one AtomicLong holds (millis << 12 | sequence), advanced by CAS
+ * > More than 4096 IDs in one millisecond, or clock moved back:
+ *   keeps counting from the last value (borrows the next millisecond), never waits
+ * -
+ * Order number = "ORD-" + ID (at most 19 digits, until 2095)
+ */
+@Component
+@Slf4j
+public class OrderNumberGenerator {
+
+    /**
+     * 2026-01-01T00:00:00Z
+     */
+    public static final long EPOCH = 1_767_225_600_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final String PREFIX = "ORD-";
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * Fails startup when app.order.number.node-id is not set:
+     * a derived node ID (e.g. host name hash) can collide and duplicate order numbers
+     */
+    @Autowired
+    public OrderNumberGenerator(@Value("${app.order.number.node-id:#{null}}") @Nullable Integer nodeId) {
+        this(requireNodeId(nodeId), System::currentTimeMillis);
+        log.info("Order number generator started - Node: {}", this.nodeId);
+    }
+
+    public OrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                    "Order number node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * Next order number, e.g. ORD-1234567890123456789
+     */
+    public String nextOrderNumber() {
+        return PREFIX + nextId();
+    }
+
+    /**
+     * Next ID of this node, strictly greater than the previous one
+     */
+    public long nextId() {
+
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+
+        long last;
+        long next;
+        do {
+            last = lastState.get();
+            next = Math.max(last + 1, now);
+        } while (!lastState.compareAndSet(last, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    private static int requireNodeId(@Nullable Integer nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException(
+                    "app.order.number.node-id must be set (0 - " + MAX_NODE_ID + ", unique per running instance)");
+        }
+        return nodeId;
+    }
+}
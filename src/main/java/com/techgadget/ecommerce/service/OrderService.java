@@ -8,6 +8,7 @@ import com.techgadget.ecommerce.dto.request.order.OrderFilterRequest;
 import com.techgadget.ecommerce.dto.request.order.UpdateOrderStatusToShipRequest;
 import com.techgadget.ecommerce.dto.response.user.AddressResponse;
 import com.techgadget.ecommerce.dto.response.order.OrderResponse;
+import com.techgadget.ecommerce.dto.response.order.OrderSummaryResponse;
 import com.techgadget.ecommerce.dto.response.PaginatedResponse;
 import com.techgadget.ecommerce.entity.*;
 import com.techgadget.ecommerce.enums.UserRole;
@@ -19,16 +20,19 @@ import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -40,8 +44,12 @@ public class OrderService {
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final ProductRepository productRepository;
-    private final PaymentRepository paymentRepository;
     private final ProductImageService productImageService;
+    private final ProductDetailCacheService productDetailCacheService;
+    private final HotInventoryService hotInventoryService;
+    private final StockLedgerService stockLedgerService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final RedisCartStore redisCartStore;
 
     // -------------------------
     // --- CUSTOMER METHODS ---
@@ -80,7 +88,8 @@ public class OrderService {
 
         log.debug("1 success");
 
-        // 2. Find user cart
+        // 2. Find user cart (cart kept in Redis is written to DB first)
+        redisCartStore.flushCart(userId);
         Cart cart = cartRepository.findByUser_IdWithItems(userId)
                 .orElseThrow(() -> {
                     log.warn("Cart not found with user id = {}", userId);
@@ -107,13 +116,23 @@ public class OrderService {
 
         log.debug("4 success");
 
+        // Resolve payment method before any stock is taken
+        PaymentMethod paymentMethod;
+        try {
+            paymentMethod = PaymentMethod.valueOf(request.getPaymentMethod().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid payment method selected = {}", request.getPaymentMethod());
+            throw new BadRequestException("Invalid payment method: " + request.getPaymentMethod());
+        }
+
         /*
             5. Filter wanted cart item
-            6. Validate each product stock
-            7. Subtract each product stock
+            6. Validate each product stock (fast fail on loaded stock)
+            7. Sum requested quantity per product
             8. Create list of OrderItem
          */
         List<OrderItem> orderItems = new ArrayList<>();
+        Map<Long, Integer> quantityByProductId = new HashMap<>();
 
         for (Long cartItemId : request.getCartItemIds()) {
 
@@ -140,10 +159,7 @@ public class OrderService {
 
             // 7
             Product product = cartItem.getProduct();
-            int newStock = product.getStock() - cartItem.getQuantity();
-            product.setStock(newStock);
-
-            productRepository.save(product);
+            quantityByProductId.merge(product.getId(), cartItem.getQuantity(), Integer::sum);
 
             log.debug("7 success");
 
@@ -178,10 +194,36 @@ public class OrderService {
             log.debug("8 success");
         }
 
-        // 9. Create Order entity (insert all OrderItems)
+        /*
+            Subtract stock atomically
+            - Hot products (flash sale): reserved in Redis, flushed to DB in batches
+            - Others: conditional UPDATE in DB (batched, by product ID order).
+            Loaded stock may be outdated by concurrent checkouts,
+            the DB re-checks stock >= quantity under row lock.
+         */
+        Map<Long, Integer> hotQuantityByProductId = new HashMap<>();
+        Map<Long, Integer> dbQuantityByProductId = new HashMap<>();
+        quantityByProductId.forEach((productId, quantity) ->
+                (hotInventoryService.isHot(productId) ? hotQuantityByProductId : dbQuantityByProductId)
+                        .put(productId, quantity));
+
+        if (!hotQuantityByProductId.isEmpty() && !hotInventoryService.reserve(hotQuantityByProductId)) {
+            log.warn("Product quantity insufficient on hot inventory for products = {}",
+                    hotQuantityByProductId.keySet());
+            throw new ConflictException("Product quantity insufficient.");
+        }
+
+        List<Long> insufficientProductIds = productRepository.decreaseStocks(dbQuantityByProductId);
+        if (!insufficientProductIds.isEmpty()) {
+            log.warn("Product quantity insufficient on stock update for products with id = {}",
+                    insufficientProductIds);
+            throw new ConflictException("Product quantity insufficient.");
+        }
+
+        // 9. Create Order entity
         Order order = new Order(
                 user,
-                generateOrderNumber(userId),
+                orderNumberGenerator.nextOrderNumber(),
                 shippingAddress
         );
 
@@ -189,47 +231,33 @@ public class OrderService {
 
         // 10. Set FK to each OrderItem & add to Order
         for (OrderItem orderItem : orderItems) {
-            orderItem.setOrder(order);
             order.addItem(orderItem);
         }
 
-        order = orderRepository.save(order);
-
         log.debug("10 success");
 
-        // 11. Create Payment and save
-        PaymentMethod paymentMethod;
-        try {
-            paymentMethod = PaymentMethod.valueOf(request.getPaymentMethod().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            log.warn("Invalid payment method selected = {}", request.getPaymentMethod());
-            throw new BadRequestException("Invalid payment method: " + request.getPaymentMethod());
-        }
-
+        // 11. Create Payment & set to Order (both sides)
         Payment payment = new Payment();
         payment.setOrder(order);
         payment.setAmount(order.getTotalPrice());
         payment.setPaymentStatus(PaymentStatus.PENDING); // PENDING order
         payment.setPaymentMethod(paymentMethod);
-
-        payment = paymentRepository.save(payment);
+        order.setPayment(payment);
 
         log.debug("11 success");
 
-        // 12. Set the payment to Order Entity
-        order.setPayment(payment);
-        order = orderRepository.save(order);
+        /*
+            12. Persist Order, cascade to OrderItems & Payment
+            - Inserted in the same flush, no re-save / re-fetch:
+            the response is mapped from this in-memory graph.
+         */
+        Order finalOrder = orderRepository.save(order);
 
         log.debug("12 success");
 
-        // Get order with all relation
-        Order tempOrder = order;
-        Order finalOrder = orderRepository
-                .findUserOrderById(order.getId(), userId)
-                .orElseThrow(() -> {
-                    log.warn("Order {} not found", tempOrder.getId());
-                    return new NotFoundException("Order not found.");
-                });
+        // Stock changed -> cached product detail is stale
+        // (hot products: evicted when flushed to DB)
+        productDetailCacheService.evict(dbQuantityByProductId.keySet());
 
         log.info("User {} successfully created order {} - TotalItems={}",
                 finalOrder.getId(), userId, finalOrder.getTotalItems());
@@ -249,6 +277,9 @@ public class OrderService {
         log.debug("Processing cancel order: User={}, Order={}",
                 userId, orderId);
 
+        // Wait for concurrent payment / expiry of this order (stock restored once)
+        orderRepository.lockById(orderId);
+
         Order order = orderRepository.findUserOrderById(orderId, userId)
                 .orElseThrow(() -> {
                     log.warn("Order not found with id = {} and user id = {}", orderId, userId);
@@ -263,23 +294,8 @@ public class OrderService {
             throw new ConflictException("Order cannot be cancelled.");
         }
 
-        // Restore stock
-        for (OrderItem orderItem : order.getItems()) {
-            // Get the product
-            Product product = productRepository
-                    .findById(orderItem.getProductIdSnapshot())
-                    .orElseThrow(() -> {
-                        log.warn("Product with id snapshot {} not found: Order={}, OrderItem:{}",
-                                orderItem.getProductIdSnapshot(), orderId, orderItem.getId());
-                        return new NotFoundException("Product id snapshot not found.");
-                    });
-
-            // Set restored Stock quantity
-            int restoredStock = product.getStock() + orderItem.getQuantity();
-            product.setStock(restoredStock);
-            productRepository.save(product);
-
-        }
+        // Restore stock of all items in one batch (hot products: given back to Redis after commit)
+        stockLedgerService.restore(order.getItems());
 
         // Set new order status
         OrderStatus oldOrderStatus = order.getOrderStatus();
@@ -317,73 +333,60 @@ public class OrderService {
                 userId, filter.getStatus(), filter.getFromDate(), filter.getToDate());
 
         // Convert filter.status to OrderStatus -- NULLABLE
-        @Nullable OrderStatus orderStatus = null;
-        if (filter.getStatus() != null) {
-            try {
-                orderStatus = OrderStatus.valueOf(filter.getStatus().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid order status: {}", filter.getStatus());
-                throw new BadRequestException("Invalid order status.");
-            }
-        }
-
-        // Choose sort by CreatedAt
-        Sort sort = filter.getSort().equalsIgnoreCase("OLDEST")
-                ? Sort.by("createdAt").ascending()
-                : Sort.by("createdAt").descending();
+        @Nullable OrderStatus orderStatus = OrderFilters.resolveOrderStatus(filter.getStatus());
+        OrderFilters.DateRange range = OrderFilters.toRange(filter);
 
-        Pageable pageable = PageRequest.of(
-                filter.getPage(),
-                filter.getSize(),
-                sort
-        );
-
-        // Convert LocalDate into LocalDateTime
-        LocalDateTime fromDate = filter.getFromDate() != null
-                ? filter.getFromDate().atStartOfDay()
-                : null;
-        LocalDateTime toDate = filter.getToDate() != null
-                ? filter.getToDate().atTime(LocalTime.MAX)
-                : null;
-
-        Page<Order> orderPage;
-
-        if (fromDate != null && toDate != null) {
-            orderPage = orderRepository.findUserOrdersBetweenDate(
-                    userId,
-                    orderStatus,
-                    fromDate,
-                    toDate,
-                    pageable
-            );
-        } else if (fromDate != null) {
-            orderPage = orderRepository.findUserOrdersFromDate(
-                    userId,
-                    orderStatus,
-                    fromDate,
-                    pageable
-            );
-        } else if (toDate != null) {
-            orderPage = orderRepository.findUserOrdersToDate(
-                    userId,
-                    orderStatus,
-                    toDate,
-                    pageable
-            );
-        } else {
-            orderPage = orderRepository.findUserOrders(
-                    userId,
-                    orderStatus,
-                    pageable
-            );
+        // Keyset pagination (opt-in)
+        if (filter.getCursor() != null) {
+            return scrollOrders(userId, orderStatus, range, filter);
         }
 
+        Page<Order> orderPage = searchOrders(userId, orderStatus, range, filter);
+
         log.info("User {} successfully got {} orders ",
                 userId, orderPage.getTotalElements());
 
         return mapPageToResponse(orderPage);
     }
 
+    /**
+     * CUSTOMER - Get user order summaries (no items, no address)
+     * -
+     * Same filters as getUserOrders, offset paging only (cursor is ignored).
+     * Totals come from orders columns, order_items is not read.
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<OrderSummaryResponse> getUserOrderSummaries(Long userId, OrderFilterRequest filter) {
+        log.debug("Processing get user order summaries - " +
+                "User: {}, OrderStatus: {}, FromDate: {}, ToDate: {}",
+                userId, filter.getStatus(), filter.getFromDate(), filter.getToDate());
+
+        // Convert filter.status to OrderStatus -- NULLABLE
+        @Nullable OrderStatus orderStatus = OrderFilters.resolveOrderStatus(filter.getStatus());
+        OrderFilters.DateRange range = OrderFilters.toRange(filter);
+
+        Page<OrderSummaryResponse> summaryPage = orderRepository.searchOrderSummaries(
+                OrderSpecification.search(userId, orderStatus, range.from(), range.to()),
+                buildPageable(filter)
+        );
+
+        log.debug("Running query -> orderRepository.searchOrderSummaries");
+
+        log.info("User {} successfully got {} order summaries",
+                userId, summaryPage.getTotalElements());
+
+        PaginatedResponse<OrderSummaryResponse> response = new PaginatedResponse<>();
+        response.setContent(summaryPage.getContent());
+        response.setPageNumber(summaryPage.getNumber());
+        response.setPageSize(summaryPage.getSize());
+        response.setTotalPages(summaryPage.getTotalPages());
+        response.setTotalElements(summaryPage.getTotalElements());
+        response.setHasNextPage(summaryPage.hasNext());
+        response.setHasPreviousPage(summaryPage.hasPrevious());
+
+        return response;
+    }
+
     /**
      * CUSTOMER - Get single user order by id and user id
      */
@@ -418,72 +421,16 @@ public class OrderService {
                 filter.getStatus(), filter.getFromDate(), filter.getToDate());
 
         // Convert filter.status to OrderStatus -- NULLABLE
-        OrderStatus orderStatus = null;
-        if (filter.getStatus() != null) {
-            try {
-                orderStatus = OrderStatus.valueOf(filter.getStatus().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid order status: {}", filter.getStatus());
-                throw new BadRequestException("Invalid order status.");
-            }
-        }
-
-        // Choose sort by CreatedAt
-        Sort sort = filter.getSort().equalsIgnoreCase("OLDEST")
-                ? Sort.by("createdAt").ascending()
-                : Sort.by("createdAt").descending();
-
-        Pageable pageable = PageRequest.of(
-                filter.getPage(),
-                filter.getSize(),
-                sort
-        );
-
-        // Convert LocalDate into LocalDateTime
-        LocalDateTime fromDate = filter.getFromDate() != null
-                ? filter.getFromDate().atStartOfDay()
-                : null;
-        LocalDateTime toDate = filter.getToDate() != null
-                ? filter.getToDate().atTime(LocalTime.MAX)
-                : null;
-
-        Page<Order> orderPage;
-
-        if (fromDate != null && toDate != null) {
-            orderPage = orderRepository.findAllOrdersBetweenDateWithRelation(
-                    orderStatus,
-                    fromDate,
-                    toDate,
-                    pageable
-            );
-            log.debug("Running query -> orderRepository.findAllOrdersBetweenDateWithRelation");
-
-        } else if (fromDate != null) {
-            orderPage = orderRepository.findAllOrdersFromDateWithRelation(
-                    orderStatus,
-                    fromDate,
-                    pageable
-            );
-            log.debug("Running query -> orderRepository.findAllOrdersFromDateWithRelation");
-
-        } else if (toDate != null) {
-            orderPage = orderRepository.findAllOrdersToDateWithRelation(
-                    orderStatus,
-                    toDate,
-                    pageable
-            );
-            log.debug("Running query -> orderRepository.findAllOrdersToDateWithRelation");
-
-
-        } else {
-            orderPage = orderRepository.findAllOrdersWithRelation(
-                    orderStatus,
-                    pageable
-            );
-            log.debug("Running query -> orderRepository.findAllOrdersWithRelation");
+        @Nullable OrderStatus orderStatus = OrderFilters.resolveOrderStatus(filter.getStatus());
+        OrderFilters.DateRange range = OrderFilters.toRange(filter);
 
+        // Keyset pagination (opt-in)
+        if (filter.getCursor() != null) {
+            return scrollOrders(null, orderStatus, range, filter);
         }
 
+        Page<Order> orderPage = searchOrders(null, orderStatus, range, filter);
+
         log.info("Admin successfully got all {} orders",
                 orderPage.getTotalElements());
 
@@ -630,6 +577,7 @@ public class OrderService {
 
     /**
      * Update order status into CANCELLED
+     * - Product stock is restored.
      */
     @Transactional
     public OrderResponse adminUpdateOrderStatusToCancelled(Long orderId) {
@@ -638,6 +586,9 @@ public class OrderService {
 
         OrderStatus target = OrderStatus.CANCELLED;
 
+        // Wait for concurrent payment / expiry of this order (stock restored once)
+        orderRepository.lockById(orderId);
+
         Order order = orderRepository
                 .findOrderByIdWithRelationForAdmin(orderId)
                 .orElseThrow(() -> {
@@ -654,6 +605,9 @@ public class OrderService {
             throw new ConflictException("Order can't be cancelled.");
         }
 
+        // Restore stock of all items in one batch
+        stockLedgerService.restore(order.getItems());
+
         order.setOrderStatus(target);
         orderRepository.save(order);
 
@@ -664,17 +618,126 @@ public class OrderService {
     }
 
     /**
-     * Helper method to generate unique order number
+     * Helper method for page mode of order listing
+     * -
+     * 1) Page order IDs in SQL (only the set filters, sargable predicates)
+     * 2) Load items, payment & address for the IDs of this page only
+     * userId null -> orders of every user (admin)
+     */
+    private Page<Order> searchOrders(
+            @Nullable Long userId,
+            @Nullable OrderStatus orderStatus,
+            OrderFilters.DateRange range,
+            OrderFilterRequest filter
+    ) {
+        Page<Long> idPage = orderRepository.searchOrderIds(
+                OrderSpecification.search(userId, orderStatus, range.from(), range.to()),
+                buildPageable(filter)
+        );
+
+        log.debug("Running query -> orderRepository.searchOrderIds");
+
+        List<Order> orders = loadOrders(idPage.getContent());
+
+        return new PageImpl<>(orders, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Helper method to build page request, sorted by createdAt (NEWEST / OLDEST)
+     */
+    private Pageable buildPageable(OrderFilterRequest filter) {
+
+        return PageRequest.of(
+                filter.getPage(),
+                filter.getSize(),
+                Sort.by(OrderFilters.direction(filter), "createdAt")
+        );
+    }
+
+    /**
+     * Helper method to load orders (with relations) by IDs, in the same order
      */
-    private String generateOrderNumber(Long userId) {
-        return "ORD-" + System.currentTimeMillis() + "-" + userId;
+    private List<Order> loadOrders(List<Long> ids) {
+
+        List<Order> orders = new ArrayList<>();
+
+        if (!ids.isEmpty()) {
+            Map<Long, Order> orderById = new HashMap<>();
+            for (Order order : orderRepository.findOrderListByIdIn(ids)) {
+                orderById.put(order.getId(), order);
+            }
+
+            for (Long id : ids) {
+                Order order = orderById.get(id);
+                // Skip order deleted between both queries
+                if (order != null) {
+                    orders.add(order);
+                }
+            }
+        }
+
+        return orders;
+    }
+
+    /**
+     * Helper method for cursor mode of order listing
+     * -
+     * Seek on (createdAt, id) after the cursor, no count query.
+     * userId null -> orders of every user (admin)
+     */
+    private PaginatedResponse<OrderResponse> scrollOrders(
+            @Nullable Long userId,
+            @Nullable OrderStatus orderStatus,
+            OrderFilters.DateRange range,
+            OrderFilterRequest filter
+    ) {
+        Sort.Direction direction = OrderFilters.direction(filter);
+
+        KeysetCursor after = KeysetCursors.decode(
+                filter.getCursor(), "createdAt", direction, LocalDateTime.class);
+
+        Slice<Long> idSlice = orderRepository.scrollOrderIds(
+                OrderSpecification.search(userId, orderStatus, range.from(), range.to()),
+                direction,
+                after,
+                filter.getSize()
+        );
+
+        log.debug("Running query -> orderRepository.scrollOrderIds");
+
+        // Load relations for this slice only, keep the slice order
+        List<Order> orders = loadOrders(idSlice.getContent());
+
+        // Next cursor = position of the last row of this slice
+        String nextCursor = null;
+        if (idSlice.hasNext() && !orders.isEmpty()) {
+            Order last = orders.getLast();
+            nextCursor = KeysetCursor.of(
+                    "createdAt", direction, last.getCreatedAt(), last.getId()
+            ).encode();
+        }
+
+        PaginatedResponse<OrderResponse> response = new PaginatedResponse<>();
+        Map<String, String> imageUrls = getItemImageUrls(orders);
+        response.setContent(orders.stream().map(o -> mapToOrderResponse(o, imageUrls)).toList());
+        response.setPageNumber(0);
+        response.setPageSize(filter.getSize());
+        response.setHasNextPage(nextCursor != null);
+        response.setHasPreviousPage(after != null);
+        response.setNextCursor(nextCursor);
+
+        log.info("Successfully fetched {} orders using cursor - HasNext: {}",
+                orders.size(), nextCursor != null);
+
+        return response;
     }
 
     private PaginatedResponse<OrderResponse> mapPageToResponse(Page<Order> orderPage) {
 
         PaginatedResponse<OrderResponse> response = new PaginatedResponse<>();
         // Map Page<Product> into List<ProductResponse>
-        response.setContent(orderPage.map(this::mapToOrderResponse).toList());
+        Map<String, String> imageUrls = getItemImageUrls(orderPage.getContent());
+        response.setContent(orderPage.map(o -> mapToOrderResponse(o, imageUrls)).toList());
         response.setPageNumber(orderPage.getNumber());
         response.setPageSize(orderPage.getSize());
         response.setTotalPages(orderPage.getTotalPages());
@@ -685,7 +748,25 @@ public class OrderService {
         return response;
     }
 
+    /**
+     * Helper method to get image urls of every order item in one bulk step
+     */
+    private Map<String, String> getItemImageUrls(List<Order> orders) {
+        return productImageService.getImageUrls(
+                orders.stream()
+                        .flatMap(o -> o.getItems().stream())
+                        .map(OrderItem::getProductImageKeySnapshot)
+                        .toList());
+    }
+
     private OrderResponse mapToOrderResponse(Order order) {
+        return mapToOrderResponse(order, getItemImageUrls(List.of(order)));
+    }
+
+    /**
+     * imageUrls: image key snapshot -> url (from getItemImageUrls)
+     */
+    private OrderResponse mapToOrderResponse(Order order, Map<String, String> imageUrls) {
 
         List<OrderResponse.OrderItemResponse> itemResponses = new ArrayList<>();
         for (OrderItem item : order.getItems()) {
@@ -694,7 +775,7 @@ public class OrderService {
             String imageUrl = null;
             String imageKey = item.getProductImageKeySnapshot();
             if (imageKey != null) {
-                imageUrl = productImageService.getImageUrl(imageKey);
+                imageUrl = imageUrls.get(imageKey);
             }
 
             // Build ItemResponse
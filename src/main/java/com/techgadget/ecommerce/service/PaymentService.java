@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -38,6 +39,9 @@ public class PaymentService {
         log.debug("Processing pay order - User: {}, Order: {}",
                 userId, orderId);
 
+        // Wait for concurrent cancellation / expiry of this order
+        orderRepository.lockById(orderId);
+
         Order order = orderRepository.findUserOrderById(orderId, userId)
                 .orElseThrow(() -> {
                     log.warn("Order not found with id = {} and user id = {}", orderId, userId);
@@ -64,6 +68,12 @@ public class PaymentService {
 
     private OrderResponse mapToOrderResponse(Order order) {
 
+        // Get image urls of every item in one bulk step
+        Map<String, String> imageUrls = productImageService.getImageUrls(
+                order.getItems().stream()
+                        .map(OrderItem::getProductImageKeySnapshot)
+                        .toList());
+
         // Build list of OrderItemResponse
         List<OrderResponse.OrderItemResponse> itemResList = new ArrayList<>();
         for (OrderItem item : order.getItems()) {
@@ -72,7 +82,7 @@ public class PaymentService {
             String imageUrl = null;
             String imageKey = item.getProductImageKeySnapshot();
             if (imageKey != null) {
-                imageUrl = productImageService.getImageUrl(imageKey);
+                imageUrl = imageUrls.get(imageKey);
             }
 
             itemResList.add(new OrderResponse.OrderItemResponse(
@@ -0,0 +1,275 @@
+package com.techgadget.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techgadget.ecommerce.dto.response.product.ProductDetailResponse;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for product detail response
+ * -
+ * L1: local Caffeine cache (bounded, W-TinyLFU eviction, short TTL)
+ * L2: Redis (shared by every node)
+ * -
+ * Invalidation deletes both tiers and is broadcast over Redis pub/sub,
+ * so every node drops its local copy too.
+ * -
+ * Version key per product (product-detail:version:{id}), bumped by every invalidation:
+ * a load is written to Redis only if the version it read before loading is unchanged,
+ * so a load racing a change never re-caches the old state.
+ * -
+ * Cached image URLs are presigned, so both TTLs must stay
+ * below minio.presign.refresh-margin (remaining validity of a reused URL).
+ */
+@Service
+@Slf4j
+public class ProductDetailCacheService implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "product-detail:invalidate";
+    private static final String KEY_PREFIX = "product-detail:";
+    private static final String VERSION_KEY_PREFIX = "product-detail:version:";
+    private static final String NO_VERSION = "0";
+
+    /**
+     * KEYS: detail key, version key
+     * ARGV: version read before loading, JSON, TTL millis
+     * -
+     * Write only if no invalidation happened since the version was read
+     */
+    private static final RedisScript<Long> WRITE_IF_UNCHANGED_SCRIPT = RedisScript.of("""
+        if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+            return 0
+        end
+        redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+        return 1
+        """, Long.class);
+
+    /**
+     * KEYS: (detail key, version key) of each product
+     * ARGV: version TTL millis
+     * -
+     * Delete detail & bump version (kept as long as a cached detail could live)
+     */
+    private static final RedisScript<Long> EVICT_SCRIPT = RedisScript.of("""
+        for i = 1, #KEYS, 2 do
+            redis.call('DEL', KEYS[i])
+            redis.call('INCR', KEYS[i + 1])
+            redis.call('PEXPIRE', KEYS[i + 1], ARGV[1])
+        end
+        return 1
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+    private final Cache<Long, ProductDetailResponse> localCache;
+
+    public ProductDetailCacheService(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            @Value("${app.cache.product-detail.local-max-size:10000}") long localMaxSize,
+            @Value("${app.cache.product-detail.local-ttl:60s}") Duration localTtl,
+            @Value("${app.cache.product-detail.redis-ttl:10m}") Duration redisTtl
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+
+        // Listen to invalidations from every node (including this one)
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Get product detail from L1 -> L2 -> loader (DB)
+     * -
+     * Concurrent misses of the same product on this node
+     * share a single load. Exceptions of loader are rethrown as is.
+     * -
+     * Product changed while loading (version bumped): returned,
+     * but kept in neither tier.
+     */
+    public ProductDetailResponse get(Long productId, Supplier<ProductDetailResponse> loader) {
+
+        boolean[] changed = new boolean[1];
+
+        ProductDetailResponse response = localCache.get(productId, id -> {
+
+            ProductDetailResponse cached = readFromRedis(id);
+            if (cached != null) {
+                log.debug("Product detail cache hit (Redis) - Product: {}", id);
+                return cached;
+            }
+
+            log.debug("Product detail cache miss - Product: {}", id);
+
+            // Read before loading: a change committed after this bumps it
+            String version = readVersion(id);
+
+            ProductDetailResponse loaded = loader.get();
+            if (version != null && !writeToRedis(id, version, loaded)) {
+                log.debug("Product detail changed while loading, not cached - Product: {}", id);
+                changed[0] = true;
+            }
+            return loaded;
+        });
+
+        if (changed[0]) {
+            localCache.invalidate(productId);
+        }
+
+        return response;
+    }
+
+    public void evict(Long productId) {
+        evict(List.of(productId));
+    }
+
+    /**
+     * Evict products from both tiers on every node
+     * -
+     * Inside a transaction, eviction runs after commit (change visible to new loads).
+     * Loads started before it are not cached: the version they read is bumped.
+     */
+    public void evict(Collection<Long> productIds) {
+
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = List.copyOf(productIds);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(ids);
+                }
+            });
+        } else {
+            doEvict(ids);
+        }
+    }
+
+    /**
+     * Invalidation message: comma separated product IDs
+     */
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            List<Long> ids = Arrays.stream(body.split(","))
+                    .map(Long::valueOf)
+                    .toList();
+            localCache.invalidateAll(ids);
+
+            log.debug("Product detail local cache invalidated - Products: {}", ids);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed product detail invalidation: {}", body);
+        }
+    }
+
+    private void doEvict(List<Long> ids) {
+
+        // Local first, even if Redis is down
+        localCache.invalidateAll(ids);
+
+        try {
+            List<String> keys = new ArrayList<>(ids.size() * 2);
+            for (Long id : ids) {
+                keys.add(key(id));
+                keys.add(versionKey(id));
+            }
+            stringRedisTemplate.execute(EVICT_SCRIPT, keys, String.valueOf(redisTtl.toMillis()));
+
+            String body = String.join(",", ids.stream().map(String::valueOf).toList());
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, body);
+        } catch (RuntimeException e) {
+            // Other nodes catch up with local TTL
+            log.warn("Failed to broadcast product detail invalidation - Products: {}", ids, e);
+        }
+    }
+
+    /**
+     * Redis errors are treated as a miss, cache must never break reads
+     */
+    @Nullable
+    private ProductDetailResponse readFromRedis(Long productId) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key(productId));
+            return json != null
+                    ? objectMapper.readValue(json, ProductDetailResponse.class)
+                    : null;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to read product detail from Redis - Product: {}", productId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Current version of the product, null if Redis is unavailable (nothing written then)
+     */
+    @Nullable
+    private String readVersion(Long productId) {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(versionKey(productId));
+            return version != null ? version : NO_VERSION;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read product detail version from Redis - Product: {}", productId, e);
+            return null;
+        }
+    }
+
+    /**
+     * False only if the version changed since it was read (response is stale),
+     * a failed write keeps the response in the local cache
+     */
+    private boolean writeToRedis(Long productId, String version, ProductDetailResponse response) {
+        try {
+            Long written = stringRedisTemplate.execute(
+                    WRITE_IF_UNCHANGED_SCRIPT,
+                    List.of(key(productId), versionKey(productId)),
+                    version,
+                    objectMapper.writeValueAsString(response),
+                    String.valueOf(redisTtl.toMillis())
+            );
+            return !Long.valueOf(0).equals(written);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to write product detail to Redis - Product: {}", productId, e);
+            return true;
+        }
+    }
+
+    private String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+
+    private String versionKey(Long productId) {
+        return VERSION_KEY_PREFIX + productId;
+    }
+}
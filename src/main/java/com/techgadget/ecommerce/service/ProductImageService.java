@@ -14,7 +14,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,6 +29,7 @@ public class ProductImageService {
     private final ProductRepository productRepository;
 
     private final MinioStorageService minioStorageService;
+    private final ProductDetailCacheService productDetailCacheService;
 
     /**
      * Upload product image
@@ -79,6 +82,8 @@ public class ProductImageService {
 
         productRepository.save(product);
 
+        productDetailCacheService.evict(productId);
+
         // If thumbnail exists, use thumbnail key to get Url
         String imageUrl;
 
@@ -143,6 +148,8 @@ public class ProductImageService {
         productImageRepository.delete(image);
 
         productRepository.save(product);
+
+        productDetailCacheService.evict(productId);
     }
 
     /**
@@ -153,6 +160,16 @@ public class ProductImageService {
         return minioStorageService.generateViewUrl(objectKey);
     }
 
+    /**
+     * Return url of each image key in one bulk step
+     * -
+     * Duplicate & null keys are ignored,
+     * keys without url (signing failed) are absent from the map.
+     */
+    public Map<String, String> getImageUrls(Collection<String> objectKeys) {
+        return minioStorageService.generateViewUrls(objectKeys);
+    }
+
     /**
      * Generate custom original key
      */
@@ -6,22 +6,28 @@ import com.techgadget.ecommerce.dto.response.PaginatedResponse;
 import com.techgadget.ecommerce.dto.response.product.ProductReviewResponse;
 import com.techgadget.ecommerce.dto.response.user.UserResponse;
 import com.techgadget.ecommerce.entity.*;
+import com.techgadget.ecommerce.exception.BadRequestException;
 import com.techgadget.ecommerce.exception.ConflictException;
 import com.techgadget.ecommerce.exception.NotFoundException;
+import com.techgadget.ecommerce.repository.KeysetCursor;
 import com.techgadget.ecommerce.repository.OrderRepository;
 import com.techgadget.ecommerce.repository.ProductRepository;
 import com.techgadget.ecommerce.repository.ProductReviewRepository;
 import com.techgadget.ecommerce.repository.UserRepository;
+import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -33,6 +39,11 @@ public class ProductReviewService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
 
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of(
+            "createdAt",
+            "rating"
+    );
+
     // TODO: create user order validation before create review
     @Transactional
     public ProductReviewResponse createReview(
@@ -104,13 +115,19 @@ public class ProductReviewService {
             int page,
             int size,
             String sortBy,
-            String sortDir
+            String sortDir,
+            @Nullable String cursor
     ) {
 
         log.debug("Processing get single product reviews - Product: {}", productId);
 
         Sort.Direction direction = getDirection(sortDir);
 
+        // Keyset pagination (opt-in)
+        if (cursor != null) {
+            return scrollProductReviews(productId, size, sortBy, direction, cursor);
+        }
+
         Pageable pageable = PageRequest.of(
                 page,
                 size,
@@ -126,6 +143,65 @@ public class ProductReviewService {
         return mapPageToResponse(productReviewPage);
     }
 
+    /**
+     * Helper method for cursor mode of getSingleProductReviews
+     * -
+     * Seek on (sortBy, id) after the cursor, no count query.
+     */
+    private PaginatedResponse<ProductReviewResponse> scrollProductReviews(
+            Long productId,
+            int size,
+            String sortBy,
+            Sort.Direction direction,
+            String cursor
+    ) {
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new BadRequestException("Cursor pagination only supports sort by createdAt or rating.");
+        }
+
+        KeysetCursor after = KeysetCursors.decode(
+                cursor, sortBy, direction, sortBy.equals("rating") ? Integer.class : LocalDateTime.class);
+
+        Specification<ProductReview> spec = (root, query, cb) ->
+                cb.equal(root.get("product").get("id"), productId);
+        if (after != null) {
+            spec = spec.and((root, query, cb) -> after.seekPredicate(root, cb));
+        }
+
+        // Fetch 1 extra row to know if there is a next slice (no count query)
+        List<ProductReview> reviews = productReviewRepository.findBy(spec, q -> q
+                .project("user", "product")
+                .sortBy(Sort.by(direction, sortBy, "id"))
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = reviews.size() > size;
+        if (hasNext) {
+            reviews = reviews.subList(0, size);
+        }
+
+        // Next cursor = position of the last row of this slice
+        String nextCursor = null;
+        if (hasNext) {
+            ProductReview last = reviews.getLast();
+            Object lastValue = sortBy.equals("rating") ? last.getRating() : last.getCreatedAt();
+            nextCursor = KeysetCursor.of(sortBy, direction, lastValue, last.getId()).encode();
+        }
+
+        PaginatedResponse<ProductReviewResponse> response = new PaginatedResponse<>();
+        response.setContent(reviews.stream().map(this::mapProductReviewToResponse).toList());
+        response.setPageNumber(0);
+        response.setPageSize(size);
+        response.setHasNextPage(hasNext);
+        response.setHasPreviousPage(after != null);
+        response.setNextCursor(nextCursor);
+
+        log.info("Successfully fetched {} product reviews using cursor for product {}",
+                reviews.size(), productId);
+
+        return response;
+    }
+
     /**
      * Helper method for validate & get sort direction
      */
@@ -9,20 +9,32 @@ import com.techgadget.ecommerce.dto.response.product.ProductDetailResponse;
 import com.techgadget.ecommerce.dto.response.product.ProductListResponse;
 import com.techgadget.ecommerce.entity.Category;
 import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.entity.ProductImage;
+import com.techgadget.ecommerce.exception.BadRequestException;
+import com.techgadget.ecommerce.exception.ConflictException;
 import com.techgadget.ecommerce.exception.NotFoundException;
 import com.techgadget.ecommerce.repository.CategoryRepository;
+import com.techgadget.ecommerce.repository.KeysetCursor;
+import com.techgadget.ecommerce.repository.ProductListRow;
 import com.techgadget.ecommerce.repository.ProductRepository;
+import com.techgadget.ecommerce.repository.ProductSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -33,6 +45,8 @@ public class ProductService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final ProductImageService productImageService;
+    private final ProductDetailCacheService productDetailCacheService;
+    private final HotInventoryService hotInventoryService;
 
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of(
             "name",
@@ -40,25 +54,35 @@ public class ProductService {
             "createdAt"
     );
 
+    /**
+     * Sort by pg_trgm similarity of name to keyword (needs keyword)
+     */
+    private static final String RELEVANCE_SORT = "relevance";
+
     /**
      * Get product by ID
+     * -
+     * Served from product detail cache (local -> Redis -> DB).
+     * No transaction here, so a cache hit never borrows a DB connection.
      */
-    @Transactional(readOnly = true)
     public ProductDetailResponse getProductById(Long productId) {
 
         log.debug("Processing get product by id - Product: {}", productId);
 
-        Product product = productRepository
-                .findProductDetailById(productId) // Get single detail product
-                .orElseThrow(() -> {
-                    log.warn("Product not found with id {}", productId);
-                    return new NotFoundException("Product not found.");
-                });
+        ProductDetailResponse response = productDetailCacheService.get(productId, () -> {
+            Product product = productRepository
+                    .findProductDetailById(productId) // Get single detail product (images + category)
+                    .orElseThrow(() -> {
+                        log.warn("Product not found with id {}", productId);
+                        return new NotFoundException("Product not found.");
+                    });
 
+            return mapToProductDetailResponse(product);
+        });
 
-        log.info("Successfully fetched product {}", product.getId());
+        log.info("Successfully fetched product {}", response.getId());
 
-        return mapToProductDetailResponse(product);
+        return response;
     }
 
     /**
@@ -89,57 +113,52 @@ public class ProductService {
                 sortBy,
                 sortDir);
 
-        Sort.Direction direction = resolveDirection(sortDir);
-        String sortField = resolveSortField(sortDir);
-
-        Pageable pageable = PageRequest.of(
-                page,
-                size,
-                Sort.by(direction, sortField)
-        );
-
-        Page<Product> productPage;
-
         if (categoryId != null) {
             // make sure category exists
             if (!productRepository.existsByCategory_Id(categoryId)) {
                 throw new NotFoundException("Category not found.");
             }
+        }
 
-            if (minPrice == null && maxPrice == null) {
-                productPage = productRepository.findProductListByNameAndCategory_Id(
-                        name, categoryId, pageable);
-            } else if (minPrice != null && maxPrice == null) {
-                productPage = productRepository.findProductListByNameAndCategory_IdAndPriceGreaterThanEqual(
-                        name, categoryId, minPrice, pageable);
-            } else if (minPrice == null) {
-                productPage = productRepository.findProductListByNameAndCategory_IdAndPriceLessThanEqual(
-                        name, categoryId, maxPrice, pageable);
-            } else {
-                productPage = productRepository.findProductListByNameAndCategory_IdAndPriceBetween(
-                        name, categoryId, minPrice, maxPrice, pageable);
-            }
+        // Compose only the filters that are present
+        Specification<Product> spec = ProductSpecification.search(
+                name, categoryId, minPrice, maxPrice);
+
+        // Keyset pagination (opt-in)
+        if (request.getCursor() != null) {
+            return scrollProducts(spec, request);
+        }
+
+        /*
+            1) Page product IDs in SQL (no fetch join)
+            2) Load list rows (category + primary image) for this page's IDs only
+         */
+        Page<Long> idPage;
+        boolean hasKeyword = name != null && !name.isBlank();
 
-            log.debug("Running query -> productRepository.searchByNameAndCategory_IdAndPrice");
+        if (RELEVANCE_SORT.equals(sortBy) && hasKeyword) {
+            // Best match first, sortDir is ignored
+            idPage = productRepository.searchProductIdsByRelevance(
+                    spec, name, PageRequest.of(page, size));
 
+            log.debug("Running query -> productRepository.searchProductIdsByRelevance");
         } else {
-            if (minPrice == null && maxPrice == null) {
-                productPage = productRepository.findProductListByName(
-                        name, pageable);
-            } else if (minPrice != null && maxPrice == null) {
-                productPage = productRepository.findProductListByNameAndPriceGreaterThanEqual(
-                        name, minPrice, pageable);
-            } else if (minPrice == null) {
-                productPage = productRepository.findProductListByNameAndPriceLessThanEqual(
-                        name, maxPrice, pageable);
-            } else {
-                productPage = productRepository.findProductListByNameAndPriceBetween(
-                        name, minPrice, maxPrice, pageable);
-            }
+            Sort.Direction direction = resolveDirection(sortDir);
+            String sortField = resolveSortField(sortBy);
+
+            Pageable pageable = PageRequest.of(
+                    page,
+                    size,
+                    Sort.by(direction, sortField)
+            );
 
-            log.debug("Running query -> productRepository.searchByNameAndPrice");
+            idPage = productRepository.searchProductIds(spec, pageable);
+
+            log.debug("Running query -> productRepository.searchProductIds");
         }
 
+        Page<ProductListRow> productPage = loadProductPage(idPage);
+
         log.info("Successfully fetched {} products using advanced search - Page: {}/{}",
                 productPage.getNumberOfElements(), page, productPage.getTotalPages());
 
@@ -147,6 +166,56 @@ public class ProductService {
     }
 
 
+    /**
+     * Helper method for cursor mode of searchProducts
+     * -
+     * Seek on (sortBy, id) after the cursor, no count query.
+     */
+    private PaginatedResponse<ProductListResponse> scrollProducts(
+            Specification<Product> spec,
+            SearchProductRequest request
+    ) {
+        if (RELEVANCE_SORT.equals(request.getSortBy())) {
+            throw new BadRequestException("Cursor pagination does not support relevance sort.");
+        }
+
+        Sort.Direction direction = resolveDirection(request.getSortDir());
+        String sortField = resolveSortField(request.getSortBy());
+
+        KeysetCursor after = KeysetCursors.decode(
+                request.getCursor(), sortField, direction, sortValueType(sortField));
+
+        Slice<Long> idSlice = productRepository.scrollProductIds(
+                spec, sortField, direction, after, request.getSize());
+
+        log.debug("Running query -> productRepository.scrollProductIds");
+
+        List<ProductListRow> products = loadProducts(idSlice.getContent());
+
+        // Next cursor = position of the last row of this slice
+        String nextCursor = null;
+        if (idSlice.hasNext() && !products.isEmpty()) {
+            ProductListRow last = products.getLast();
+            nextCursor = KeysetCursor.of(
+                    sortField, direction, sortValueOf(last, sortField), last.id()
+            ).encode();
+        }
+
+        PaginatedResponse<ProductListResponse> response = new PaginatedResponse<>();
+        Map<String, String> imageUrls = getPrimaryImageUrls(products);
+        response.setContent(products.stream().map(p -> mapToProductListResponse(p, imageUrls)).toList());
+        response.setPageNumber(0);
+        response.setPageSize(request.getSize());
+        response.setHasNextPage(nextCursor != null);
+        response.setHasPreviousPage(after != null);
+        response.setNextCursor(nextCursor);
+
+        log.info("Successfully fetched {} products using cursor search - HasNext: {}",
+                products.size(), nextCursor != null);
+
+        return response;
+    }
+
     /**
      * Create product (admin)
      */
@@ -172,6 +241,11 @@ public class ProductService {
 
         productRepository.save(product);
 
+        productDetailCacheService.evict(product.getId());
+
+        // ID may be flagged hot before the product exists (stock key seeded as 0)
+        hotInventoryService.resync(product.getId());
+
         log.info("Successfully created product {} - Price: {}, Stock: {}",
                 product.getId(),
                 product.getPrice(),
@@ -182,6 +256,8 @@ public class ProductService {
 
     /**
      * Deduct stock (called during checkout)
+     * -
+     * Hot product: reserved in Redis (its stock key is authoritative), flushed to DB later.
      */
     @Transactional
     public void deductStock(Long productId, int quantity) {
@@ -189,6 +265,19 @@ public class ProductService {
         log.debug("Processing deduct stock by {} quantity - Product: {}",
                 productId, quantity);
 
+        if (hotInventoryService.isHot(productId)) {
+            if (!productRepository.existsById(productId)) {
+                throw new NotFoundException("Product not found.");
+            }
+            if (!hotInventoryService.reserve(Map.of(productId, quantity))) {
+                throw new ConflictException("Stock quantity not sufficient.");
+            }
+
+            log.info("Successfully reserved hot stock by {} quantity for product {}",
+                    quantity, productId);
+            return;
+        }
+
         // Find product without any relation
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found."));
@@ -199,10 +288,72 @@ public class ProductService {
         // Saved
         productRepository.save(product);
 
+        productDetailCacheService.evict(productId);
+
         log.info("Successfully deducted stock by {} quantity for product {} - ",
                 productId, quantity);
     }
 
+    /**
+     * Helper method to load list rows of an ID page
+     * -
+     * Keeps the order of the ID page
+     */
+    private Page<ProductListRow> loadProductPage(Page<Long> idPage) {
+
+        List<ProductListRow> products = loadProducts(idPage.getContent());
+
+        return new PageImpl<>(products, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Helper method to load list rows by IDs, in the same order
+     * -
+     * Projection only, read-only list never hydrates Product entities
+     * (no images collection, no JSONB snapshot for dirty checking).
+     */
+    private List<ProductListRow> loadProducts(List<Long> ids) {
+
+        List<ProductListRow> products = new ArrayList<>();
+
+        if (!ids.isEmpty()) {
+            Map<Long, ProductListRow> productById = new HashMap<>();
+            for (ProductListRow row : productRepository.findProductListRowsByIdIn(ids)) {
+                // Several primary images -> keep the first row
+                productById.putIfAbsent(row.id(), row);
+            }
+
+            for (Long id : ids) {
+                ProductListRow product = productById.get(id);
+                // Skip product deleted between both queries
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+        }
+
+        return products;
+    }
+
+    /**
+     * Helper method to read the keyset sort value of a product row
+     */
+    private Class<?> sortValueType(String sortField) {
+        return switch (sortField) {
+            case "name" -> String.class;
+            case "price" -> Long.class;
+            default -> LocalDateTime.class;
+        };
+    }
+
+    private Object sortValueOf(ProductListRow product, String sortField) {
+        return switch (sortField) {
+            case "name" -> product.name();
+            case "price" -> product.price();
+            default -> product.createdAt();
+        };
+    }
+
     /**
      * Helper method to validate & get sort direction
      * -
@@ -221,6 +372,8 @@ public class ProductService {
 
     /**
      * helper method to validate sortBy
+     * -
+     * "relevance" without keyword falls back to "createdAt"
      */
     private String resolveSortField(String sortBy) {
 
@@ -235,10 +388,11 @@ public class ProductService {
      * Helper method for build paginated response
      */
     private PaginatedResponse<ProductListResponse> mapToPaginatedProductListResponse(
-            Page<Product> productPage) {
+            Page<ProductListRow> productPage) {
         PaginatedResponse<ProductListResponse> response = new PaginatedResponse<>();
-        // Map Page<Product> into List<ProductListResponse>
-        response.setContent(productPage.map(this::mapToProductListResponse).toList());
+        // Map Page<ProductListRow> into List<ProductListResponse>
+        Map<String, String> imageUrls = getPrimaryImageUrls(productPage.getContent());
+        response.setContent(productPage.map(p -> mapToProductListResponse(p, imageUrls)).toList());
         response.setPageNumber(productPage.getNumber());
         response.setPageSize(productPage.getSize());
         response.setTotalPages(productPage.getTotalPages());
@@ -249,37 +403,46 @@ public class ProductService {
         return response;
     }
 
+    /**
+     * Helper method to get primary image urls of products in one bulk step
+     */
+    private Map<String, String> getPrimaryImageUrls(List<ProductListRow> products) {
+        return productImageService.getImageUrls(
+                products.stream().map(ProductListRow::primaryImageKey).toList());
+    }
+
     /**
      * Helper method for build ProductList response
+     * -
+     * imageUrls: primary image key -> url (from getPrimaryImageUrls)
      */
-    private ProductListResponse mapToProductListResponse(Product product) {
+    private ProductListResponse mapToProductListResponse(ProductListRow product, Map<String, String> imageUrls) {
 
         /*
             - Get primary image key
             - Find the image url
          */
         String imageUrl = null;
-        String imageKey = product.getPrimaryImageKey();
+        String imageKey = product.primaryImageKey();
 
         if (imageKey != null) {
-            imageUrl = productImageService.getImageUrl(
-                    product.getPrimaryImageKey());
+            imageUrl = imageUrls.get(imageKey);
         }
 
         // Build category response
         CategoryResponse categoryRes = new CategoryResponse(
-                product.getCategory().getId(),
-                product.getCategory().getName()
+                product.categoryId(),
+                product.categoryName()
         );
 
         return new ProductListResponse(
-                product.getId(),
-                product.getName(),
-                product.getDescription(),
-                product.getPrice(),
-                product.getStock(),
+                product.id(),
+                product.name(),
+                product.description(),
+                product.price(),
+                product.stock(),
                 imageUrl,
-                product.getSpecs(),
+                product.specs(),
                 categoryRes
         );
     }
@@ -290,16 +453,18 @@ public class ProductService {
     private ProductDetailResponse mapToProductDetailResponse(Product product) {
 
 
-        // Get all image urls for product detail
+        // Get all image urls for product detail (one bulk step)
+        Map<String, String> imageUrls = productImageService.getImageUrls(
+                product.getImages()
+                        .stream()
+                        .map(this::getDisplayKey)
+                        .toList());
+
         List<ImageResponse> imageResponses = product.getImages()
                 .stream()
                 .map(i -> {
 
-                    String imageKey = i.getThumbnailKey() != null
-                            ? i.getThumbnailKey()
-                            : i.getOriginalKey();
-
-                    String url = productImageService.getImageUrl(imageKey);
+                    String url = imageUrls.get(getDisplayKey(i));
                     if (url == null) return null;
 
                     return new ImageResponse(url, i.isPrimary());
@@ -322,4 +487,13 @@ public class ProductService {
                 categoryRes
         );
     }
+
+    /**
+     * Helper method to get image key to display (thumbnail if exists)
+     */
+    private String getDisplayKey(ProductImage image) {
+        return image.getThumbnailKey() != null
+                ? image.getThumbnailKey()
+                : image.getOriginalKey();
+    }
 }
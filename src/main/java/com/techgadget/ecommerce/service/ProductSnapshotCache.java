@@ -0,0 +1,136 @@
+package com.techgadget.ecommerce.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techgadget.ecommerce.repository.ProductRepository;
+import com.techgadget.ecommerce.repository.ProductSnapshot;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local cache of product snapshots for cart rendering (price, stock, primary image)
+ * -
+ * Display only: stock checks of cart writes read the DB.
+ * Hits need no query, misses of one call are loaded together (one batched query).
+ * -
+ * Invalidated by the product invalidation channel (ProductDetailCacheService),
+ * broadcast after commit of every product, stock or image change.
+ * -
+ * Version stamps: every invalidation bumps the version of the product's stripe.
+ * A snapshot loaded while its stripe was bumped may be older than the change,
+ * it is returned to the caller but not kept.
+ */
+@Service
+@Slf4j
+public class ProductSnapshotCache implements MessageListener {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, ProductSnapshot> cache;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ProductSnapshotCache(
+            ProductRepository productRepository,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            @Value("${app.cache.product-snapshot.max-size:50000}") long maxSize,
+            @Value("${app.cache.product-snapshot.ttl:60s}") Duration ttl
+    ) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        // Listen to product invalidations from every node (including this one)
+        redisMessageListenerContainer.addMessageListener(
+                this, new ChannelTopic(ProductDetailCacheService.INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Snapshots of products by ID (deleted products left out)
+     */
+    public Map<Long, ProductSnapshot> getAll(Collection<Long> productIds) {
+
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, ProductSnapshot> snapshots = new HashMap<>(cache.getAllPresent(productIds));
+
+        List<Long> missing = new LinkedHashSet<>(productIds).stream()
+                .filter(id -> !snapshots.containsKey(id))
+                .toList();
+        if (missing.isEmpty()) {
+            return snapshots;
+        }
+
+        long[] stamps = new long[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            stamps[i] = versions.get(stripe(missing.get(i)));
+        }
+
+        Map<Long, ProductSnapshot> loaded = new HashMap<>();
+        for (ProductSnapshot snapshot : productRepository.findSnapshotsByIdIn(missing)) {
+            loaded.putIfAbsent(snapshot.id(), snapshot);
+        }
+        cache.putAll(loaded);
+
+        // Checked after put: an invalidation in between either sees the entry or bumped the version
+        for (int i = 0; i < missing.size(); i++) {
+            if (versions.get(stripe(missing.get(i))) != stamps[i]) {
+                cache.invalidate(missing.get(i));
+            }
+        }
+
+        log.debug("Product snapshot cache - Hits: {}, Loaded: {}", snapshots.size(), loaded.size());
+
+        snapshots.putAll(loaded);
+        return snapshots;
+    }
+
+    public void invalidate(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            versions.incrementAndGet(stripe(productId));
+        }
+        cache.invalidateAll(productIds);
+    }
+
+    /**
+     * Invalidation message: comma separated product IDs
+     */
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            List<Long> ids = Arrays.stream(body.split(","))
+                    .map(Long::valueOf)
+                    .toList();
+            invalidate(ids);
+
+            log.debug("Product snapshot cache invalidated - Products: {}", ids);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed product snapshot invalidation: {}", body);
+        }
+    }
+
+    private int stripe(Long productId) {
+        return Math.floorMod(productId, VERSION_STRIPES);
+    }
+}
@@ -0,0 +1,427 @@
+package com.techgadget.ecommerce.service;
+
+import com.techgadget.ecommerce.repository.CartLine;
+import com.techgadget.ecommerce.repository.CartRepository;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis cart store (optional, app.cart.store=redis)
+ * -
+ * Carts are read & changed in Redis, never through carts / cart_items:
+ * > cart:{userId}:items   hash productId -> quantity
+ * > cart:{userId}:ids     hash productId -> cart item ID (+ "loaded" marker)
+ * > cart:{userId}:count   total quantity, kept in step by every script (O(1) count)
+ * > cart:dirty            user IDs changed since the last write to DB
+ * -
+ * Loaded from DB on first access (Lua script, a loaded cart is never overwritten).
+ * Add increments the line in Redis (HINCRBY), update sets it: concurrent adds never overwrite each other.
+ * Dirty carts are written behind every app.cart.redis.flush-interval:
+ * many changes of one cart coalesce into one write of its current lines.
+ * Checkout writes the cart of the user synchronously first (flushCart).
+ * -
+ * Changes not written yet are lost if Redis loses its data.
+ */
+@Service
+@Slf4j
+public class RedisCartStore {
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String DIRTY_KEY = "cart:dirty";
+    private static final String LOADED_FIELD = "loaded";
+
+    /**
+     * Lua: count key (KEYS[3]) recalculated from the items hash if missing
+     * (cart loaded before the counter existed)
+     */
+    private static final String ENSURE_COUNT = """
+        if redis.call('EXISTS', KEYS[3]) == 0 then
+            local total = 0
+            for _, quantity in ipairs(redis.call('HVALS', KEYS[1])) do
+                total = total + tonumber(quantity)
+            end
+            redis.call('SET', KEYS[3], total)
+        end
+        """;
+
+    /**
+     * KEYS: items hash, ids hash, count
+     * ARGV: TTL seconds, then (productId, cartItemId, quantity) of each line
+     * -
+     * Only if the cart is not loaded yet
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = RedisScript.of("""
+        if redis.call('EXISTS', KEYS[2]) == 1 then
+            return 0
+        end
+
+        local total = 0
+        redis.call('HSET', KEYS[2], 'loaded', '1')
+        for i = 2, #ARGV, 3 do
+            redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+            redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 2])
+            total = total + tonumber(ARGV[i + 2])
+        end
+        redis.call('SET', KEYS[3], total)
+
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+        redis.call('EXPIRE', KEYS[2], ARGV[1])
+        redis.call('EXPIRE', KEYS[3], ARGV[1])
+        return 1
+        """, Long.class);
+
+    /**
+     * KEYS: items hash, ids hash, count, dirty set
+     * ARGV: TTL seconds, userId, productId, cartItemId (used if new), quantity to add, max quantity
+     * -
+     * Increase quantity of one line (created if new) unless it exceeds max quantity,
+     * count += added & mark cart dirty.
+     * Return [cartItemId, new quantity], empty if over max quantity (nothing changed)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD_SCRIPT = RedisScript.of(ENSURE_COUNT + """
+        local quantity = tonumber(redis.call('HGET', KEYS[1], ARGV[3]) or '0') + tonumber(ARGV[5])
+        if quantity > tonumber(ARGV[6]) then
+            return {}
+        end
+
+        redis.call('HSETNX', KEYS[2], ARGV[3], ARGV[4])
+        redis.call('HINCRBY', KEYS[1], ARGV[3], ARGV[5])
+        redis.call('INCRBY', KEYS[3], ARGV[5])
+
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+        redis.call('EXPIRE', KEYS[2], ARGV[1])
+        redis.call('EXPIRE', KEYS[3], ARGV[1])
+        redis.call('SADD', KEYS[4], ARGV[2])
+        return {tonumber(redis.call('HGET', KEYS[2], ARGV[3])), quantity}
+        """, List.class);
+
+    /**
+     * KEYS: items hash, ids hash, count, dirty set
+     * ARGV: TTL seconds, userId, number of removed products, removed product IDs,
+     *       then (productId, cartItemId, quantity) of each changed line
+     * -
+     * All or nothing (one script): remove lines, set quantity of changed lines (created if new),
+     * count += difference & mark cart dirty (loaded marker kept)
+     */
+    private static final RedisScript<Long> APPLY_SCRIPT = RedisScript.of(ENSURE_COUNT + """
+        local removed = tonumber(ARGV[3])
+        for i = 4, 3 + removed do
+            local quantity = redis.call('HGET', KEYS[1], ARGV[i])
+            if quantity then
+                redis.call('DECRBY', KEYS[3], tonumber(quantity))
+            end
+            redis.call('HDEL', KEYS[1], ARGV[i])
+            redis.call('HDEL', KEYS[2], ARGV[i])
+        end
+
+        for i = 4 + removed, #ARGV, 3 do
+            local old = tonumber(redis.call('HGET', KEYS[1], ARGV[i]) or '0')
+            redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+            redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 2])
+            redis.call('INCRBY', KEYS[3], tonumber(ARGV[i + 2]) - old)
+        end
+
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+        redis.call('EXPIRE', KEYS[2], ARGV[1])
+        redis.call('EXPIRE', KEYS[3], ARGV[1])
+        redis.call('SADD', KEYS[4], ARGV[2])
+        return 1
+        """, Long.class);
+
+    /**
+     * KEYS: items hash, ids hash, count
+     * -
+     * Total quantity, -1 if the cart is not loaded
+     */
+    private static final RedisScript<Long> COUNT_SCRIPT = RedisScript.of("""
+        local count = redis.call('GET', KEYS[3])
+        if count then
+            return tonumber(count)
+        end
+        if redis.call('EXISTS', KEYS[2]) == 0 then
+            return -1
+        end
+        """ + ENSURE_COUNT + """
+        redis.call('EXPIRE', KEYS[3], ARGV[1])
+        return tonumber(redis.call('GET', KEYS[3]))
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int flushBatchSize;
+
+    public RedisCartStore(
+            StringRedisTemplate stringRedisTemplate,
+            CartRepository cartRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.cart.store:db}") String store,
+            @Value("${app.cart.redis.ttl:7d}") Duration ttl,
+            @Value("${app.cart.redis.flush-batch-size:500}") int flushBatchSize
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = "redis".equalsIgnoreCase(store);
+        this.ttl = ttl;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current lines of the user's cart, oldest item first
+     * -
+     * Loaded from DB on first access (no cart in DB = empty cart, nothing created).
+     */
+    public List<CartLine> lines(Long userId) {
+
+        HashOperations<String, String, String> hash = stringRedisTemplate.opsForHash();
+
+        Map<String, String> cartItemIds = hash.entries(idsKey(userId));
+        if (cartItemIds.isEmpty()) {
+            load(userId);
+            cartItemIds = hash.entries(idsKey(userId));
+        }
+
+        return toLines(cartItemIds, hash.entries(itemsKey(userId)));
+    }
+
+    /**
+     * Total quantity of the user's cart (one GET while the cart is loaded)
+     * -
+     * Loaded from DB on first access, like lines.
+     */
+    public int count(Long userId) {
+
+        String ttlSeconds = String.valueOf(ttl.toSeconds());
+
+        Long count = stringRedisTemplate.execute(COUNT_SCRIPT, cartKeys(userId), ttlSeconds);
+        if (count == null || count < 0) {
+            load(userId);
+            count = stringRedisTemplate.execute(COUNT_SCRIPT, cartKeys(userId), ttlSeconds);
+        }
+
+        return count != null ? Math.max(count.intValue(), 0) : 0;
+    }
+
+    /**
+     * Add quantity to the line of a product in one script (concurrent adds all count)
+     * -
+     * cartItemId: ID of the line if it does not exist yet (an existing line keeps its ID).
+     * Returns the line after the add, null if it would exceed maxQuantity (nothing changed).
+     */
+    @Nullable
+    public CartLine add(Long userId, Long productId, Long cartItemId, int quantity, int maxQuantity) {
+
+        List<?> result = stringRedisTemplate.execute(
+                ADD_SCRIPT,
+                List.of(itemsKey(userId), idsKey(userId), countKey(userId), DIRTY_KEY),
+                String.valueOf(ttl.toSeconds()),
+                String.valueOf(userId),
+                String.valueOf(productId),
+                String.valueOf(cartItemId),
+                String.valueOf(quantity),
+                String.valueOf(maxQuantity)
+        );
+
+        if (result == null || result.size() < 2) {
+            return null;
+        }
+
+        return new CartLine(
+                Long.valueOf(result.get(0).toString()),
+                productId,
+                Integer.valueOf(result.get(1).toString())
+        );
+    }
+
+    /**
+     * Set quantity of a line, created if new
+     */
+    public void put(Long userId, CartLine line) {
+        apply(userId, List.of(), List.of(line));
+    }
+
+    /**
+     * Remove lines of the products
+     */
+    public void remove(Long userId, Collection<Long> productIds) {
+        apply(userId, productIds, List.of());
+    }
+
+    /**
+     * Remove lines of removedProductIds & set changedLines in one script (one round trip),
+     * a failure leaves the cart untouched
+     */
+    public void apply(Long userId, Collection<Long> removedProductIds, Collection<CartLine> changedLines) {
+
+        List<String> args = new ArrayList<>(3 + removedProductIds.size() + changedLines.size() * 3);
+        args.add(String.valueOf(ttl.toSeconds()));
+        args.add(String.valueOf(userId));
+        args.add(String.valueOf(removedProductIds.size()));
+        removedProductIds.forEach(productId -> args.add(String.valueOf(productId)));
+        for (CartLine line : changedLines) {
+            args.add(String.valueOf(line.productId()));
+            args.add(String.valueOf(line.cartItemId()));
+            args.add(String.valueOf(line.quantity()));
+        }
+
+        stringRedisTemplate.execute(
+                APPLY_SCRIPT,
+                List.of(itemsKey(userId), idsKey(userId), countKey(userId), DIRTY_KEY),
+                args.toArray()
+        );
+    }
+
+    /**
+     * Write dirty carts to DB (one transaction per cart)
+     * -
+     * A cart failing to be written is marked dirty again for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.cart.redis.flush-interval:5s}")
+    public void flush() {
+
+        if (!enabled) {
+            return;
+        }
+
+        List<String> userIds;
+        try {
+            userIds = stringRedisTemplate.opsForSet().pop(DIRTY_KEY, flushBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("Failed to take dirty carts from Redis", e);
+            return;
+        }
+
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+
+        for (String userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(Long.valueOf(userId)));
+            } catch (RuntimeException e) {
+                log.error("Failed to write cart to DB, retrying next run - User: {}", userId, e);
+                markDirty(userId);
+            }
+        }
+
+        log.debug("Wrote {} carts to DB", userIds.size());
+    }
+
+    /**
+     * Write the user's cart to DB now, in the current transaction (e.g. checkout)
+     * -
+     * Cart stays dirty, the next flush writes the same lines again (harmless).
+     */
+    public void flushCart(Long userId) {
+        if (enabled) {
+            write(userId);
+        }
+    }
+
+    /**
+     * Last write on graceful shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Long userId) {
+
+        HashOperations<String, String, String> hash = stringRedisTemplate.opsForHash();
+
+        Map<String, String> cartItemIds = hash.entries(idsKey(userId));
+        if (cartItemIds.isEmpty()) {
+            // Never loaded (or expired): DB is up to date
+            return;
+        }
+
+        List<CartLine> lines = toLines(cartItemIds, hash.entries(itemsKey(userId)));
+        cartRepository.replaceCartLines(userId, lines);
+
+        log.debug("Wrote cart to DB - User: {}, Lines: {}", userId, lines.size());
+    }
+
+    private void load(Long userId) {
+
+        List<CartLine> rows = cartRepository.findLinesByUserId(userId);
+
+        List<String> args = new ArrayList<>(rows.size() * 3 + 1);
+        args.add(String.valueOf(ttl.toSeconds()));
+        for (CartLine row : rows) {
+            args.add(String.valueOf(row.productId()));
+            args.add(String.valueOf(row.cartItemId()));
+            args.add(String.valueOf(row.quantity()));
+        }
+
+        stringRedisTemplate.execute(LOAD_SCRIPT, cartKeys(userId), args.toArray());
+
+        log.debug("Loaded cart into Redis - User: {}, Lines: {}", userId, rows.size());
+    }
+
+    private void markDirty(String userId) {
+        try {
+            stringRedisTemplate.opsForSet().add(DIRTY_KEY, userId);
+        } catch (RuntimeException e) {
+            log.error("Failed to mark cart dirty again - User: {}", userId, e);
+        }
+    }
+
+    private List<CartLine> toLines(Map<String, String> cartItemIds, Map<String, String> quantities) {
+
+        List<CartLine> lines = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            String cartItemId = cartItemIds.get(productId);
+            if (cartItemId != null && !LOADED_FIELD.equals(productId)) {
+                lines.add(new CartLine(
+                        Long.valueOf(cartItemId), Long.valueOf(productId), Integer.valueOf(quantity)));
+            }
+        });
+
+        lines.sort(Comparator.comparing(CartLine::cartItemId));
+        return lines;
+    }
+
+    private String itemsKey(Long userId) {
+        return KEY_PREFIX + userId + ":items";
+    }
+
+    private String idsKey(Long userId) {
+        return KEY_PREFIX + userId + ":ids";
+    }
+
+    private String countKey(Long userId) {
+        return KEY_PREFIX + userId + ":count";
+    }
+
+    /**
+     * KEYS of LOAD_SCRIPT & COUNT_SCRIPT
+     */
+    private List<String> cartKeys(Long userId) {
+        return List.of(itemsKey(userId), idsKey(userId), countKey(userId));
+    }
+}
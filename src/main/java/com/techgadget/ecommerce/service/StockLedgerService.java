@@ -0,0 +1,97 @@
+package com.techgadget.ecommerce.service;
+
+import com.techgadget.ecommerce.entity.OrderItem;
+import com.techgadget.ecommerce.exception.NotFoundException;
+import com.techgadget.ecommerce.repository.OrderRepository;
+import com.techgadget.ecommerce.repository.ProductQuantity;
+import com.techgadget.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock ledger: gives stock of cancelled orders back
+ * -
+ * Quantities are summed per product first, so a restore costs
+ * one JDBC batch no matter how many items / orders are cancelled:
+ * > Hot products: released in Redis after commit (HotInventoryService)
+ * > Others: UPDATE products SET stock = stock + ? (ascending product ID order)
+ * -
+ * Must run inside the transaction that cancels the orders,
+ * a missing product rolls everything back.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final HotInventoryService hotInventoryService;
+    private final ProductDetailCacheService productDetailCacheService;
+
+    /**
+     * Restore stock of loaded order items (one or many orders)
+     */
+    public void restore(Collection<OrderItem> orderItems) {
+
+        Map<Long, Integer> quantityByProductId = new HashMap<>();
+        for (OrderItem orderItem : orderItems) {
+            quantityByProductId.merge(
+                    orderItem.getProductIdSnapshot(), orderItem.getQuantity(), Integer::sum);
+        }
+
+        restore(quantityByProductId);
+    }
+
+    /**
+     * Restore stock of every item of the orders, set-based
+     * -
+     * Items are never loaded: quantities are summed per product in SQL.
+     */
+    public void restoreOrders(Collection<Long> orderIds) {
+
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> quantityByProductId = new HashMap<>();
+        for (ProductQuantity row : orderRepository.sumItemQuantitiesByOrderIdIn(orderIds)) {
+            quantityByProductId.put(row.productId(), Math.toIntExact(row.quantity()));
+        }
+
+        restore(quantityByProductId);
+    }
+
+    private void restore(Map<Long, Integer> quantityByProductId) {
+
+        if (quantityByProductId.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> hotQuantityByProductId = new HashMap<>();
+        Map<Long, Integer> dbQuantityByProductId = new HashMap<>();
+        quantityByProductId.forEach((productId, quantity) ->
+                (hotInventoryService.isHot(productId) ? hotQuantityByProductId : dbQuantityByProductId)
+                        .put(productId, quantity));
+
+        List<Long> missingProductIds = productRepository.increaseStocks(dbQuantityByProductId);
+        if (!missingProductIds.isEmpty()) {
+            log.warn("Product with id snapshot {} not found on stock restore", missingProductIds);
+            throw new NotFoundException("Product id snapshot not found.");
+        }
+
+        // Hot products: given back to Redis after commit
+        hotInventoryService.release(hotQuantityByProductId);
+
+        // Stock changed -> cached product detail is stale
+        productDetailCacheService.evict(quantityByProductId.keySet());
+
+        log.debug("Restored stock - Products: {}", quantityByProductId);
+    }
+}
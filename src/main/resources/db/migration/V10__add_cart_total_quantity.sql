@@ -0,0 +1,14 @@
+-- carts: denormalized item quantity (cart count badge doesn't read cart_items)
+ALTER TABLE carts
+    ADD total_quantity INTEGER NOT NULL DEFAULT 0;
+
+-- carts: backfill total quantity from items
+UPDATE carts c
+SET total_quantity = t.total_quantity
+FROM (
+    SELECT cart_id,
+           SUM(quantity) AS total_quantity
+    FROM cart_items
+    GROUP BY cart_id
+) t
+WHERE t.cart_id = c.id;
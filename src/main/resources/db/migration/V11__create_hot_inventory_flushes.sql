@@ -0,0 +1,10 @@
+-- hot_inventory_flushes: flush batches of hot inventory already subtracted from products.stock
+-- (a batch retried after a lost commit acknowledgement is applied once)
+CREATE TABLE hot_inventory_flushes
+(
+    batch_id   UUID                        NOT NULL,
+    applied_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_hot_inventory_flushes PRIMARY KEY (batch_id)
+);
+
+CREATE INDEX idx_hot_inventory_flushes_applied_at ON hot_inventory_flushes (applied_at);
@@ -0,0 +1,8 @@
+-- pg_trgm: trigram GIN index lets LIKE '%keyword%' use an index scan
+-- (trusted extension since PostgreSQL 13, no superuser needed)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- products: index matches the search predicate lower(name) LIKE lower('%keyword%')
+-- and powers word_similarity() relevance ranking
+CREATE INDEX idx_products_name_trgm
+    ON products USING gin (lower(name) gin_trgm_ops);
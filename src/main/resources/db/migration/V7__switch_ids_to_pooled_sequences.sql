@@ -0,0 +1,115 @@
+-- IDs: IDENTITY -> sequences with pooled optimizer (allocationSize = 50)
+-- IDENTITY forces Hibernate to INSERT immediately to read the id, which disables JDBC batching.
+-- With a pooled sequence, one nextval() reserves a block of 50 ids (nextval - 49 .. nextval).
+--
+-- Each sequence starts at MAX(id) + 50, so the first block starts right after existing rows.
+-- Column default becomes nextval(): a plain INSERT uses the top id of its own block,
+-- never an id of a block reserved by Hibernate.
+
+-- addresses
+CREATE SEQUENCE addresses_seq INCREMENT BY 50;
+SELECT setval('addresses_seq', COALESCE(MAX(id), 0) + 50, false) FROM addresses;
+ALTER TABLE addresses
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE addresses
+    ALTER COLUMN id SET DEFAULT nextval('addresses_seq');
+ALTER SEQUENCE addresses_seq OWNED BY addresses.id;
+
+-- carts
+CREATE SEQUENCE carts_seq INCREMENT BY 50;
+SELECT setval('carts_seq', COALESCE(MAX(id), 0) + 50, false) FROM carts;
+ALTER TABLE carts
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE carts
+    ALTER COLUMN id SET DEFAULT nextval('carts_seq');
+ALTER SEQUENCE carts_seq OWNED BY carts.id;
+
+-- cart_items
+CREATE SEQUENCE cart_items_seq INCREMENT BY 50;
+SELECT setval('cart_items_seq', COALESCE(MAX(id), 0) + 50, false) FROM cart_items;
+ALTER TABLE cart_items
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cart_items
+    ALTER COLUMN id SET DEFAULT nextval('cart_items_seq');
+ALTER SEQUENCE cart_items_seq OWNED BY cart_items.id;
+
+-- categories
+CREATE SEQUENCE categories_seq INCREMENT BY 50;
+SELECT setval('categories_seq', COALESCE(MAX(id), 0) + 50, false) FROM categories;
+ALTER TABLE categories
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE categories
+    ALTER COLUMN id SET DEFAULT nextval('categories_seq');
+ALTER SEQUENCE categories_seq OWNED BY categories.id;
+
+-- orders
+CREATE SEQUENCE orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE(MAX(id), 0) + 50, false) FROM orders;
+ALTER TABLE orders
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders
+    ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+ALTER SEQUENCE orders_seq OWNED BY orders.id;
+
+-- order_items
+CREATE SEQUENCE order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE(MAX(id), 0) + 50, false) FROM order_items;
+ALTER TABLE order_items
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items
+    ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+ALTER SEQUENCE order_items_seq OWNED BY order_items.id;
+
+-- payments
+CREATE SEQUENCE payments_seq INCREMENT BY 50;
+SELECT setval('payments_seq', COALESCE(MAX(id), 0) + 50, false) FROM payments;
+ALTER TABLE payments
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE payments
+    ALTER COLUMN id SET DEFAULT nextval('payments_seq');
+ALTER SEQUENCE payments_seq OWNED BY payments.id;
+
+-- products
+CREATE SEQUENCE products_seq INCREMENT BY 50;
+SELECT setval('products_seq', COALESCE(MAX(id), 0) + 50, false) FROM products;
+ALTER TABLE products
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE products
+    ALTER COLUMN id SET DEFAULT nextval('products_seq');
+ALTER SEQUENCE products_seq OWNED BY products.id;
+
+-- product_images
+CREATE SEQUENCE product_images_seq INCREMENT BY 50;
+SELECT setval('product_images_seq', COALESCE(MAX(id), 0) + 50, false) FROM product_images;
+ALTER TABLE product_images
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE product_images
+    ALTER COLUMN id SET DEFAULT nextval('product_images_seq');
+ALTER SEQUENCE product_images_seq OWNED BY product_images.id;
+
+-- product_reviews
+CREATE SEQUENCE product_reviews_seq INCREMENT BY 50;
+SELECT setval('product_reviews_seq', COALESCE(MAX(id), 0) + 50, false) FROM product_reviews;
+ALTER TABLE product_reviews
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE product_reviews
+    ALTER COLUMN id SET DEFAULT nextval('product_reviews_seq');
+ALTER SEQUENCE product_reviews_seq OWNED BY product_reviews.id;
+
+-- refresh_tokens
+CREATE SEQUENCE refresh_tokens_seq INCREMENT BY 50;
+SELECT setval('refresh_tokens_seq', COALESCE(MAX(id), 0) + 50, false) FROM refresh_tokens;
+ALTER TABLE refresh_tokens
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE refresh_tokens
+    ALTER COLUMN id SET DEFAULT nextval('refresh_tokens_seq');
+ALTER SEQUENCE refresh_tokens_seq OWNED BY refresh_tokens.id;
+
+-- users
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+ALTER TABLE users
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users
+    ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
@@ -0,0 +1,41 @@
+-- Indexes matching repository predicates & sort (always tie-broken by id)
+-- Already covered by unique constraints (leading column):
+-- > cart_items (cart_id, ...)  uk_cart_product
+-- > payments (order_id)        uk_order_id
+-- > carts (user_id)            uk_user_id
+
+-- orders: customer order list, WHERE user_id = ? [AND status / created_at range] ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_orders_user_created
+    ON orders (user_id, created_at DESC, id DESC);
+
+-- orders: admin search by status (and stale PENDING orders), WHERE order_status = ? [AND created_at range]
+CREATE INDEX idx_orders_status_created
+    ON orders (order_status, created_at DESC, id DESC);
+
+-- orders: admin search without status, created_at range / latest first
+CREATE INDEX idx_orders_created
+    ON orders (created_at DESC, id DESC);
+
+-- order_items: items of a page of orders, WHERE order_id IN (...)
+CREATE INDEX idx_order_items_order
+    ON order_items (order_id);
+
+-- products: category filter sorted by price / latest first
+CREATE INDEX idx_products_category_price
+    ON products (category_id, price, id);
+CREATE INDEX idx_products_category_created
+    ON products (category_id, created_at DESC, id DESC);
+
+-- products: price range / price sort without category, latest first
+CREATE INDEX idx_products_price
+    ON products (price, id);
+CREATE INDEX idx_products_created
+    ON products (created_at DESC, id DESC);
+
+-- product_images: images of a page of products, primary image lookup
+CREATE INDEX idx_product_images_product
+    ON product_images (product_id);
+
+-- product_reviews: reviews of a product, latest first
+CREATE INDEX idx_product_reviews_product_created
+    ON product_reviews (product_id, created_at DESC, id DESC);
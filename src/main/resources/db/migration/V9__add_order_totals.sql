@@ -0,0 +1,18 @@
+-- orders: denormalized totals (list views don't load order_items)
+ALTER TABLE orders
+    ADD total_price BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orders
+    ADD total_items INTEGER NOT NULL DEFAULT 0;
+
+-- orders: backfill totals from items
+UPDATE orders o
+SET total_price = t.total_price,
+    total_items = t.total_items
+FROM (
+    SELECT order_id,
+           SUM(quantity * price_at_order) AS total_price,
+           COUNT(*)                       AS total_items
+    FROM order_items
+    GROUP BY order_id
+) t
+WHERE t.order_id = o.id;
@@ -3,7 +3,7 @@ package com.techgadget.ecommerce;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.order.number.node-id=0")
 class EcommerceBackendApplicationTests {
 
 	@Test
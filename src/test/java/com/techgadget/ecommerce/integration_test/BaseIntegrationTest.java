@@ -2,12 +2,14 @@ package com.techgadget.ecommerce.integration_test;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.techgadget.ecommerce.repository.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -15,14 +17,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import java.util.List;
+
 /**
  * Creates a base for integration testing (container, dependency, etc)
  *
  * NOTES:
  * Make sure DOCKER is running in your local machine before doing integration test!
+ * Every MockMvc request must stay within its query budget (QueryBudgetFilter).
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@Import(QueryBudgetFilter.class)
 public abstract class BaseIntegrationTest {
 
     // Create postgres container
@@ -54,6 +60,11 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.data.redis.host", () -> redis.getHost());
         registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
         registry.add("spring.data.redis.lettuce.pool.enabled", () -> true);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                () -> SqlStatementCounter.class.getName());
+        // Write-behind of Redis carts is triggered by the tests themselves
+        registry.add("app.cart.redis.flush-interval", () -> "1h");
+        registry.add("app.order.number.node-id", () -> 0);
     }
 
     @Autowired
@@ -106,6 +117,20 @@ public abstract class BaseIntegrationTest {
                 .getConnection()
                 .serverCommands()
                 .flushDb();
+
+        // Setup statements are not part of any request
+        SqlStatementCounter.reset();
+        QueryBudgetFilter.drainViolations();
+    }
+
+    /**
+     * Fail the test if any request exceeded its query budget or ran an N+1
+     */
+    @AfterEach
+    void assertQueryBudgets() {
+        List<String> violations = QueryBudgetFilter.drainViolations();
+        Assertions.assertTrue(violations.isEmpty(),
+                () -> "Query budget exceeded:\n" + String.join("\n\n", violations));
     }
 
 }
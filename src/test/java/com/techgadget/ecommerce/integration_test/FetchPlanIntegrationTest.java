@@ -0,0 +1,116 @@
+package com.techgadget.ecommerce.integration_test;
+
+import com.techgadget.ecommerce.entity.Cart;
+import com.techgadget.ecommerce.entity.CartItem;
+import com.techgadget.ecommerce.entity.Category;
+import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.entity.ProductImage;
+import com.techgadget.ecommerce.entity.User;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Fetch plans of entities: every association is lazy,
+ * relations are loaded only by the query of the use-case that needs them
+ *
+ * Things that want to be verified:
+ * - Plain findById of product / cart loads no relation (1 select)
+ * - Product detail loads images + category in the same select
+ * - Cart with items loads items + products + images in the same select
+ */
+@DisplayName("Fetch Plan Integration Tests")
+public class FetchPlanIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Product product;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+
+        transaction = new TransactionTemplate(transactionManager);
+
+        Category category = categoryRepository.save(new Category("Phone", ""));
+
+        product = new Product(category, "Iphone 17", "", 20_000_000L, 10, Map.of());
+        product.addImage(new ProductImage(product, "products/a.jpg", "products/a_thumb.jpg", true));
+        productRepository.save(product);
+
+        user = userRepository.save(new User("user", "user@gmail.com", "password", "full name"));
+
+        Cart cart = new Cart(user);
+        cart.addItem(new CartItem(cart, product, 1));
+        cartRepository.save(cart);
+
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    @DisplayName("product findById - category & images not loaded, 1 select")
+    void productFindById_loadsNoRelation() {
+
+        transaction.executeWithoutResult(status -> {
+            Product found = productRepository.findById(product.getId()).orElseThrow();
+
+            assertThat(Hibernate.isInitialized(found.getCategory())).isFalse();
+            assertThat(Hibernate.isInitialized(found.getImages())).isFalse();
+        });
+
+        assertThat(SqlStatementCounter.count("select"))
+                .as("SELECT statements: %s", SqlStatementCounter.statements())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("product detail - category & images fetched in the same select")
+    void productDetail_fetchesCategoryAndImages() {
+
+        Product found = productRepository.findProductDetailById(product.getId()).orElseThrow();
+
+        // Outside of transaction: no lazy load possible anymore
+        assertThat(Hibernate.isInitialized(found.getCategory())).isTrue();
+        assertThat(found.getCategory().getName()).isEqualTo("Phone");
+        assertThat(found.getImages()).hasSize(1);
+
+        assertThat(SqlStatementCounter.count("select")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("cart findByUser_Id - items not loaded, 1 select")
+    void cartFindByUserId_loadsNoItems() {
+
+        transaction.executeWithoutResult(status -> {
+            Cart found = cartRepository.findByUser_Id(user.getId()).orElseThrow();
+
+            assertThat(Hibernate.isInitialized(found.getItems())).isFalse();
+        });
+
+        assertThat(SqlStatementCounter.count("select")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("cart with items - items, products & images fetched in the same select")
+    void cartWithItems_fetchesItemsProductsAndImages() {
+
+        Cart found = cartRepository.findByUser_IdWithItems(user.getId()).orElseThrow();
+
+        List<CartItem> items = List.copyOf(found.getItems());
+        assertThat(items).hasSize(1);
+        assertThat(items.getFirst().getProduct().getPrimaryImageKey()).isEqualTo("products/a_thumb.jpg");
+
+        assertThat(SqlStatementCounter.count("select")).isEqualTo(1);
+    }
+}
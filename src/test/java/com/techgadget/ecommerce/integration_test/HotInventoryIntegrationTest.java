@@ -0,0 +1,143 @@
+package com.techgadget.ecommerce.integration_test;
+
+import com.techgadget.ecommerce.entity.Category;
+import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.service.HotInventoryService;
+import com.techgadget.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hot inventory against real Redis + Postgres: seed & flush never count a reservation twice
+ */
+public class HotInventoryIntegrationTest extends BaseIntegrationTest {
+
+    private static final int STOCK = 10;
+
+    @Autowired
+    private HotInventoryService hotInventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+
+        Category category = new Category("Phone", "");
+        categoryRepository.save(category);
+
+        product = productRepository.save(
+                new Product(category, "Iphone 17", "", 20_000_000L, STOCK, Map.of()));
+
+        ReflectionTestUtils.setField(hotInventoryService, "hotProductIds", Set.of(product.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(hotInventoryService, "hotProductIds", Set.of());
+    }
+
+    private String stockKey() {
+        return "inventory:stock:" + product.getId();
+    }
+
+    private int dbStock() {
+        return productRepository.findStockById(product.getId()).orElseThrow();
+    }
+
+    /**
+     * Redis state of a node that moved reserved quantities to inflight,
+     * then crashed (stock key lost as well) before clearing them
+     */
+    private UUID putInflightBatch(int quantity) {
+        UUID batchId = UUID.randomUUID();
+        stringRedisTemplate.opsForHash().putAll("inventory:inflight", Map.of(
+                String.valueOf(product.getId()), String.valueOf(quantity),
+                "batch", batchId.toString()
+        ));
+        return batchId;
+    }
+
+    @Test
+    @DisplayName("stock key lost while a batch is inflight - seed subtracts inflight, no oversell")
+    void stockKeyLostWhileInflight_seedSubtractsInflight() {
+
+        putInflightBatch(3);
+
+        assertThat(hotInventoryService.reserve(Map.of(product.getId(), 1))).isTrue();
+
+        // 10 in DB - 3 inflight - 1 reserved now
+        assertThat(stringRedisTemplate.opsForValue().get(stockKey())).isEqualTo("6");
+
+        // Inflight batch first, then the new pending quantity
+        hotInventoryService.flush();
+        assertThat(dbStock()).isEqualTo(7);
+        assertThat(stringRedisTemplate.hasKey("inventory:inflight")).isFalse();
+
+        hotInventoryService.flush();
+        assertThat(dbStock()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("inflight batch already committed - seed and retried flush don't subtract it again")
+    void inflightAlreadyCommitted_appliedOnce() {
+
+        UUID batchId = putInflightBatch(3);
+        assertThat(productRepository.subtractReservedStocks(batchId, Map.of(product.getId(), 3))).isTrue();
+
+        assertThat(hotInventoryService.reserve(Map.of(product.getId(), 1))).isTrue();
+
+        // 7 in DB (batch included) - 1 reserved now
+        assertThat(stringRedisTemplate.opsForValue().get(stockKey())).isEqualTo("6");
+
+        hotInventoryService.flush();
+        assertThat(dbStock()).isEqualTo(7);
+        assertThat(stringRedisTemplate.hasKey("inventory:inflight")).isFalse();
+
+        hotInventoryService.flush();
+        assertThat(dbStock()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("admin deduct of a hot product - reserved in Redis, flushed to DB")
+    void adminDeduct_goesThroughRedis() {
+
+        assertThat(hotInventoryService.reserve(Map.of(product.getId(), 1))).isTrue();
+
+        productService.deductStock(product.getId(), 2);
+
+        assertThat(stringRedisTemplate.opsForValue().get(stockKey())).isEqualTo("7");
+
+        hotInventoryService.flush();
+        assertThat(dbStock()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("resync after a direct DB stock change - stock key follows DB minus pending")
+    void resync_followsDbStock() {
+
+        assertThat(hotInventoryService.reserve(Map.of(product.getId(), 2))).isTrue();
+
+        // Restock written straight to DB
+        productRepository.increaseStocks(Map.of(product.getId(), 5));
+        hotInventoryService.resync(product.getId());
+
+        // 15 in DB - 2 pending
+        assertThat(stringRedisTemplate.opsForValue().get(stockKey())).isEqualTo("13");
+
+        hotInventoryService.flush();
+        assertThat(dbStock()).isEqualTo(13);
+    }
+}
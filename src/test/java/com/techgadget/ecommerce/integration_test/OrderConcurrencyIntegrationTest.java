@@ -0,0 +1,174 @@
+package com.techgadget.ecommerce.integration_test;
+
+import com.techgadget.ecommerce.dto.request.order.CreateOrderRequest;
+import com.techgadget.ecommerce.entity.*;
+import com.techgadget.ecommerce.exception.ConflictException;
+import com.techgadget.ecommerce.service.HotInventoryService;
+import com.techgadget.ecommerce.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Concurrent checkouts of a single SKU
+ *
+ * Things that want to be verified:
+ * - Stock never goes negative (no oversell)
+ * - Exactly "stock" checkouts succeed, the rest get 409 (ConflictException)
+ * - No deadlock / unexpected error under contention
+ */
+@DisplayName("Order Concurrency Integration Tests")
+public class OrderConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final int CUSTOMERS = 500;
+    private static final int STOCK = 100;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private HotInventoryService hotInventoryService;
+
+    private Product product;
+
+    /*
+        One customer per checkout, each with:
+        - user id
+        - cart item id (quantity 1 of the same product)
+        - address id
+     */
+    private record Checkout(long userId, long cartItemId, long addressId) {}
+
+    private final List<Checkout> checkouts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        Category category = new Category("Phone", "");
+        categoryRepository.save(category);
+
+        product = new Product(category, "Iphone 17", "", 20_000_000L, STOCK, Map.of());
+        productRepository.save(product);
+
+        checkouts.clear();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            User user = userRepository.save(new User(
+                    "user" + i, "user" + i + "@gmail.com", "password", "full name"
+            ));
+
+            Address address = addressRepository.save(new Address(
+                    user, "user" + i, "018364718471", "street", "city", "province", "postalcode", "", true
+            ));
+
+            Cart cart = new Cart(user);
+            CartItem cartItem = new CartItem(cart, product, 1);
+            cart.addItem(cartItem);
+            cartRepository.save(cart);
+
+            checkouts.add(new Checkout(user.getId(), cartItem.getId(), address.getId()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(hotInventoryService, "hotProductIds", Set.of());
+    }
+
+    /**
+     * Fire every checkout at once, return number of successful checkouts.
+     * Fails on any error other than 409 (ConflictException).
+     */
+    private int checkoutAllInParallel() throws Exception {
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+
+        // All threads start together for maximum contention
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (Checkout checkout : checkouts) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        orderService.createOrder(checkout.userId(), new CreateOrderRequest(
+                                List.of(checkout.cartItemId()), checkout.addressId(), "DUMMY"
+                        ));
+                        succeeded.incrementAndGet();
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    } catch (Throwable e) {
+                        synchronized (unexpected) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(CUSTOMERS);
+
+        return succeeded.get();
+    }
+
+    @Test
+    @DisplayName("500 parallel checkouts on 100 stock - exactly 100 orders, stock 0, no oversell")
+    void parallelCheckouts_singleSku_noOversell() throws Exception {
+
+        int succeeded = checkoutAllInParallel();
+
+        assertThat(succeeded).isEqualTo(STOCK);
+
+        // Verify directly in DB
+        int stock = productRepository.findById(product.getId())
+                .orElseThrow()
+                .getStock();
+        assertThat(stock).isZero();
+        assertThat(orderRepository.count()).isEqualTo(STOCK);
+    }
+
+    @Test
+    @DisplayName("hot SKU - 500 parallel checkouts reserved in Redis, DB stock 0 after flush")
+    void parallelCheckouts_hotSku_noOversell() throws Exception {
+
+        ReflectionTestUtils.setField(hotInventoryService, "hotProductIds", Set.of(product.getId()));
+
+        int succeeded = checkoutAllInParallel();
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        assertThat(stringRedisTemplate.opsForValue().get("inventory:stock:" + product.getId()))
+                .isEqualTo("0");
+
+        // Reconcile reserved stock to DB
+        hotInventoryService.flush();
+
+        int stock = productRepository.findById(product.getId())
+                .orElseThrow()
+                .getStock();
+        assertThat(stock).isZero();
+        assertThat(orderRepository.count()).isEqualTo(STOCK);
+    }
+}
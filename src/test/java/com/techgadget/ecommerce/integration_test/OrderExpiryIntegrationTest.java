@@ -0,0 +1,140 @@
+package com.techgadget.ecommerce.integration_test;
+
+import com.techgadget.ecommerce.entity.Address;
+import com.techgadget.ecommerce.entity.Category;
+import com.techgadget.ecommerce.entity.Order;
+import com.techgadget.ecommerce.entity.OrderItem;
+import com.techgadget.ecommerce.entity.Payment;
+import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.entity.User;
+import com.techgadget.ecommerce.enums.OrderStatus;
+import com.techgadget.ecommerce.enums.PaymentMethod;
+import com.techgadget.ecommerce.enums.PaymentStatus;
+import com.techgadget.ecommerce.service.OrderExpiryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Expiry of unpaid orders against a real database
+ *
+ * Things that want to be verified:
+ * - Unpaid order older than TTL -> CANCELLED, payment FAILED, stock restored
+ * - Paid order / fresh order are never touched
+ * - Sweep skipped while another node holds the advisory lock
+ */
+@DisplayName("Order Expiry Integration Tests")
+public class OrderExpiryIntegrationTest extends BaseIntegrationTest {
+
+    // OrderExpiryService.SWEEP_LOCK_KEY
+    private static final long SWEEP_LOCK_KEY = 0x4F524445525F4558L;
+
+    @Autowired
+    private OrderExpiryService orderExpiryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+    private Long expiredOrderId;
+    private Long paidOrderId;
+    private Long freshOrderId;
+
+    @BeforeEach
+    void setUp() {
+
+        Category category = categoryRepository.save(new Category("Phone", ""));
+
+        // 3 orders of 2 items each already deducted: 10 - 6
+        product = productRepository.save(
+                new Product(category, "Iphone 17", "", 20_000_000L, 4, Map.of()));
+
+        User user = userRepository.save(new User("user", "user@gmail.com", "password", "full name"));
+        Address address = addressRepository.save(new Address(
+                user, "Recipient", "08123456789", "Street", "City", "Province", "12345", null, true
+        ));
+
+        expiredOrderId = createOrder(user, address, "ORD-EXPIRED", PaymentStatus.PENDING);
+        paidOrderId = createOrder(user, address, "ORD-PAID", PaymentStatus.PAID);
+        freshOrderId = createOrder(user, address, "ORD-FRESH", PaymentStatus.PENDING);
+
+        // Created an hour ago (TTL 30 minutes)
+        jdbcTemplate.update(
+                "UPDATE orders SET created_at = LOCALTIMESTAMP - INTERVAL '1 hour' WHERE id IN (?, ?)",
+                expiredOrderId, paidOrderId
+        );
+    }
+
+    // Helper method: PENDING order of 2 products with payment status
+    private Long createOrder(User user, Address address, String orderNumber, PaymentStatus paymentStatus) {
+
+        Order order = new Order(user, orderNumber, address);
+        order.addItem(new OrderItem(
+                order, product.getId(), product.getName(), null, 2, product.getPrice()
+        ));
+        order.setPayment(new Payment(
+                order, 2 * product.getPrice(), paymentStatus, PaymentMethod.DUMMY, null, null, null
+        ));
+
+        return orderRepository.save(order).getId();
+    }
+
+    private OrderStatus orderStatusOf(Long orderId) {
+        return orderRepository.findById(orderId).orElseThrow().getOrderStatus();
+    }
+
+    private PaymentStatus paymentStatusOf(Long orderId) {
+        return PaymentStatus.valueOf(jdbcTemplate.queryForObject(
+                "SELECT payment_status FROM payments WHERE order_id = ?", String.class, orderId));
+    }
+
+    @Test
+    @DisplayName("unpaid order older than TTL - cancelled, payment failed, stock restored")
+    void unpaidExpiredOrder_cancelledAndStockRestored() {
+
+        orderExpiryService.expireUnpaidOrders();
+
+        assertThat(orderStatusOf(expiredOrderId)).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(paymentStatusOf(expiredOrderId)).isEqualTo(PaymentStatus.FAILED);
+        assertThat(productRepository.findStockById(product.getId())).contains(6);
+
+        // Paid & fresh orders untouched
+        assertThat(orderStatusOf(paidOrderId)).isEqualTo(OrderStatus.PENDING);
+        assertThat(paymentStatusOf(paidOrderId)).isEqualTo(PaymentStatus.PAID);
+        assertThat(orderStatusOf(freshOrderId)).isEqualTo(OrderStatus.PENDING);
+        assertThat(paymentStatusOf(freshOrderId)).isEqualTo(PaymentStatus.PENDING);
+
+        // Second run: nothing left to expire, stock restored only once
+        assertThat(orderExpiryService.expireUnpaidOrders()).isZero();
+        assertThat(productRepository.findStockById(product.getId())).contains(6);
+    }
+
+    @Test
+    @DisplayName("advisory lock held by another node - sweep skipped")
+    void lockHeldByAnotherNode_sweepSkipped() {
+
+        // Another session holds the sweeper lock
+        int expired = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + SWEEP_LOCK_KEY + ")");
+                try {
+                    return orderExpiryService.expireUnpaidOrders();
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + SWEEP_LOCK_KEY + ")");
+                }
+            }
+        });
+
+        assertThat(expired).isZero();
+        assertThat(orderStatusOf(expiredOrderId)).isEqualTo(OrderStatus.PENDING);
+        assertThat(productRepository.findStockById(product.getId())).contains(4);
+    }
+}
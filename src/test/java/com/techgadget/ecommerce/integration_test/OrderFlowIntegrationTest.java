@@ -2,23 +2,40 @@ package com.techgadget.ecommerce.integration_test;
 
 import com.techgadget.ecommerce.dto.request.auth.RegisterRequest;
 import com.techgadget.ecommerce.dto.request.cart.AddCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest.CartItemOperation;
 import com.techgadget.ecommerce.dto.request.order.CreateOrderRequest;
+import com.techgadget.ecommerce.dto.request.order.OrderFilterRequest;
 import com.techgadget.ecommerce.dto.response.auth.AuthResponse;
 import com.techgadget.ecommerce.dto.response.cart.CartResponse;
+import com.techgadget.ecommerce.dto.response.order.OrderExportRow;
 import com.techgadget.ecommerce.dto.response.order.OrderResponse;
 import com.techgadget.ecommerce.entity.Address;
 import com.techgadget.ecommerce.entity.Category;
+import com.techgadget.ecommerce.entity.Order;
+import com.techgadget.ecommerce.entity.Payment;
 import com.techgadget.ecommerce.entity.Product;
 import com.techgadget.ecommerce.entity.User;
+import com.techgadget.ecommerce.enums.CartOperationType;
+import com.techgadget.ecommerce.enums.ExportFormat;
 import com.techgadget.ecommerce.enums.OrderStatus;
+import com.techgadget.ecommerce.enums.PaymentMethod;
 import com.techgadget.ecommerce.enums.PaymentStatus;
+import com.techgadget.ecommerce.service.OrderExportService;
+import com.techgadget.ecommerce.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -45,6 +62,12 @@ public class OrderFlowIntegrationTest extends BaseIntegrationTest {
         - customer token
         -
      */
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
     private Product product;
     private String customerToken;
     private long addressId;
@@ -94,7 +117,16 @@ public class OrderFlowIntegrationTest extends BaseIntegrationTest {
      * @return {@link Long cartItemId}
      */
     private long addProductToCart(int quantity) throws Exception{
-        AddCartItemRequest request = new AddCartItemRequest(product.getId(), quantity);
+        return addProductToCart(product.getId(), quantity);
+    }
+
+    /**
+     * Add any product to cart.
+     * ONLY USE for success scenario (201)
+     * @return {@link Long cartItemId} of this product
+     */
+    private long addProductToCart(long productId, int quantity) throws Exception {
+        AddCartItemRequest request = new AddCartItemRequest(productId, quantity);
 
         MvcResult result = mockMvc.perform(post("/cart")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -106,7 +138,11 @@ public class OrderFlowIntegrationTest extends BaseIntegrationTest {
         String jsonResponseBody = result.getResponse().getContentAsString();
         CartResponse response = objectMapper.readValue(jsonResponseBody, CartResponse.class);
 
-        return response.getItems().getFirst().getId();
+        return response.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst()
+                .orElseThrow()
+                .getId();
     }
 
     /**
@@ -206,6 +242,75 @@ public class OrderFlowIntegrationTest extends BaseIntegrationTest {
                     .isEqualTo(20_000_000L);
         }
 
+        /**
+         * Checkout = 4 SELECT (user, cart + items + products + images, category, address)
+         * + 3 INSERT (order, order item, payment) prepared by Hibernate.
+         * Stock UPDATE goes through JdbcTemplate (not counted),
+         * sequence calls (id blocks) are not counted either.
+         * No UPDATE of order, no re-fetch of the created order.
+         */
+        @Test
+        @DisplayName("success - order, item & payment inserted in one flush, no re-save or re-fetch")
+        void success_singleFlush_exactStatementCount() throws Exception {
+
+            long cartItemId = addProductToCart(2);
+            long userId = userRepository.findByEmail("email@gmail.com").orElseThrow().getId();
+
+            SqlStatementCounter.reset();
+
+            OrderResponse response = orderService.createOrder(userId, new CreateOrderRequest(
+                    List.of(cartItemId), addressId, "DUMMY"
+            ));
+
+            assertThat(response.getId()).isNotNull();
+            assertThat(response.getCreatedAt()).isNotNull();
+
+            assertThat(SqlStatementCounter.count("select"))
+                    .as("SELECT statements: %s", SqlStatementCounter.statements())
+                    .isEqualTo(4);
+            assertThat(SqlStatementCounter.count("insert"))
+                    .as("INSERT statements: %s", SqlStatementCounter.statements())
+                    .isEqualTo(3);
+            assertThat(SqlStatementCounter.count("update")).isZero();
+        }
+
+        /**
+         * INSERT round trips per checkout of a 20-item order
+         * - Before (IDENTITY ids, no batching): 1 order + 20 items + 1 payment = 22
+         * - After (pooled sequences, hibernate.jdbc.batch_size): 1 per table = 3
+         * Id blocks of 50 -> at most 1 sequence call per table.
+         */
+        @Test
+        @DisplayName("success - 20 item order, inserts batched per table")
+        void success_largeOrder_insertsBatchedPerTable() throws Exception {
+
+            Category category = categoryRepository.findAll().getFirst();
+            List<Long> cartItemIds = new ArrayList<>();
+            cartItemIds.add(addProductToCart(1));
+
+            for (int i = 1; i < 20; i++) {
+                Product other = productRepository.save(
+                        new Product(category, "Phone " + i, "", 1_000_000L, 10, Map.of()));
+                cartItemIds.add(addProductToCart(other.getId(), 1));
+            }
+
+            long userId = userRepository.findByEmail("email@gmail.com").orElseThrow().getId();
+
+            SqlStatementCounter.reset();
+
+            OrderResponse response = orderService.createOrder(userId, new CreateOrderRequest(
+                    cartItemIds, addressId, "DUMMY"
+            ));
+
+            assertThat(response.getItems()).hasSize(20);
+
+            assertThat(SqlStatementCounter.count("insert"))
+                    .as("INSERT statements: %s", SqlStatementCounter.statements())
+                    .isEqualTo(3);
+            assertThat(SqlStatementCounter.sequenceCalls()).isLessThanOrEqualTo(3);
+            assertThat(SqlStatementCounter.count("update")).isZero();
+        }
+
         /**
          * Unsuccessfully add item to cart BEFORE create order.
          * Because wanted quantity in insufficient to product stock
@@ -270,6 +375,226 @@ public class OrderFlowIntegrationTest extends BaseIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Idempotency-Key")
+    class IdempotencyKey {
+
+        private MvcResult postWithKey(String path, Object body, String idempotencyKey) throws Exception {
+            return mockMvc.perform(post(path)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body))
+                    .header("Authorization", "Bearer " + customerToken)
+                    .header("Idempotency-Key", idempotencyKey)
+            )
+                    .andExpect(status().isCreated())
+                    .andReturn();
+        }
+
+        @Test
+        @DisplayName("create order retried with same key - first order replayed, stock deducted once, no order SQL")
+        void createOrderRetried_replaysFirstOrder() throws Exception {
+
+            long cartItemId = addProductToCart(2);
+            CreateOrderRequest request = new CreateOrderRequest(List.of(cartItemId), addressId, "DUMMY");
+
+            OrderResponse first = objectMapper.readValue(
+                    postWithKey("/orders", request, "retry-1").getResponse().getContentAsString(),
+                    OrderResponse.class);
+
+            SqlStatementCounter.reset();
+
+            OrderResponse retried = objectMapper.readValue(
+                    postWithKey("/orders", request, "retry-1").getResponse().getContentAsString(),
+                    OrderResponse.class);
+
+            assertThat(retried.getId()).isEqualTo(first.getId());
+            assertThat(retried.getOrderNumber()).isEqualTo(first.getOrderNumber());
+            assertThat(SqlStatementCounter.statements())
+                    .noneMatch(sql -> sql.toLowerCase().contains("orders"))
+                    .noneMatch(sql -> sql.toLowerCase().contains("products"));
+
+            assertThat(orderRepository.count()).isEqualTo(1);
+            assertThat(productRepository.findStockById(product.getId())).contains(18);
+
+            // New key -> new order
+            postWithKey("/orders", request, "retry-2");
+            assertThat(orderRepository.count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("pay order retried with same key - first payment replayed")
+        void payOrderRetried_replaysFirstPayment() throws Exception {
+
+            OrderResponse order = createOrder(addProductToCart(1));
+
+            OrderResponse first = objectMapper.readValue(
+                    postWithKey("/orders/" + order.getId() + "/pay", Map.of(), "pay-1")
+                            .getResponse().getContentAsString(),
+                    OrderResponse.class);
+
+            SqlStatementCounter.reset();
+
+            // Payment not processed twice
+            OrderResponse retried = objectMapper.readValue(
+                    postWithKey("/orders/" + order.getId() + "/pay", Map.of(), "pay-1")
+                            .getResponse().getContentAsString(),
+                    OrderResponse.class);
+
+            assertThat(retried).isEqualTo(first);
+            assertThat(SqlStatementCounter.count("update")).isZero();
+            assertThat(first.getPaymentStatus()).isEqualTo(PaymentStatus.PAID.toString());
+        }
+
+        @Test
+        @DisplayName("same key with a different body - 422, no second order")
+        void sameKeyDifferentBody_returns422() throws Exception {
+
+            long firstItemId = addProductToCart(1);
+            postWithKey("/orders", new CreateOrderRequest(List.of(firstItemId), addressId, "DUMMY"), "reuse-1");
+
+            long secondItemId = addProductToCart(1);
+            CreateOrderRequest other = new CreateOrderRequest(List.of(secondItemId), addressId, "DUMMY");
+
+            mockMvc.perform(post("/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(other))
+                    .header("Authorization", "Bearer " + customerToken)
+                    .header("Idempotency-Key", "reuse-1")
+            )
+                    .andExpect(status().isUnprocessableContent());
+
+            assertThat(orderRepository.count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /cart/count")
+    class GetCartCount {
+
+        @Test
+        @DisplayName("success - counter kept on carts row, read without cart_items, no cart created")
+        void success_counterFromCartsRow() throws Exception {
+
+            // No cart yet: 0, nothing created
+            mockMvc.perform(get("/cart/count")
+                    .header("Authorization", "Bearer " + customerToken)
+            )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(0));
+
+            assertThat(cartRepository.count()).isZero();
+
+            long cartItemId = addProductToCart(2);
+            addProductToCart(3);
+
+            mockMvc.perform(delete("/cart/" + cartItemId)
+                    .header("Authorization", "Bearer " + customerToken)
+            )
+                    .andExpect(status().isOk());
+            addProductToCart(4);
+
+            SqlStatementCounter.reset();
+
+            mockMvc.perform(get("/cart/count")
+                    .header("Authorization", "Bearer " + customerToken)
+            )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(4));
+
+            assertThat(SqlStatementCounter.statements())
+                    .noneMatch(sql -> sql.toLowerCase().contains("cart_items"));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /cart/items:batch")
+    class BatchCart {
+
+        // Helper method: send batch, expect status
+        private MvcResult sendBatch(int expectedStatus, CartItemOperation... operations) throws Exception {
+            return mockMvc.perform(post("/cart/items:batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BatchCartItemRequest(List.of(operations))))
+                    .header("Authorization", "Bearer " + customerToken)
+            )
+                    .andExpect(status().is(expectedStatus))
+                    .andReturn();
+        }
+
+        @Test
+        @DisplayName("buy again - many lines in one request, then one over-stock line rejects the whole batch")
+        void buyAgain_appliedAtomically() throws Exception {
+
+            Category category = categoryRepository.findAll().getFirst();
+            Product phoneCase = productRepository.save(new Product(category, "Case", "", 200_000L, 3, Map.of()));
+            Product charger = productRepository.save(new Product(category, "Charger", "", 500_000L, 10, Map.of()));
+
+            long phoneItemId = addProductToCart(1);
+
+            MvcResult result = sendBatch(200,
+                    new CartItemOperation(CartOperationType.UPDATE, null, phoneItemId, 2),
+                    new CartItemOperation(CartOperationType.ADD, phoneCase.getId(), null, 1),
+                    new CartItemOperation(CartOperationType.ADD, charger.getId(), null, 2)
+            );
+
+            CartResponse cart = objectMapper.readValue(result.getResponse().getContentAsString(), CartResponse.class);
+            assertThat(cart.getItems()).hasSize(3);
+            assertThat(cart.getTotalItems()).isEqualTo(5);
+            assertThat(cart.getTotalPrice()).isEqualTo(2 * 20_000_000L + 200_000L + 2 * 500_000L);
+
+            // Case over stock: charger removal not applied either
+            long chargerItemId = cart.getItems().stream()
+                    .filter(item -> item.getProductId().equals(charger.getId()))
+                    .findFirst()
+                    .orElseThrow()
+                    .getId();
+            sendBatch(409,
+                    new CartItemOperation(CartOperationType.REMOVE, null, chargerItemId, null),
+                    new CartItemOperation(CartOperationType.ADD, phoneCase.getId(), null, 3)
+            );
+
+            mockMvc.perform(get("/cart/count")
+                    .header("Authorization", "Bearer " + customerToken)
+            )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(5));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /orders/summaries")
+    class GetOrderSummaries {
+
+        @Test
+        @DisplayName("success - totals stored on order, summaries read without order_items")
+        void success_totalsFromOrderColumns() throws Exception {
+
+            long cartItemId = addProductToCart(2);
+            OrderResponse order = createOrder(cartItemId);
+
+            // Totals persisted on orders row
+            Order saved = orderRepository.findById(order.getId()).orElseThrow();
+            assertThat(saved.getTotalPrice()).isEqualTo(40_000_000L);
+            assertThat(saved.getTotalItems()).isEqualTo(1);
+
+            SqlStatementCounter.reset();
+
+            mockMvc.perform(get("/orders/summaries")
+                    .header("Authorization", "Bearer " + customerToken)
+            )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(1))
+                    .andExpect(jsonPath("$.content[0].orderNumber").value(order.getOrderNumber()))
+                    .andExpect(jsonPath("$.content[0].paymentStatus").value(PaymentStatus.PENDING.toString()))
+                    .andExpect(jsonPath("$.content[0].totalPrice").value(40_000_000L))
+                    .andExpect(jsonPath("$.content[0].totalItems").value(1))
+                    .andExpect(jsonPath("$.content[0].items").doesNotExist());
+
+            assertThat(SqlStatementCounter.statements())
+                    .noneMatch(sql -> sql.toLowerCase().contains("order_items"));
+        }
+    }
+
     @Nested
     @DisplayName("POST /orders/{orderId}/cancel")
     class CancelOrder {
@@ -344,4 +669,115 @@ public class OrderFlowIntegrationTest extends BaseIntegrationTest {
             assertThat(cancelledOrder.getPaymentStatus()).isEqualTo(PaymentStatus.REFUNDED.toString());
         }
     }
+
+    @Nested
+    @DisplayName("adminUpdateOrderStatusToCancelled()")
+    class AdminCancelOrder {
+
+        @Test
+        @DisplayName("success - stock of every item restored in one batch, no product loaded")
+        void success_stockOfAllItemsRestored() throws Exception {
+
+            Product secondProduct = productRepository.save(new Product(
+                    product.getCategory(), "Iphone 17 Pro", "", 25_000_000L, 5, Map.of()));
+
+            long firstCartItemId = addProductToCart(4);
+            long secondCartItemId = addProductToCart(secondProduct.getId(), 2);
+
+            User user = userRepository.findByEmail("email@gmail.com").orElseThrow();
+            OrderResponse order = orderService.createOrder(user.getId(), new CreateOrderRequest(
+                    List.of(firstCartItemId, secondCartItemId), addressId, "DUMMY"
+            ));
+
+            assertThat(productRepository.findStockById(product.getId())).contains(16);
+            assertThat(productRepository.findStockById(secondProduct.getId())).contains(3);
+
+            SqlStatementCounter.reset();
+
+            OrderResponse cancelled = orderService.adminUpdateOrderStatusToCancelled(order.getId());
+
+            assertThat(cancelled.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED.toString());
+            // Stock restored by JDBC batch, products never loaded as entities
+            assertThat(SqlStatementCounter.statements())
+                    .noneMatch(sql -> sql.toLowerCase().contains("from products"));
+
+            assertThat(productRepository.findStockById(product.getId())).contains(20);
+            assertThat(productRepository.findStockById(secondProduct.getId())).contains(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /admin/orders/export")
+    class ExportOrders {
+
+        private static final int ORDERS = 5;
+
+        @BeforeEach
+        void setUpOrders() {
+
+            User user = userRepository.findByEmail("email@gmail.com").orElseThrow();
+            Address address = addressRepository.findById(addressId).orElseThrow();
+
+            for (int i = 1; i <= ORDERS; i++) {
+                Order order = new Order(user, "ORD-EXPORT-" + i, address);
+                order.setPayment(new Payment(
+                        order, i * 1_000L, PaymentStatus.PENDING, PaymentMethod.DUMMY, null, null, null
+                ));
+                orderRepository.save(order);
+            }
+
+            // Fetch size 2 -> persistence context cleared twice during export
+            ReflectionTestUtils.setField(orderExportService, "fetchSize", 2);
+        }
+
+        @AfterEach
+        void tearDown() {
+            ReflectionTestUtils.setField(orderExportService, "fetchSize", 500);
+        }
+
+        private String export(OrderFilterRequest filter, ExportFormat format) throws Exception {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            orderExportService.exportOrders(filter, format).writeTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        @DisplayName("CSV - header + every order across several fetches, oldest first, no N+1")
+        void csv_everyOrderStreamed() throws Exception {
+
+            OrderFilterRequest filter = new OrderFilterRequest();
+            filter.setSort("OLDEST");
+
+            SqlStatementCounter.reset();
+            List<String> lines = export(filter, ExportFormat.CSV).lines().toList();
+
+            assertThat(lines).hasSize(ORDERS + 1);
+            assertThat(lines.getFirst()).startsWith("id,order_number,created_at,user_id,order_status");
+            assertThat(lines.get(1)).contains(",ORD-EXPORT-1,", ",PENDING,PENDING,DUMMY,1000,");
+            assertThat(lines.getLast()).contains(",ORD-EXPORT-5,", ",PENDING,PENDING,DUMMY,5000,");
+
+            // Payment fetched in the streamed query (no select per order)
+            assertThat(SqlStatementCounter.count("select")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("NDJSON - one JSON object per order, filtered by status")
+        void ndjson_filteredByStatus() throws Exception {
+
+            OrderFilterRequest filter = new OrderFilterRequest();
+            filter.setStatus("PENDING");
+
+            List<String> lines = export(filter, ExportFormat.NDJSON).lines().toList();
+
+            assertThat(lines).hasSize(ORDERS);
+            for (String line : lines) {
+                OrderExportRow row = objectMapper.readValue(line, OrderExportRow.class);
+                assertThat(row.getOrderNumber()).startsWith("ORD-EXPORT-");
+                assertThat(row.getOrderStatus()).isEqualTo(OrderStatus.PENDING.toString());
+            }
+
+            filter.setStatus("CANCELLED");
+            assertThat(export(filter, ExportFormat.NDJSON)).isEmpty();
+        }
+    }
 }
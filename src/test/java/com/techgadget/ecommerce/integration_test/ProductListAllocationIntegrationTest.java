@@ -0,0 +1,168 @@
+package com.techgadget.ecommerce.integration_test;
+
+import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.repository.ProductListRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Allocation of one product list page: entity hydration vs DTO projection
+ *
+ * Things that want to be verified:
+ * - Projection rows are not attached to the persistence context
+ * - Projection allocates less per request than the former entity path
+ *   (Product + EAGER category + images collection + JSONB dirty-checking snapshot)
+ *
+ * Allocated bytes are measured per thread (com.sun.management.ThreadMXBean),
+ * after warm-up, as the median of several runs.
+ */
+@DisplayName("Product List Allocation Integration Tests")
+public class ProductListAllocationIntegrationTest extends BaseIntegrationTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int WARM_UP = 50;
+    private static final int RUNS = 21;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private List<Long> pageIds;
+
+    @BeforeEach
+    void seed() {
+
+        jdbcTemplate.update("""
+                INSERT INTO categories (created_at, updated_at, name)
+                VALUES (LOCALTIMESTAMP, LOCALTIMESTAMP, 'Phone')
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO products (created_at, updated_at, category_id, name, description, price, stock, specs)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, (SELECT min(id) FROM categories),
+                       'Phone ' || g, repeat('description ', 20), 1000000 + g, 10,
+                       jsonb_build_object('ram', '8GB', 'storage', '256GB', 'processor', 'A17', 'model', g)
+                FROM generate_series(1, ?) g
+                """, PAGE_SIZE);
+
+        // 1 primary + 2 other images per product
+        jdbcTemplate.update("""
+                INSERT INTO product_images (created_at, updated_at, product_id, original_key, thumbnail_key, is_primary)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, p.id,
+                       'products/' || p.id || '/' || k || '.jpg',
+                       'products/' || p.id || '/' || k || '_thumb.jpg',
+                       k = 1
+                FROM products p, generate_series(1, 3) k
+                """);
+
+        pageIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+    }
+
+    /**
+     * Rows inserted with JdbcTemplate, clean up the same way
+     */
+    @AfterEach
+    void truncate() {
+        jdbcTemplate.execute("TRUNCATE product_images, products, categories");
+    }
+
+    @Test
+    @DisplayName("projection - one row per product, primary thumbnail key, nothing managed")
+    void projection_returnsFlatRows_nothingManaged() {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Integer managed = transaction.execute(status -> {
+            SqlStatementCounter.reset();
+
+            List<ProductListRow> rows = productRepository.findProductListRowsByIdIn(pageIds);
+
+            assertThat(rows).hasSize(PAGE_SIZE);
+            assertThat(rows).allSatisfy(row -> {
+                assertThat(row.categoryName()).isEqualTo("Phone");
+                assertThat(row.primaryImageKey()).isEqualTo("products/" + row.id() + "/1_thumb.jpg");
+                assertThat(row.specs()).containsEntry("ram", "8GB");
+            });
+            assertThat(SqlStatementCounter.count("select")).isEqualTo(1);
+
+            return entityManager.unwrap(SessionImplementor.class)
+                    .getPersistenceContext()
+                    .getNumberOfManagedEntities();
+        });
+
+        assertThat(managed).isZero();
+    }
+
+    @Test
+    @DisplayName("projection - allocates less per page than entity hydration")
+    void projection_allocatesLessThanEntities() {
+
+        // Former read path: products + EAGER category + images, managed (read-write transaction)
+        long entityBytes = medianAllocatedBytes(() -> entityManager.createQuery(
+                        "select distinct p from Product p " +
+                                "join fetch p.category " +
+                                "left join fetch p.images " +
+                                "where p.id in :ids", Product.class)
+                .setParameter("ids", pageIds)
+                .getResultList()
+                .size());
+
+        long projectionBytes = medianAllocatedBytes(() ->
+                productRepository.findProductListRowsByIdIn(pageIds).size());
+
+        assertThat(projectionBytes)
+                .as("Product list page of %d - entity: %d bytes, projection: %d bytes",
+                        PAGE_SIZE, entityBytes, projectionBytes)
+                .isLessThan(entityBytes);
+    }
+
+    /**
+     * Run loader in its own transaction (+ flush / dirty check on commit),
+     * return median allocated bytes of this thread per run
+     */
+    private long medianAllocatedBytes(Supplier<Integer> loader) {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARM_UP; i++) {
+            transaction.execute(status -> loader.get());
+        }
+
+        long[] allocated = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            Integer loaded = transaction.execute(status -> loader.get());
+            allocated[i] = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertThat(loaded).isEqualTo(PAGE_SIZE);
+        }
+
+        Arrays.sort(allocated);
+        return allocated[RUNS / 2];
+    }
+}
@@ -0,0 +1,118 @@
+package com.techgadget.ecommerce.integration_test;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * N+1 detector: SELECT budget per endpoint
+ *
+ * Imported by BaseIntegrationTest, wraps every MockMvc request (security filters included).
+ * Statements recorded by SqlStatementCounter during the request are checked against:
+ * - the endpoint's SELECT budget (BUDGETS, else DEFAULT_BUDGET)
+ * - the same SELECT prepared REPEAT_LIMIT times or more (lazy load in a loop)
+ *
+ * Violations are collected and fail the test in BaseIntegrationTest.assertQueryBudgets().
+ * Sequence calls (nextval) and statements of async work (streamed export) are not counted.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final int DEFAULT_BUDGET = 8;
+    static final int REPEAT_LIMIT = 3;
+
+    /**
+     * "METHOD pattern" -> max SELECT statements
+     * Includes the user lookup of JwtAuthenticationFilter on authenticated endpoints.
+     */
+    static final Map<String, Integer> BUDGETS = Map.ofEntries(
+            // user + exists category? + ids + count + list rows
+            Map.entry("GET /products/search", 5),
+            // user + product detail (images + category)
+            Map.entry("GET /products/{productId}", 2),
+            // user + page + count
+            Map.entry("GET /products/{productId}/reviews", 3),
+            // user + lines + snapshot misses | cart exists? (+ user & insert on first visit)
+            Map.entry("GET /cart", 4),
+            // user + carts.total_quantity
+            Map.entry("GET /cart/count", 2),
+            // user + cart (items, products, images) + added products (+ user on first visit)
+            Map.entry("POST /cart/items:batch", 4),
+            // user + ids + count + orders (items, payment, address)
+            Map.entry("GET /orders", 4),
+            // user + summaries + count
+            Map.entry("GET /orders/summaries", 3),
+            Map.entry("GET /admin/orders", 4),
+            // user + order (items, payment, address)
+            Map.entry("GET /orders/{orderId}", 2),
+            Map.entry("GET /admin/orders/{orderId}", 2)
+    );
+
+    private static final List<String> VIOLATIONS = new ArrayList<>();
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        int mark = SqlStatementCounter.mark();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            check(endpointOf(request), mark);
+        }
+    }
+
+    /**
+     * Take collected violations (and forget them)
+     */
+    static List<String> drainViolations() {
+        synchronized (VIOLATIONS) {
+            List<String> violations = List.copyOf(VIOLATIONS);
+            VIOLATIONS.clear();
+            return violations;
+        }
+    }
+
+    private void check(String endpoint, int mark) {
+
+        int budget = BUDGETS.getOrDefault(endpoint, DEFAULT_BUDGET);
+        long selects = SqlStatementCounter.countSince(mark, "select");
+        Map<String, Long> repeated = SqlStatementCounter.repeatedSelectsSince(mark, REPEAT_LIMIT);
+
+        List<String> violations = new ArrayList<>();
+        if (selects > budget) {
+            violations.add("%s ran %d SELECT statements, budget is %d:%n%s".formatted(
+                    endpoint, selects, budget, String.join("\n", SqlStatementCounter.statementsSince(mark))));
+        }
+        repeated.forEach((sql, times) -> violations.add(
+                "%s ran the same SELECT %d times (N+1):%n%s".formatted(endpoint, times, sql)));
+
+        if (!violations.isEmpty()) {
+            synchronized (VIOLATIONS) {
+                VIOLATIONS.addAll(violations);
+            }
+        }
+    }
+
+    /**
+     * "METHOD /route/{pattern}" of the matched handler, raw URI if none matched
+     */
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,297 @@
+package com.techgadget.ecommerce.integration_test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Query plans of repository queries on large seeded tables
+ *
+ * Things that want to be verified:
+ * - Every repository predicate / sort is backed by an index (V8__add_query_indexes.sql)
+ * - No sequential scan on a large table
+ *
+ * Each SQL has the same WHERE / ORDER BY / LIMIT as the repository query it mirrors.
+ * Small lookup tables (users, categories) may still be scanned.
+ */
+@DisplayName("Query Plan Integration Tests")
+public class QueryPlanIntegrationTest extends BaseIntegrationTest {
+
+    private static final int USERS = 2_000;
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS = 20_000;
+    private static final int ORDERS = 50_000;
+
+    private static final Pattern SEQ_SCAN_ON_LARGE_TABLE = Pattern.compile(
+            "Seq Scan on (orders|order_items|payments|products|product_images|product_reviews|cart_items)\\b"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+
+        jdbcTemplate.update("""
+                INSERT INTO users (created_at, updated_at, username, email, password, role, full_name)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, 'plan' || g, 'plan' || g || '@gmail.com', 'x', 'CUSTOMER', 'Plan'
+                FROM generate_series(1, ?) g
+                """, USERS);
+
+        jdbcTemplate.update("""
+                INSERT INTO addresses (created_at, updated_at, user_id, recipient_name, phone_number,
+                                       street, city, province, postal_code, is_default)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, u.id, 'Plan', '0812', 'street', 'city', 'province', '12345', true
+                FROM users u
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO carts (created_at, updated_at, user_id)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, u.id FROM users u
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO categories (created_at, updated_at, name)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, 'Plan category ' || g
+                FROM generate_series(1, ?) g
+                """, CATEGORIES);
+
+        jdbcTemplate.update("""
+                WITH c AS (SELECT array_agg(id ORDER BY id) AS ids FROM categories)
+                INSERT INTO products (created_at, updated_at, category_id, name, price, stock)
+                SELECT LOCALTIMESTAMP - (g % 365) * INTERVAL '1 day' - g * INTERVAL '1 second',
+                       LOCALTIMESTAMP,
+                       c.ids[1 + g % array_length(c.ids, 1)],
+                       'Plan product ' || g,
+                       100000 + (g * 7919) % 50000000,
+                       100
+                FROM generate_series(1, ?) g, c
+                """, PRODUCTS);
+
+        jdbcTemplate.update("""
+                INSERT INTO product_images (created_at, updated_at, product_id, original_key, is_primary)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, p.id, 'products/' || p.id || '/a.jpg', true
+                FROM products p
+                """);
+
+        jdbcTemplate.update("""
+                WITH u AS (SELECT array_agg(id ORDER BY id) AS ids FROM users),
+                     a AS (SELECT array_agg(id ORDER BY user_id) AS ids FROM addresses),
+                     s AS (SELECT ARRAY['PENDING', 'PROCESSING', 'SHIPPED', 'COMPLETED', 'CANCELLED'] AS ids)
+                INSERT INTO orders (created_at, updated_at, user_id, order_number, order_status, address_id)
+                SELECT LOCALTIMESTAMP - (g % 365) * INTERVAL '1 day' - g * INTERVAL '1 second',
+                       LOCALTIMESTAMP,
+                       u.ids[1 + g % array_length(u.ids, 1)],
+                       'PLAN-' || g,
+                       s.ids[1 + g % 5],
+                       a.ids[1 + g % array_length(a.ids, 1)]
+                FROM generate_series(1, ?) g, u, a, s
+                """, ORDERS);
+
+        jdbcTemplate.update("""
+                WITH p AS (SELECT array_agg(id ORDER BY id) AS ids FROM products)
+                INSERT INTO order_items (created_at, updated_at, order_id, product_id_snapshot,
+                                         product_name_snapshot, quantity, price_at_order, reviewed)
+                SELECT o.created_at, o.created_at, o.id, p.ids[1 + (o.id + k) % array_length(p.ids, 1)],
+                       'Plan product', 1, 100000, false
+                FROM orders o, generate_series(1, 2) k, p
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO payments (created_at, updated_at, order_id, amount, payment_status, payment_method)
+                SELECT o.created_at, o.created_at, o.id, 200000, 'PENDING', 'DUMMY'
+                FROM orders o
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO product_reviews (created_at, updated_at, user_id, product_id, order_item_id, rating)
+                SELECT oi.created_at, oi.created_at, o.user_id, oi.product_id_snapshot, oi.id, 1 + oi.id % 5
+                FROM order_items oi
+                JOIN orders o ON o.id = oi.order_id
+                WHERE oi.id % 3 = 0
+                """);
+
+        jdbcTemplate.update("""
+                WITH p AS (SELECT array_agg(id ORDER BY id) AS ids FROM products)
+                INSERT INTO cart_items (created_at, updated_at, cart_id, product_id, quantity)
+                SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, c.id, p.ids[1 + (c.id * 5 + k) % array_length(p.ids, 1)], 1
+                FROM carts c, generate_series(1, 5) k, p
+                """);
+
+        // Fresh statistics, like autovacuum would have on a real DB
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Seeded rows are too many for deleteAll() of BaseIntegrationTest
+     */
+    @AfterEach
+    void truncate() {
+        jdbcTemplate.execute("""
+                TRUNCATE product_reviews, payments, cart_items, order_items, orders, carts,
+                         product_images, addresses, refresh_tokens, products, users, categories
+                """);
+    }
+
+    @TestFactory
+    @DisplayName("repository queries - no seq scan on large tables")
+    Stream<DynamicTest> repositoryQueries_useIndexes() {
+
+        long userId = id("SELECT min(user_id) FROM orders");
+        long categoryId = id("SELECT min(category_id) FROM products");
+        long productId = id("SELECT min(product_id) FROM product_reviews");
+        long cartId = id("SELECT min(id) FROM carts");
+        String orderIds = idList("SELECT id FROM orders ORDER BY created_at DESC, id DESC LIMIT 20");
+        String productIds = idList("SELECT id FROM products ORDER BY created_at DESC, id DESC LIMIT 20");
+
+        Map<String, String> queries = new LinkedHashMap<>();
+
+        // OrderSearchRepository (customer)
+        queries.put("orders of user, latest first", """
+                SELECT o.id FROM orders o
+                WHERE o.user_id = %d
+                ORDER BY o.created_at DESC, o.id DESC LIMIT 11
+                """.formatted(userId));
+        queries.put("orders of user by status and date range", """
+                SELECT o.id FROM orders o
+                WHERE o.user_id = %d AND o.order_status = 'PENDING'
+                AND o.created_at >= LOCALTIMESTAMP - INTERVAL '30 days' AND o.created_at <= LOCALTIMESTAMP
+                ORDER BY o.created_at DESC, o.id DESC LIMIT 11
+                """.formatted(userId));
+        queries.put("count orders of user", """
+                SELECT count(o.id) FROM orders o WHERE o.user_id = %d
+                """.formatted(userId));
+
+        // OrderSearchRepository (admin)
+        queries.put("all orders, latest first", """
+                SELECT o.id FROM orders o
+                ORDER BY o.created_at DESC, o.id DESC LIMIT 11
+                """);
+        queries.put("all orders by status, latest first", """
+                SELECT o.id FROM orders o
+                WHERE o.order_status = 'SHIPPED'
+                ORDER BY o.created_at DESC, o.id DESC LIMIT 11
+                """);
+        queries.put("all orders in date range", """
+                SELECT o.id FROM orders o
+                WHERE o.created_at >= LOCALTIMESTAMP - INTERVAL '2 days' AND o.created_at <= LOCALTIMESTAMP
+                ORDER BY o.created_at DESC, o.id DESC LIMIT 11
+                """);
+        // OrderExpiryRepository.lockExpiredOrderIds
+        queries.put("stale pending orders", """
+                SELECT o.id FROM orders o
+                JOIN payments p ON p.order_id = o.id
+                WHERE o.order_status = 'PENDING' AND o.created_at < LOCALTIMESTAMP - INTERVAL '30 minutes'
+                AND p.payment_status = 'PENDING'
+                ORDER BY o.created_at, o.id LIMIT 200
+                FOR UPDATE OF o SKIP LOCKED
+                """);
+
+        // OrderRepository.findOrderListByIdIn (entity graph: items, payment, address)
+        queries.put("items, payment & address of order page", """
+                SELECT o.id, oi.id, p.id, a.id FROM orders o
+                LEFT JOIN order_items oi ON oi.order_id = o.id
+                LEFT JOIN payments p ON p.order_id = o.id
+                LEFT JOIN addresses a ON a.id = o.address_id
+                WHERE o.id IN (%s)
+                """.formatted(orderIds));
+
+        // ProductSearchRepository
+        queries.put("products of category by price", """
+                SELECT p.id FROM products p
+                WHERE p.category_id = %d
+                ORDER BY p.price, p.id LIMIT 11
+                """.formatted(categoryId));
+        queries.put("products of category, latest first", """
+                SELECT p.id FROM products p
+                WHERE p.category_id = %d
+                ORDER BY p.created_at DESC, p.id DESC LIMIT 11
+                """.formatted(categoryId));
+        queries.put("products in price range by price", """
+                SELECT p.id FROM products p
+                WHERE p.price >= 1000000 AND p.price <= 1200000
+                ORDER BY p.price, p.id LIMIT 11
+                """);
+        queries.put("all products, latest first", """
+                SELECT p.id FROM products p
+                ORDER BY p.created_at DESC, p.id DESC LIMIT 11
+                """);
+
+        // ProductRepository.findProductListRowsByIdIn (category + primary image)
+        queries.put("list rows of product page", """
+                SELECT p.id, c.name, COALESCE(pi.thumbnail_key, pi.original_key) FROM products p
+                JOIN categories c ON c.id = p.category_id
+                LEFT JOIN product_images pi ON pi.product_id = p.id AND pi.is_primary
+                WHERE p.id IN (%s)
+                """.formatted(productIds));
+        queries.put("primary image of product", """
+                SELECT pi.id FROM product_images pi
+                WHERE pi.product_id = %d AND pi.is_primary
+                """.formatted(productId));
+
+        // ProductReviewRepository
+        queries.put("reviews of product, latest first", """
+                SELECT pr.id FROM product_reviews pr
+                WHERE pr.product_id = %d
+                ORDER BY pr.created_at DESC, pr.id DESC LIMIT 11
+                """.formatted(productId));
+
+        // CartRepository.findByUser_IdWithItems / CartItemRepository
+        queries.put("items of cart", """
+                SELECT ci.id FROM cart_items ci
+                WHERE ci.cart_id = %d
+                """.formatted(cartId));
+
+        // CartRepository.findLinesByUserId
+        queries.put("lines of user's cart", """
+                SELECT ci.id, ci.product_id, ci.quantity FROM cart_items ci
+                JOIN carts c ON c.id = ci.cart_id
+                WHERE c.user_id = %d
+                ORDER BY ci.id
+                """.formatted(userId));
+
+        // ProductRepository.findSnapshotsByIdIn (primary image)
+        queries.put("snapshots of cart products", """
+                SELECT p.id, p.price, p.stock, COALESCE(pi.thumbnail_key, pi.original_key) FROM products p
+                LEFT JOIN product_images pi ON pi.product_id = p.id AND pi.is_primary
+                WHERE p.id IN (%s)
+                """.formatted(productIds));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    String plan = explain(query.getValue());
+                    assertThat(SEQ_SCAN_ON_LARGE_TABLE.matcher(plan).find())
+                            .as("Seq scan in plan of [%s]:%n%s", query.getKey(), plan)
+                            .isFalse();
+                }));
+    }
+
+    private String explain(String sql) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+
+    private long id(String sql) {
+        Long id = jdbcTemplate.queryForObject(sql, Long.class);
+        assertThat(id).isNotNull();
+        return id;
+    }
+
+    private String idList(String sql) {
+        return String.join(",", jdbcTemplate.queryForList(sql, Long.class).stream()
+                .map(String::valueOf)
+                .toList());
+    }
+}
@@ -0,0 +1,281 @@
+package com.techgadget.ecommerce.integration_test;
+
+import com.techgadget.ecommerce.dto.request.cart.AddCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest.CartItemOperation;
+import com.techgadget.ecommerce.dto.request.cart.UpdateCartItemRequest;
+import com.techgadget.ecommerce.dto.request.order.CreateOrderRequest;
+import com.techgadget.ecommerce.dto.response.cart.CartResponse;
+import com.techgadget.ecommerce.dto.response.order.OrderResponse;
+import com.techgadget.ecommerce.entity.Address;
+import com.techgadget.ecommerce.entity.Cart;
+import com.techgadget.ecommerce.entity.CartItem;
+import com.techgadget.ecommerce.entity.Category;
+import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.entity.User;
+import com.techgadget.ecommerce.enums.CartOperationType;
+import com.techgadget.ecommerce.exception.ConflictException;
+import com.techgadget.ecommerce.service.CartService;
+import com.techgadget.ecommerce.service.OrderService;
+import com.techgadget.ecommerce.service.RedisCartStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Cart kept in Redis, written behind to carts / cart_items
+ *
+ * Things that want to be verified:
+ * - Cart changes never touch carts / cart_items until flushed
+ * - Many changes of one cart are written once, with the same cart item IDs
+ * - Existing DB cart is loaded on first access, removals are written too
+ * - Checkout writes the cart through before reading it
+ * - Concurrent adds of one product all count, capped by stock
+ * - A batch is applied to the Redis hash & counter in one step
+ * - A DB row of the same product under another ID never blocks the flush
+ * - New cart item IDs come from one reserved sequence block, not one block per item
+ */
+@DisplayName("Redis Cart Store Integration Tests")
+public class RedisCartStoreIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private RedisCartStore redisCartStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+    private Product phone;
+    private Product laptop;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+
+        category = categoryRepository.save(new Category("Electronics", ""));
+        phone = productRepository.save(new Product(category, "Iphone 17", "", 20_000_000L, 10, Map.of()));
+        laptop = productRepository.save(new Product(category, "Macbook", "", 30_000_000L, 10, Map.of()));
+
+        user = userRepository.save(new User("user", "user@gmail.com", "password", "full name"));
+
+        ReflectionTestUtils.setField(redisCartStore, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(redisCartStore, "enabled", false);
+    }
+
+    private Map<Long, Integer> quantitiesInDb() {
+        return jdbcTemplate.query(
+                "SELECT id, quantity FROM cart_items",
+                rs -> {
+                    Map<Long, Integer> quantities = new HashMap<>();
+                    while (rs.next()) {
+                        quantities.put(rs.getLong("id"), rs.getInt("quantity"));
+                    }
+                    return quantities;
+                });
+    }
+
+    @Test
+    @DisplayName("many changes - nothing in DB before flush, one coalesced write after")
+    void manyChanges_writtenBehindOnce() {
+
+        cartService.addToCart(user.getId(), new AddCartItemRequest(phone.getId(), 1));
+        cartService.addToCart(user.getId(), new AddCartItemRequest(phone.getId(), 2));
+        CartResponse cart = cartService.addToCart(user.getId(), new AddCartItemRequest(laptop.getId(), 1));
+
+        long laptopItemId = cart.getItems().getLast().getId();
+        cart = cartService.updateCartItem(user.getId(), laptopItemId, new UpdateCartItemRequest(4));
+
+        assertThat(cart.getTotalItems()).isEqualTo(7);
+        assertThat(cart.getTotalPrice()).isEqualTo(3 * 20_000_000L + 4 * 30_000_000L);
+        assertThat(cartService.getCartItemCount(user.getId()).getCount()).isEqualTo(7);
+
+        // Not written yet: no cart, no item
+        assertThat(cartRepository.count()).isZero();
+        assertThat(cartItemRepository.count()).isZero();
+
+        redisCartStore.flush();
+
+        long phoneItemId = cart.getItems().getFirst().getId();
+        assertThat(cartRepository.count()).isEqualTo(1);
+        assertThat(quantitiesInDb()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                phoneItemId, 3,
+                laptopItemId, 4
+        ));
+    }
+
+    @Test
+    @DisplayName("existing DB cart - loaded on first access, removal written behind")
+    void existingDbCart_loadedThenRemovalWritten() {
+
+        Cart dbCart = new Cart(user);
+        dbCart.addItem(new CartItem(dbCart, phone, 2));
+        dbCart.addItem(new CartItem(dbCart, laptop, 1));
+        cartRepository.save(dbCart);
+
+        CartResponse cart = cartService.getCart(user.getId());
+        assertThat(cart.getItems()).hasSize(2);
+
+        long phoneItemId = cart.getItems().getFirst().getId();
+        long laptopItemId = cart.getItems().getLast().getId();
+
+        cartService.removeCartItem(user.getId(), phoneItemId);
+
+        // Still in DB until flushed
+        assertThat(cartItemRepository.count()).isEqualTo(2);
+
+        redisCartStore.flush();
+
+        assertThat(quantitiesInDb()).containsExactlyEntriesOf(Map.of(laptopItemId, 1));
+    }
+
+    @Test
+    @DisplayName("checkout - cart written through first, order created from Redis cart item IDs")
+    void checkout_cartWrittenThrough() {
+
+        Address address = addressRepository.save(new Address(
+                user, "Recipient", "08123456789", "Street", "City", "Province", "12345", null, true
+        ));
+
+        CartResponse cart = cartService.addToCart(user.getId(), new AddCartItemRequest(phone.getId(), 2));
+        long cartItemId = cart.getItems().getFirst().getId();
+
+        // No flush in between
+        OrderResponse order = orderService.createOrder(user.getId(), new CreateOrderRequest(
+                List.of(cartItemId), address.getId(), "DUMMY"
+        ));
+
+        assertThat(order.getTotalPrice()).isEqualTo(40_000_000L);
+        assertThat(productRepository.findStockById(phone.getId())).contains(8);
+    }
+
+    @Test
+    @DisplayName("12 parallel adds of one product on 10 stock - 10 counted, 2 rejected, none lost")
+    void parallelAdds_noneLost() throws Exception {
+
+        // Cart loaded into Redis first, adds race on the line only
+        cartService.getCart(user.getId());
+
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(12)) {
+            for (int i = 0; i < 12; i++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        cartService.addToCart(user.getId(), new AddCartItemRequest(phone.getId(), 1));
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    } catch (Throwable e) {
+                        synchronized (unexpected) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(rejected.get()).isEqualTo(2);
+
+        CartResponse cart = cartService.getCart(user.getId());
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getTotalItems()).isEqualTo(10);
+        assertThat(cartService.getCartItemCount(user.getId()).getCount()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("mixed batch - hash & counter in Redis match the applied add / update / remove")
+    void mixedBatch_hashAndCounterApplied() {
+
+        Product charger = productRepository.save(new Product(
+                category, "Charger", "", 500_000L, 10, Map.of()));
+
+        CartResponse cart = cartService.addToCart(user.getId(), new AddCartItemRequest(phone.getId(), 1));
+        cart = cartService.addToCart(user.getId(), new AddCartItemRequest(laptop.getId(), 2));
+        long phoneItemId = cart.getItems().getFirst().getId();
+        long laptopItemId = cart.getItems().getLast().getId();
+
+        cartService.applyBatch(user.getId(), new BatchCartItemRequest(List.of(
+                new CartItemOperation(CartOperationType.UPDATE, null, phoneItemId, 3),
+                new CartItemOperation(CartOperationType.REMOVE, null, laptopItemId, null),
+                new CartItemOperation(CartOperationType.ADD, charger.getId(), null, 2)
+        )));
+
+        Map<Object, Object> items = stringRedisTemplate.opsForHash().entries("cart:" + user.getId() + ":items");
+        assertThat(items).containsExactlyInAnyOrderEntriesOf(Map.of(
+                String.valueOf(phone.getId()), "3",
+                String.valueOf(charger.getId()), "2"
+        ));
+        assertThat(stringRedisTemplate.opsForValue().get("cart:" + user.getId() + ":count")).isEqualTo("5");
+        assertThat(stringRedisTemplate.opsForSet().isMember("cart:dirty", String.valueOf(user.getId()))).isTrue();
+    }
+
+    @Test
+    @DisplayName("same product already in DB under another ID - replaced, flush succeeds")
+    void sameProductInDbUnderOtherId_replaced() {
+
+        CartResponse cart = cartService.addToCart(user.getId(), new AddCartItemRequest(phone.getId(), 3));
+        long redisItemId = cart.getItems().getFirst().getId();
+
+        // Written on the DB path meanwhile: same (cart_id, product_id), other ID
+        Cart dbCart = new Cart(user);
+        dbCart.addItem(new CartItem(dbCart, phone, 1));
+        cartRepository.save(dbCart);
+
+        redisCartStore.flush();
+
+        assertThat(quantitiesInDb()).containsExactlyEntriesOf(Map.of(redisItemId, 3));
+    }
+
+    @Test
+    @DisplayName("new cart item IDs - 50 IDs take at most one sequence block")
+    void newCartItemIds_reservedPerBlock() {
+
+        String lastValueSql = "SELECT last_value FROM cart_items_seq";
+        long lastValueBefore = jdbcTemplate.queryForObject(lastValueSql, Long.class);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(cartRepository.nextCartItemId());
+        }
+
+        assertThat(ids).hasSize(50);
+        assertThat(jdbcTemplate.queryForObject(lastValueSql, Long.class) - lastValueBefore)
+                .isLessThanOrEqualTo(50);
+    }
+}
@@ -0,0 +1,117 @@
+package com.techgadget.ecommerce.integration_test;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records every SQL statement prepared by Hibernate on the current thread
+ *
+ * Registered as hibernate.session_factory.statement_inspector in BaseIntegrationTest.
+ * Statements run outside Hibernate (JdbcTemplate) are not recorded.
+ *
+ * Usage:
+ * SqlStatementCounter.reset() -> run code -> SqlStatementCounter.count("insert")
+ *
+ * Nested windows (e.g. one HTTP request inside a test, see QueryBudgetFilter):
+ * int mark = SqlStatementCounter.mark() -> run code -> SqlStatementCounter.countSince(mark, "select")
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    /**
+     * Position of the next recorded statement, start of a window
+     */
+    public static int mark() {
+        return STATEMENTS.get().size();
+    }
+
+    /**
+     * Statements recorded after mark (empty if reset() was called in between)
+     */
+    public static List<String> statementsSince(int mark) {
+        List<String> statements = STATEMENTS.get();
+        if (mark > statements.size()) {
+            return List.of();
+        }
+        return List.copyOf(statements.subList(mark, statements.size()));
+    }
+
+    /**
+     * Count statements starting with keyword (select, insert, update, delete)
+     * -
+     * Sequence calls (nextval) are not counted, see sequenceCalls()
+     */
+    public static long count(String keyword) {
+        return count(STATEMENTS.get(), keyword);
+    }
+
+    /**
+     * Same as count(keyword), only statements recorded after mark
+     */
+    public static long countSince(int mark, String keyword) {
+        return count(statementsSince(mark), keyword);
+    }
+
+    /**
+     * Count id block reservations (1 per allocationSize ids of an entity)
+     */
+    public static long sequenceCalls() {
+        return STATEMENTS.get().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(SqlStatementCounter::isSequenceCall)
+                .count();
+    }
+
+    /**
+     * N+1 signature: the same SELECT (same SQL, other bind values)
+     * prepared at least minRepeats times after mark
+     * -
+     * Return SQL -> number of executions
+     */
+    public static Map<String, Long> repeatedSelectsSince(int mark, int minRepeats) {
+
+        Map<String, Long> executions = new LinkedHashMap<>();
+        for (String sql : statementsSince(mark)) {
+            String normalized = sql.strip().toLowerCase(Locale.ROOT);
+            if (normalized.startsWith("select") && !isSequenceCall(normalized)) {
+                executions.merge(sql.strip(), 1L, Long::sum);
+            }
+        }
+
+        executions.values().removeIf(count -> count < minRepeats);
+        return executions;
+    }
+
+    private static long count(List<String> statements, String keyword) {
+        String prefix = keyword.toLowerCase(Locale.ROOT);
+        return statements.stream()
+                .map(sql -> sql.stripLeading().toLowerCase(Locale.ROOT))
+                .filter(sql -> !isSequenceCall(sql))
+                .filter(sql -> sql.startsWith(prefix))
+                .count();
+    }
+
+    private static boolean isSequenceCall(String sql) {
+        return sql.contains("nextval(");
+    }
+}
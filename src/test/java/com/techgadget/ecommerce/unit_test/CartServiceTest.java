@@ -1,20 +1,29 @@
 package com.techgadget.ecommerce.unit_test;
 
 import com.techgadget.ecommerce.dto.request.cart.AddCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest;
+import com.techgadget.ecommerce.dto.request.cart.BatchCartItemRequest.CartItemOperation;
 import com.techgadget.ecommerce.dto.request.cart.UpdateCartItemRequest;
 import com.techgadget.ecommerce.dto.response.cart.CartResponse;
 import com.techgadget.ecommerce.entity.Cart;
 import com.techgadget.ecommerce.entity.CartItem;
 import com.techgadget.ecommerce.entity.Product;
 import com.techgadget.ecommerce.entity.User;
+import com.techgadget.ecommerce.enums.CartOperationType;
+import com.techgadget.ecommerce.exception.BadRequestException;
 import com.techgadget.ecommerce.exception.ConflictException;
 import com.techgadget.ecommerce.exception.NotFoundException;
 import com.techgadget.ecommerce.repository.CartItemRepository;
+import com.techgadget.ecommerce.repository.CartLine;
 import com.techgadget.ecommerce.repository.CartRepository;
 import com.techgadget.ecommerce.repository.ProductRepository;
+import com.techgadget.ecommerce.repository.ProductSnapshot;
+import com.techgadget.ecommerce.repository.ProductStock;
 import com.techgadget.ecommerce.repository.UserRepository;
 import com.techgadget.ecommerce.service.CartService;
 import com.techgadget.ecommerce.service.ProductImageService;
+import com.techgadget.ecommerce.service.ProductSnapshotCache;
+import com.techgadget.ecommerce.service.RedisCartStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -25,6 +34,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -41,6 +52,8 @@ public class CartServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private ProductRepository productRepository;
     @Mock private ProductImageService productImageService;
+    @Mock private RedisCartStore redisCartStore;
+    @Mock private ProductSnapshotCache productSnapshotCache;
 
     // Shared test data
     private User user;
@@ -191,7 +204,8 @@ public class CartServiceTest {
         @DisplayName("cart exists - returns existing cart")
         void cartExists_returnsCart() {
 
-            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+            when(cartRepository.findLinesByUserId(1L)).thenReturn(List.of());
+            when(cartRepository.existsByUser_Id(1L)).thenReturn(true);
 
             CartResponse response = cartService.getCart(1L);
 
@@ -201,12 +215,38 @@ public class CartServiceTest {
             verify(cartRepository, never()).save(cart);
         }
 
+        @Test
+        @DisplayName("cart with items - built from lines & product snapshots, totals summed, no entity loaded")
+        void cartWithItems_builtFromLinesAndSnapshots() {
+
+            when(cartRepository.findLinesByUserId(1L)).thenReturn(List.of(
+                    new CartLine(1L, 1L, 2),
+                    new CartLine(2L, 2L, 1)
+            ));
+            when(productSnapshotCache.getAll(List.of(1L, 2L))).thenReturn(Map.of(
+                    1L, new ProductSnapshot(1L, "iPhone 15", 15_000_000L, 5, null),
+                    2L, new ProductSnapshot(2L, "AirPods", 3_000_000L, 5, null)
+            ));
+
+            CartResponse response = cartService.getCart(1L);
+
+            assertThat(response.getItems()).hasSize(2);
+            assertThat(response.getItems().getFirst().getSubtotal()).isEqualTo(30_000_000L);
+            assertThat(response.getTotalPrice()).isEqualTo(33_000_000L);
+            assertThat(response.getTotalItems()).isEqualTo(3);
+
+            verify(cartRepository, never()).findByUser_IdWithItems(any());
+            verify(cartRepository, never()).existsByUser_Id(any());
+            verifyNoInteractions(productRepository);
+        }
+
         @Test
         @DisplayName("cart not exists - creates and returns new cart")
         void cartNotExists_createNewCart_success() {
 
             // Returns empty
-            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.empty());
+            when(cartRepository.findLinesByUserId(1L)).thenReturn(List.of());
+            when(cartRepository.existsByUser_Id(1L)).thenReturn(false);
             when(userRepository.findById(1L)).thenReturn(Optional.of(user));
             when(cartRepository.save(any(Cart.class))).thenReturn(cart);
 
@@ -342,4 +382,304 @@ public class CartServiceTest {
             verify(cartRepository, times(1)).save(cart);
         }
     }
+
+    @Nested
+    @DisplayName("applyBatch()")
+    class ApplyBatch {
+
+        private Product airpods;
+        private Product charger;
+
+        @BeforeEach
+        void setUp() {
+            airpods = new Product();
+            ReflectionTestUtils.setField(airpods, "id", 2L);
+            airpods.setPrice(3_000_000L);
+            airpods.setStock(1);
+
+            charger = new Product();
+            ReflectionTestUtils.setField(charger, "id", 3L);
+            charger.setPrice(500_000L);
+            charger.setStock(10);
+
+            // Cart has iPhone x1 (item 1) & AirPods x1 (item 2)
+            CartItem phoneItem = new CartItem(cart, product, 1);
+            ReflectionTestUtils.setField(phoneItem, "id", 1L);
+            CartItem airpodsItem = new CartItem(cart, airpods, 1);
+            ReflectionTestUtils.setField(airpodsItem, "id", 2L);
+            cart.addItem(phoneItem);
+            cart.addItem(airpodsItem);
+        }
+
+        // Helper method: batch request of operations
+        private BatchCartItemRequest batch(CartItemOperation... operations) {
+            return new BatchCartItemRequest(List.of(operations));
+        }
+
+        @Test
+        @DisplayName("success - add / update / remove applied, new products loaded in one query, saved once")
+        void success_allOperationsApplied() {
+
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+            when(productRepository.findWithImagesByIdIn(List.of(3L))).thenReturn(List.of(charger));
+            when(cartRepository.save(cart)).thenReturn(cart);
+
+            CartResponse response = cartService.applyBatch(1L, batch(
+                    new CartItemOperation(CartOperationType.ADD, 3L, null, 2),
+                    new CartItemOperation(CartOperationType.UPDATE, null, 1L, 3),
+                    new CartItemOperation(CartOperationType.REMOVE, null, 2L, null),
+                    new CartItemOperation(CartOperationType.ADD, 3L, null, 1)
+            ));
+
+            assertThat(response.getItems())
+                    .extracting(CartResponse.CartItemResponse::getProductId, CartResponse.CartItemResponse::getQuantity)
+                    .containsExactlyInAnyOrder(tuple(1L, 3), tuple(3L, 3));
+            assertThat(response.getTotalItems()).isEqualTo(6);
+
+            verify(productRepository, times(1)).findWithImagesByIdIn(any());
+            verify(cartRepository, times(1)).save(cart);
+            verify(cartRepository, times(1)).refreshTotalQuantity(1L);
+        }
+
+        @Test
+        @DisplayName("stock insufficient on several products - one ConflictException listing all, nothing saved")
+        void insufficientStock_allReportedAtOnce() {
+
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+
+            assertThatThrownBy(() -> cartService.applyBatch(1L, batch(
+                    new CartItemOperation(CartOperationType.UPDATE, null, 1L, 6),
+                    new CartItemOperation(CartOperationType.ADD, 2L, null, 1)
+            )))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("[1, 2]");
+
+            verify(cartRepository, never()).save(any());
+            verify(productRepository, never()).findWithImagesByIdIn(any());
+        }
+
+        @Test
+        @DisplayName("update of item removed earlier in batch - throws NotFoundException, nothing saved")
+        void updateAfterRemove_throwsNotFound() {
+
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+
+            assertThatThrownBy(() -> cartService.applyBatch(1L, batch(
+                    new CartItemOperation(CartOperationType.REMOVE, null, 2L, null),
+                    new CartItemOperation(CartOperationType.UPDATE, null, 2L, 1)
+            )))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Cart item not found.");
+
+            verify(cartRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("add without quantity - throws BadRequestException")
+        void addWithoutQuantity_throwsBadRequest() {
+
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+
+            assertThatThrownBy(() -> cartService.applyBatch(1L, batch(
+                    new CartItemOperation(CartOperationType.ADD, 3L, null, null)
+            )))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Operation 1");
+        }
+    }
+
+    @Nested
+    @DisplayName("getCartItemCount()")
+    class GetCartItemCount {
+
+        @Test
+        @DisplayName("success - maintained counter returned, items not loaded")
+        void success_counterReturned() {
+
+            when(cartRepository.findTotalQuantityByUserId(1L)).thenReturn(Optional.of(7));
+
+            assertThat(cartService.getCartItemCount(1L).getCount()).isEqualTo(7);
+
+            verify(cartRepository, never()).findByUser_IdWithItems(anyLong());
+            verifyNoInteractions(cartItemRepository);
+        }
+
+        @Test
+        @DisplayName("no cart yet - returns 0, no cart created")
+        void noCart_returnsZero_noCartCreated() {
+
+            when(cartRepository.findTotalQuantityByUserId(1L)).thenReturn(Optional.empty());
+
+            assertThat(cartService.getCartItemCount(1L).getCount()).isZero();
+
+            verify(cartRepository, never()).save(any());
+            verifyNoInteractions(userRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Redis cart store")
+    class RedisStore {
+
+        // Helper method: snapshots with the shared product only
+        private Map<Long, ProductSnapshot> snapshots(int stock) {
+            return Map.of(1L, new ProductSnapshot(1L, "iPhone 15", 15_000_000L, stock, "products/1/a.jpg"));
+        }
+
+        @BeforeEach
+        void setUp() {
+            when(redisCartStore.isEnabled()).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("getCart - lines from Redis + product snapshots, carts never touched")
+        void getCart_fromRedis() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 2)));
+            when(productSnapshotCache.getAll(List.of(1L))).thenReturn(snapshots(5));
+
+            CartResponse response = cartService.getCart(1L);
+
+            assertThat(response.getItems()).hasSize(1);
+            assertThat(response.getItems().getFirst().getId()).isEqualTo(7L);
+            assertThat(response.getTotalPrice()).isEqualTo(30_000_000L);
+            assertThat(response.getTotalItems()).isEqualTo(2);
+            verifyNoInteractions(cartRepository, cartItemRepository, userRepository, productRepository);
+        }
+
+        @Test
+        @DisplayName("addToCart new product - cart item ID allocated, line written to Redis only")
+        void addToCart_newProduct_lineWrittenToRedis() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of());
+            when(productSnapshotCache.getAll(List.of(1L))).thenReturn(snapshots(5));
+            when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+            when(cartRepository.nextCartItemId()).thenReturn(50L);
+            when(redisCartStore.add(1L, 1L, 50L, 2, 5)).thenReturn(new CartLine(50L, 1L, 2));
+
+            CartResponse response = cartService.addToCart(1L, new AddCartItemRequest(1L, 2));
+
+            verify(redisCartStore, never()).put(anyLong(), any());
+            verify(cartRepository, never()).save(any());
+            verifyNoInteractions(cartItemRepository);
+            assertThat(response.getItems()).extracting(CartResponse.CartItemResponse::getId).containsExactly(50L);
+        }
+
+        @Test
+        @DisplayName("addToCart existing product, stock insufficient - throws ConflictException, nothing written")
+        void addToCart_existingProductInsufficientStock_throwsConflict() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 4)));
+            when(productSnapshotCache.getAll(List.of(1L))).thenReturn(snapshots(5));
+            when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+            // 4 + 2 over stock 5: rejected by the add script
+            when(redisCartStore.add(1L, 1L, 7L, 2, 5)).thenReturn(null);
+
+            assertThatThrownBy(() -> cartService.addToCart(1L, new AddCartItemRequest(1L, 2)))
+                    .isInstanceOf(ConflictException.class);
+
+            verify(redisCartStore, never()).put(anyLong(), any());
+            verifyNoInteractions(cartItemRepository);
+        }
+
+        @Test
+        @DisplayName("addToCart, snapshot stock stale - checked against DB stock, throws ConflictException")
+        void addToCart_staleSnapshotStock_checkedAgainstDb() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of());
+            when(productSnapshotCache.getAll(List.of(1L))).thenReturn(snapshots(5));
+            when(productRepository.findStockById(1L)).thenReturn(Optional.of(1));
+            when(cartRepository.nextCartItemId()).thenReturn(50L);
+            when(redisCartStore.add(1L, 1L, 50L, 2, 1)).thenReturn(null);
+
+            assertThatThrownBy(() -> cartService.addToCart(1L, new AddCartItemRequest(1L, 2)))
+                    .isInstanceOf(ConflictException.class);
+
+            verify(redisCartStore, never()).put(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("updateCartItem, snapshot stock stale - checked against DB stock, throws ConflictException")
+        void updateCartItem_staleSnapshotStock_checkedAgainstDb() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 2)));
+            when(productSnapshotCache.getAll(List.of(1L))).thenReturn(snapshots(5));
+            when(productRepository.findStockById(1L)).thenReturn(Optional.of(2));
+
+            assertThatThrownBy(() -> cartService.updateCartItem(1L, 7L, new UpdateCartItemRequest(3)))
+                    .isInstanceOf(ConflictException.class);
+
+            verify(redisCartStore, never()).put(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("updateCartItem unknown item - throws NotFoundException")
+        void updateCartItem_unknownItem_throwsNotFound() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 2)));
+
+            assertThatThrownBy(() -> cartService.updateCartItem(1L, 8L, new UpdateCartItemRequest(3)))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Cart item not found.");
+        }
+
+        @Test
+        @DisplayName("removeCartItem - line removed from Redis")
+        void removeCartItem_lineRemoved() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 2)));
+
+            CartResponse response = cartService.removeCartItem(1L, 7L);
+
+            verify(redisCartStore, times(1)).remove(1L, List.of(1L));
+            assertThat(response.getItems()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("applyBatch - removed & changed lines applied in one call, carts never touched")
+        void applyBatch_writtenToRedis() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 2), new CartLine(8L, 2L, 1)));
+            when(productRepository.findStocksByIdIn(List.of(1L))).thenReturn(List.of(new ProductStock(1L, 5)));
+            when(productSnapshotCache.getAll(any())).thenReturn(snapshots(5));
+
+            CartResponse response = cartService.applyBatch(1L, new BatchCartItemRequest(List.of(
+                    new CartItemOperation(CartOperationType.REMOVE, null, 8L, null),
+                    new CartItemOperation(CartOperationType.ADD, 1L, null, 1)
+            )));
+
+            verify(redisCartStore, times(1)).apply(1L, List.of(2L), List.of(new CartLine(7L, 1L, 3)));
+            verify(redisCartStore, never()).put(anyLong(), any());
+            verify(redisCartStore, never()).remove(anyLong(), any());
+            verify(cartRepository, never()).save(any());
+            assertThat(response.getTotalItems()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("applyBatch, snapshot stock stale - checked against DB stock of changed lines, nothing written")
+        void applyBatch_staleSnapshotStock_checkedAgainstDb() {
+
+            when(redisCartStore.lines(1L)).thenReturn(List.of(new CartLine(7L, 1L, 2), new CartLine(8L, 2L, 1)));
+            when(productRepository.findStocksByIdIn(List.of(1L))).thenReturn(List.of(new ProductStock(1L, 2)));
+
+            assertThatThrownBy(() -> cartService.applyBatch(1L, new BatchCartItemRequest(List.of(
+                    new CartItemOperation(CartOperationType.ADD, 1L, null, 1)
+            ))))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("[1]");
+
+            verify(redisCartStore, never()).apply(anyLong(), any(), any());
+            verifyNoInteractions(productSnapshotCache);
+        }
+
+        @Test
+        @DisplayName("getCartItemCount - counter from Redis, no DB query")
+        void getCartItemCount_fromRedis() {
+
+            when(redisCartStore.count(1L)).thenReturn(5);
+
+            assertThat(cartService.getCartItemCount(1L).getCount()).isEqualTo(5);
+            verifyNoInteractions(cartRepository, productRepository);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techgadget.ecommerce.dto.request.order.CreateOrderRequest;
+import com.techgadget.ecommerce.dto.response.order.OrderResponse;
+import com.techgadget.ecommerce.exception.BadRequestException;
+import com.techgadget.ecommerce.exception.ConflictException;
+import com.techgadget.ecommerce.exception.UnprocessableContentException;
+import com.techgadget.ecommerce.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    private static final String KEY = "idempotency:order:create:1:abc";
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private TaskScheduler taskScheduler;
+    @Mock private ScheduledFuture<?> heartbeat;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyService idempotencyService;
+    private CreateOrderRequest request;
+    private OrderResponse order;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(
+                stringRedisTemplate,
+                objectMapper,
+                taskScheduler,
+                Duration.ofHours(24),
+                Duration.ofMinutes(1)
+        );
+
+        request = new CreateOrderRequest(List.of(1L, 2L), 1L, "DUMMY");
+
+        order = OrderResponse.builder()
+                .id(10L)
+                .orderNumber("ORD-10")
+                .orderStatus("PENDING")
+                .build();
+        executions = new AtomicInteger();
+    }
+
+    // Helper method: run create order with idempotency key
+    private OrderResponse createOrder(String idempotencyKey) {
+        return createOrder(idempotencyKey, request);
+    }
+
+    private OrderResponse createOrder(String idempotencyKey, CreateOrderRequest body) {
+        return idempotencyService.execute("order:create", 1L, idempotencyKey, body, OrderResponse.class, () -> {
+            executions.incrementAndGet();
+            return order;
+        });
+    }
+
+    // Helper method: stored value prefix of a request (SHA-256 of its JSON)
+    private String hashOf(Object body) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    }
+
+    // Helper method: claim succeeds, heartbeat scheduled
+    private void claimSucceeds() throws Exception {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(KEY, hashOf(request) + ":IN_PROGRESS", Duration.ofMinutes(1)))
+                .thenReturn(true);
+        doReturn(heartbeat).when(taskScheduler).scheduleAtFixedRate(any(Runnable.class), eq(Duration.ofSeconds(20)));
+    }
+
+    // Helper method: key already claimed / stored
+    private void alreadyClaimed(String storedValue) throws Exception {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMinutes(1)))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(storedValue);
+    }
+
+    @Test
+    @DisplayName("first request - key claimed, operation runs, response stored with TTL")
+    void firstRequest_runsAndStoresResponse() throws Exception {
+
+        claimSucceeds();
+
+        OrderResponse response = createOrder("abc");
+
+        assertThat(response).isSameAs(order);
+        assertThat(executions).hasValue(1);
+        verify(valueOperations).set(
+                KEY, hashOf(request) + ":" + objectMapper.writeValueAsString(order), Duration.ofHours(24));
+        verify(heartbeat).cancel(false);
+    }
+
+    @Test
+    @DisplayName("retry - stored response replayed, operation not run")
+    void retry_replaysStoredResponse() throws Exception {
+
+        alreadyClaimed(hashOf(request) + ":" + objectMapper.writeValueAsString(order));
+
+        OrderResponse response = createOrder("abc");
+
+        assertThat(response).isEqualTo(order);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("same key, different request body - throws UnprocessableContentException")
+    void sameKeyDifferentBody_throwsUnprocessableContent() throws Exception {
+
+        alreadyClaimed(hashOf(request) + ":" + objectMapper.writeValueAsString(order));
+
+        CreateOrderRequest otherRequest = new CreateOrderRequest(List.of(3L), 1L, "DUMMY");
+
+        assertThatThrownBy(() -> createOrder("abc", otherRequest))
+                .isInstanceOf(UnprocessableContentException.class)
+                .hasMessageContaining("different request");
+
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("retry while first request running - throws ConflictException")
+    void retryWhileInProgress_throwsConflict() throws Exception {
+
+        alreadyClaimed(hashOf(request) + ":IN_PROGRESS");
+
+        assertThatThrownBy(() -> createOrder("abc"))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("still being processed");
+
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("operation fails - key released so the client can retry")
+    void operationFails_keyReleased() throws Exception {
+
+        claimSucceeds();
+
+        assertThatThrownBy(() -> idempotencyService.execute(
+                "order:create", 1L, "abc", request, OrderResponse.class,
+                () -> { throw new ConflictException("Product quantity insufficient."); }))
+                .isInstanceOf(ConflictException.class);
+
+        verify(heartbeat).cancel(false);
+        verify(stringRedisTemplate).delete(KEY);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("no key - operation runs, Redis not touched")
+    void noKey_runsWithoutRedis() {
+
+        createOrder(null);
+
+        assertThat(executions).hasValue(1);
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("key too long - throws BadRequestException")
+    void keyTooLong_throwsBadRequest() {
+
+        assertThatThrownBy(() -> createOrder("k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1)))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Redis down - operation runs without idempotency")
+    void redisDown_runsWithoutIdempotency() {
+
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMinutes(1))))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        OrderResponse response = createOrder("abc");
+
+        assertThat(response).isSameAs(order);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("long operation - heartbeat extends the in-progress claim while it runs")
+    void longOperation_heartbeatExtendsClaim() throws Exception {
+
+        claimSucceeds();
+        ArgumentCaptor<Runnable> tick = ArgumentCaptor.forClass(Runnable.class);
+
+        idempotencyService.execute("order:create", 1L, "abc", request, OrderResponse.class, () -> {
+            verify(taskScheduler).scheduleAtFixedRate(tick.capture(), eq(Duration.ofSeconds(20)));
+            tick.getValue().run();
+            return order;
+        });
+
+        verify(stringRedisTemplate).execute(
+                any(RedisScript.class), eq(List.of(KEY)), eq(hashOf(request) + ":IN_PROGRESS"), eq("60000"));
+        verify(heartbeat).cancel(false);
+    }
+}
@@ -0,0 +1,161 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.techgadget.ecommerce.service.MinioStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MinioStorageServiceTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private MinioStorageService createService(String publicBaseUrl) {
+        return new MinioStorageService(
+                minioClient,
+                meterRegistry,
+                "techgadget",
+                publicBaseUrl,
+                Duration.ofHours(1),
+                Duration.ofMinutes(20),
+                100,
+                4
+        );
+    }
+
+    private double presignCount(String source) {
+        return meterRegistry.get("storage.presign.requests")
+                .tag("source", source)
+                .counter()
+                .count();
+    }
+
+    @Nested
+    @DisplayName("generateViewUrl()")
+    class GenerateViewUrl {
+
+        @Test
+        @DisplayName("same key twice - signs once, reuses url")
+        void sameKeyTwice_signsOnce() throws Exception {
+
+            MinioStorageService storageService = createService("");
+
+            when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                    .thenReturn("http://minio/techgadget/products/1/a.jpg?X-Amz-Signature=abc");
+
+            String first = storageService.generateViewUrl("products/1/a.jpg");
+            String second = storageService.generateViewUrl("products/1/a.jpg");
+
+            assertThat(second).isEqualTo(first);
+            verify(minioClient, times(1)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+
+            assertThat(presignCount("signed")).isEqualTo(1.0);
+            assertThat(presignCount("cached")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("signing fails - returns null and retries on next call")
+        void signingFails_returnsNullAndRetries() throws Exception {
+
+            MinioStorageService storageService = createService("");
+
+            when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                    .thenThrow(new IllegalStateException("MinIO down"))
+                    .thenReturn("http://minio/techgadget/products/1/a.jpg?X-Amz-Signature=abc");
+
+            assertThat(storageService.generateViewUrl("products/1/a.jpg")).isNull();
+            assertThat(storageService.generateViewUrl("products/1/a.jpg")).isNotNull();
+
+            verify(minioClient, times(2)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+        }
+
+        @Test
+        @DisplayName("public base url - builds url without signing")
+        void publicBaseUrl_doesNotSign() throws Exception {
+
+            MinioStorageService storageService = createService("https://cdn.example.com/techgadget/");
+
+            String url = storageService.generateViewUrl("products/1/a.jpg");
+
+            assertThat(url).isEqualTo("https://cdn.example.com/techgadget/products/1/a.jpg");
+            verify(minioClient, never()).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+            assertThat(presignCount("public")).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("generateViewUrls()")
+    class GenerateViewUrls {
+
+        @Test
+        @DisplayName("duplicate & null keys - signs each distinct key once")
+        void duplicateKeys_signsEachKeyOnce() throws Exception {
+
+            MinioStorageService storageService = createService("");
+
+            when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                    .thenAnswer(inv -> "http://minio/" + inv.<GetPresignedObjectUrlArgs>getArgument(0).object());
+
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                keys.add("products/" + (i % 10) + "/a.jpg");
+            }
+            keys.add(null);
+
+            Map<String, String> urls = storageService.generateViewUrls(keys);
+
+            assertThat(urls).hasSize(10);
+            assertThat(urls.get("products/3/a.jpg")).isEqualTo("http://minio/products/3/a.jpg");
+            verify(minioClient, times(10)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+
+            // Second batch is served from cache
+            storageService.generateViewUrls(keys);
+            verify(minioClient, times(10)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+            assertThat(presignCount("cached")).isEqualTo(10.0);
+        }
+
+        @Test
+        @DisplayName("signing fails for one key - key is absent, others returned")
+        void signingFailsForOneKey_keyIsAbsent() throws Exception {
+
+            MinioStorageService storageService = createService("");
+
+            when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                    .thenAnswer(inv -> {
+                        String key = inv.<GetPresignedObjectUrlArgs>getArgument(0).object();
+                        if (key.equals("bad.jpg")) {
+                            throw new IllegalStateException("MinIO down");
+                        }
+                        return "http://minio/" + key;
+                    });
+
+            Map<String, String> urls = storageService.generateViewUrls(List.of("a.jpg", "bad.jpg", "b.jpg"));
+
+            assertThat(urls).containsOnlyKeys("a.jpg", "b.jpg");
+        }
+    }
+}
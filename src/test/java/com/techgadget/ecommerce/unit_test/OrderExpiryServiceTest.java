@@ -0,0 +1,127 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.techgadget.ecommerce.repository.OrderRepository;
+import com.techgadget.ecommerce.service.OrderExpiryService;
+import com.techgadget.ecommerce.service.StockLedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderExpiryServiceTest {
+
+    @Mock private OrderRepository orderRepository;
+    @Mock private StockLedgerService stockLedgerService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private OrderExpiryService orderExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        // Batches of 2 orders, at most 3 batches per run
+        orderExpiryService = new OrderExpiryService(
+                orderRepository,
+                stockLedgerService,
+                transactionManager,
+                Duration.ofMinutes(30),
+                2,
+                3
+        );
+    }
+
+    @Test
+    @DisplayName("expired orders - cancelled & stock restored chunk by chunk until a partial chunk")
+    void expiredOrders_cancelledChunkByChunk() {
+
+        when(orderRepository.tryAdvisoryXactLock(anyLong())).thenReturn(true);
+        when(orderRepository.lockExpiredOrderIds(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(orderRepository.cancelUnpaidOrders(List.of(1L, 2L))).thenReturn(2);
+        when(orderRepository.cancelUnpaidOrders(List.of(3L))).thenReturn(1);
+
+        int expired = orderExpiryService.expireUnpaidOrders();
+
+        assertThat(expired).isEqualTo(3);
+
+        // One transaction per chunk
+        verify(transactionManager, times(2)).commit(any());
+        verify(stockLedgerService).restoreOrders(List.of(1L, 2L));
+        verify(stockLedgerService).restoreOrders(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("cutoff - orders created before now - TTL")
+    void cutoff_isNowMinusTtl() {
+
+        when(orderRepository.tryAdvisoryXactLock(anyLong())).thenReturn(true);
+        when(orderRepository.lockExpiredOrderIds(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now().minusMinutes(30);
+        orderExpiryService.expireUnpaidOrders();
+        LocalDateTime after = LocalDateTime.now().minusMinutes(30);
+
+        verify(orderRepository).lockExpiredOrderIds(
+                argThat(cutoff -> !cutoff.isBefore(before) && !cutoff.isAfter(after)), eq(2));
+        verify(orderRepository, never()).cancelUnpaidOrders(any());
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    @Test
+    @DisplayName("full chunks - stops after max batches per run")
+    void fullChunks_stopsAfterMaxBatches() {
+
+        when(orderRepository.tryAdvisoryXactLock(anyLong())).thenReturn(true);
+        when(orderRepository.lockExpiredOrderIds(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L));
+        when(orderRepository.cancelUnpaidOrders(List.of(1L, 2L))).thenReturn(2);
+
+        int expired = orderExpiryService.expireUnpaidOrders();
+
+        assertThat(expired).isEqualTo(6);
+        verify(orderRepository, times(3)).lockExpiredOrderIds(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("lock held by another node - nothing expired")
+    void lockHeldByAnotherNode_skipsRun() {
+
+        when(orderRepository.tryAdvisoryXactLock(anyLong())).thenReturn(false);
+
+        int expired = orderExpiryService.expireUnpaidOrders();
+
+        assertThat(expired).isZero();
+        verify(orderRepository, never()).lockExpiredOrderIds(any(), anyInt());
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    @Test
+    @DisplayName("stock restore fails - chunk rolled back, run stops")
+    void restoreFails_rolledBack() {
+
+        when(orderRepository.tryAdvisoryXactLock(anyLong())).thenReturn(true);
+        when(orderRepository.lockExpiredOrderIds(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L));
+        when(orderRepository.cancelUnpaidOrders(List.of(1L, 2L))).thenReturn(2);
+        doThrow(new RuntimeException("DB down"))
+                .when(stockLedgerService).restoreOrders(List.of(1L, 2L));
+
+        int expired = orderExpiryService.expireUnpaidOrders();
+
+        assertThat(expired).isZero();
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
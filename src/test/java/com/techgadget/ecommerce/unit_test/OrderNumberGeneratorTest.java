@@ -0,0 +1,144 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.techgadget.ecommerce.service.OrderNumberGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class OrderNumberGeneratorTest {
+
+    private static final long NOW = OrderNumberGenerator.EPOCH + 1_000_000L;
+
+    // Helper method: node ID bits of an ID
+    private long nodeIdOf(long id) {
+        return (id >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID;
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    @DisplayName("8 threads x 500k IDs - all unique, monotonic per thread")
+    void concurrentThreads_allUniqueAndMonotonic() throws Exception {
+
+        int threads = 8;
+        int idsPerThread = 500_000;
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, System::currentTimeMillis);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[idsPerThread];
+                    start.await();
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[threads * idsPerThread];
+            for (int t = 0; t < threads; t++) {
+                long[] ids = futures.get(t).get();
+
+                // Strictly increasing within a thread
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, t * idsPerThread, idsPerThread);
+            }
+
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertThat(all[i]).as("Duplicate ID %d", all[i]).isNotEqualTo(all[i - 1]);
+            }
+            assertThat(Arrays.stream(all).allMatch(id -> nodeIdOf(id) == 7)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("frozen clock - more than 4096 IDs in one millisecond, still unique & increasing")
+    void frozenClock_sequenceOverflowBorrowsNextMillisecond() {
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(nodeIdOf(id)).isEqualTo(1);
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("clock moved back - IDs keep increasing")
+    void clockMovedBack_stillIncreasing() {
+
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("two nodes, same millisecond - no collision")
+    void twoNodesSameMillisecond_noCollision() {
+
+        OrderNumberGenerator first = new OrderNumberGenerator(1, () -> NOW);
+        OrderNumberGenerator second = new OrderNumberGenerator(2, () -> NOW);
+
+        long[] firstIds = new long[5_000];
+        long[] secondIds = new long[5_000];
+        for (int i = 0; i < 5_000; i++) {
+            firstIds[i] = first.nextId();
+            secondIds[i] = second.nextId();
+        }
+
+        assertThat(firstIds).doesNotContain(secondIds);
+    }
+
+    @Test
+    @DisplayName("order number - ORD- prefix followed by the ID")
+    void orderNumber_prefixedId() {
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, () -> NOW);
+
+        assertThat(generator.nextOrderNumber()).matches("ORD-\\d{1,19}");
+    }
+
+    @Test
+    @DisplayName("node id out of range - throws IllegalArgumentException")
+    void nodeIdOutOfRange_throws() {
+
+        assertThatThrownBy(() -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("node id not configured - fails fast instead of deriving one")
+    void nodeIdNotConfigured_failsFast() {
+
+        assertThatThrownBy(() -> new OrderNumberGenerator(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.order.number.node-id");
+    }
+}
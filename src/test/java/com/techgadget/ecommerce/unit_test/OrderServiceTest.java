@@ -5,6 +5,7 @@ import com.techgadget.ecommerce.dto.request.order.OrderFilterRequest;
 import com.techgadget.ecommerce.dto.request.order.UpdateOrderStatusToShipRequest;
 import com.techgadget.ecommerce.dto.response.PaginatedResponse;
 import com.techgadget.ecommerce.dto.response.order.OrderResponse;
+import com.techgadget.ecommerce.dto.response.order.OrderSummaryResponse;
 import com.techgadget.ecommerce.entity.*;
 import com.techgadget.ecommerce.enums.OrderStatus;
 import com.techgadget.ecommerce.enums.PaymentMethod;
@@ -13,25 +14,35 @@ import com.techgadget.ecommerce.exception.BadRequestException;
 import com.techgadget.ecommerce.exception.ConflictException;
 import com.techgadget.ecommerce.exception.NotFoundException;
 import com.techgadget.ecommerce.repository.*;
+import com.techgadget.ecommerce.service.HotInventoryService;
+import com.techgadget.ecommerce.service.OrderNumberGenerator;
 import com.techgadget.ecommerce.service.OrderService;
+import com.techgadget.ecommerce.service.ProductDetailCacheService;
 import com.techgadget.ecommerce.service.ProductImageService;
+import com.techgadget.ecommerce.service.RedisCartStore;
+import com.techgadget.ecommerce.service.StockLedgerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,8 +59,12 @@ public class OrderServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private AddressRepository addressRepository;
     @Mock private ProductRepository productRepository;
-    @Mock private PaymentRepository paymentRepository;
     @Mock private ProductImageService productImageService;
+    @Mock private ProductDetailCacheService productDetailCacheService;
+    @Mock private HotInventoryService hotInventoryService;
+    @Mock private StockLedgerService stockLedgerService;
+    @Mock private OrderNumberGenerator orderNumberGenerator;
+    @Mock private RedisCartStore redisCartStore;
 
     // Shared test data
     private User user;
@@ -189,19 +204,16 @@ public class OrderServiceTest {
 
             CreateOrderRequest request = buildCreateOrderRequest(List.of(1L));
 
-            Order pendingOrder = createPendingOrder();
-            Payment pendingPayment = pendingOrder.getPayment();
-
             when(userRepository.findById(1L)).thenReturn(Optional.of(user));
             when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
             when(addressRepository.findByIdAndUser_Id(1L, 1L)).thenReturn(Optional.of(shippingAddress));
-            when(paymentRepository.save(any(Payment.class)))
-                    .thenReturn(pendingPayment);
-            when(orderRepository.save(any(Order.class)))
-                    .thenReturn(pendingOrder);
-            // order.getId() is populated after save() returns pendingOrder (id=1L)
-            when(orderRepository.findUserOrderById(eq(1L), eq(1L)))
-                    .thenReturn(Optional.of(pendingOrder));
+            when(orderNumberGenerator.nextOrderNumber()).thenReturn("ORD-42");
+            // persist() keeps the same instance, id is assigned
+            when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
+                Order order = inv.getArgument(0);
+                ReflectionTestUtils.setField(order, "id", 1L);
+                return order;
+            });
 
             OrderResponse response = orderService.createOrder(1L, request);
 
@@ -210,11 +222,23 @@ public class OrderServiceTest {
             assertThat(response.getOrderStatus()).isEqualTo(OrderStatus.PENDING.toString());
             assertThat(response.getPaymentStatus()).isEqualTo(PaymentStatus.PENDING.toString());
 
-            // Product stock must be decremented from 5 to 3
-            assertThat(product.getStock()).isEqualTo(3);
-
-            verify(orderRepository, atLeastOnce()).save(any(Order.class));
-            verify(paymentRepository, times(1)).save(any(Payment.class));
+            // Product stock must be decremented by 2 in DB (conditional update)
+            verify(productRepository, times(1)).decreaseStocks(Map.of(1L, 2));
+            verify(productRepository, never()).save(any(Product.class));
+
+            // Snapshot data mapped from the persisted graph
+            assertThat(response.getId()).isEqualTo(1L);
+            assertThat(response.getOrderNumber()).isEqualTo("ORD-42");
+            assertThat(response.getTotalPrice()).isEqualTo(30_000_000L);
+            assertThat(response.getItems()).hasSize(1);
+            assertThat(response.getItems().getFirst().getProductName()).isEqualTo("Iphone 14");
+
+            // Order + OrderItems + Payment persisted by a single save, no re-fetch
+            ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+            verify(orderRepository, times(1)).save(orderCaptor.capture());
+            assertThat(orderCaptor.getValue().getPayment().getAmount()).isEqualTo(30_000_000L);
+            assertThat(orderCaptor.getValue().getPayment().getOrder()).isSameAs(orderCaptor.getValue());
+            verify(orderRepository, never()).findUserOrderById(any(), any());
         }
 
         @Test
@@ -286,6 +310,67 @@ public class OrderServiceTest {
                     .hasMessageContaining("Product quantity insufficient.");
         }
 
+        @Test
+        @DisplayName("stock taken by concurrent checkout - throws ConflictException, no order saved")
+        void stockTakenConcurrently_throwsConflictException() {
+
+            // Loaded stock (5) is sufficient, but conditional update in DB matches no row
+            CreateOrderRequest request = buildCreateOrderRequest(List.of(1L));
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+            when(addressRepository.findByIdAndUser_Id(1L, 1L)).thenReturn(Optional.of(shippingAddress));
+            when(productRepository.decreaseStocks(Map.of(1L, 2))).thenReturn(List.of(1L));
+
+            assertThatThrownBy(() -> orderService.createOrder(1L, request))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("Product quantity insufficient.");
+
+            verify(orderRepository, never()).save(any(Order.class));
+            verify(productDetailCacheService, never()).evict(anyCollection());
+        }
+
+        @Test
+        @DisplayName("hot product - reserved in Redis, DB stock not updated")
+        void hotProduct_reservedInRedis() {
+
+            CreateOrderRequest request = buildCreateOrderRequest(List.of(1L));
+
+            Order pendingOrder = createPendingOrder();
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+            when(addressRepository.findByIdAndUser_Id(1L, 1L)).thenReturn(Optional.of(shippingAddress));
+            when(hotInventoryService.isHot(1L)).thenReturn(true);
+            when(hotInventoryService.reserve(Map.of(1L, 2))).thenReturn(true);
+            when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
+
+            orderService.createOrder(1L, request);
+
+            verify(hotInventoryService, times(1)).reserve(Map.of(1L, 2));
+            verify(productRepository, times(1)).decreaseStocks(Map.of());
+        }
+
+        @Test
+        @DisplayName("hot product sold out in Redis - throws ConflictException")
+        void hotProductSoldOut_throwsConflictException() {
+
+            CreateOrderRequest request = buildCreateOrderRequest(List.of(1L));
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(cartRepository.findByUser_IdWithItems(1L)).thenReturn(Optional.of(cart));
+            when(addressRepository.findByIdAndUser_Id(1L, 1L)).thenReturn(Optional.of(shippingAddress));
+            when(hotInventoryService.isHot(1L)).thenReturn(true);
+            when(hotInventoryService.reserve(Map.of(1L, 2))).thenReturn(false);
+
+            assertThatThrownBy(() -> orderService.createOrder(1L, request))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("Product quantity insufficient.");
+
+            verify(productRepository, never()).decreaseStocks(anyMap());
+            verify(orderRepository, never()).save(any(Order.class));
+        }
+
         @Test
         @DisplayName("invalid payment method - throws BadRequestException")
         void invalidPaymentMethod_throwsBadRequestException() {
@@ -313,11 +398,7 @@ public class OrderServiceTest {
 
             Order pendingOrder = createPendingOrder();
 
-            // Product stock after order is 3, when cancelled, stock restored to 5
-            product.setStock(3);
-
             when(orderRepository.findUserOrderById(1L, 1L)).thenReturn(Optional.of(pendingOrder));
-            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
             OrderResponse response = orderService.cancelOrder(1L, 1L);
 
@@ -327,10 +408,10 @@ public class OrderServiceTest {
             assertThat(pendingOrder.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED);
             assertThat(pendingOrder.getPayment().getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
 
-            // Product stock must be 5 (3 + 2)
-            assertThat(product.getStock()).isEqualTo(5);
-
-            verify(productRepository, times(1)).save(any(Product.class));
+            // Stock of all items restored by the ledger in one call, no product loaded
+            verify(stockLedgerService, times(1)).restore(pendingOrder.getItems());
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).save(any(Product.class));
             verify(orderRepository, times(1)).save(any(Order.class));
         }
 
@@ -358,7 +439,7 @@ public class OrderServiceTest {
                     .isInstanceOf(ConflictException.class)
                     .hasMessageContaining("Order cannot be cancelled.");
 
-            verify(productRepository, never()).save(any());
+            verify(stockLedgerService, never()).restore(any());
             verify(orderRepository, never()).save(any());
         }
 
@@ -368,11 +449,10 @@ public class OrderServiceTest {
 
             Order pendingOrder = createPendingOrder();
 
-            // Order item references product id 10, which no longer exists in DB
-            pendingOrder.getItems().getFirst().setProductIdSnapshot(10L);
-
             when(orderRepository.findUserOrderById(1L, 1L)).thenReturn(Optional.of(pendingOrder));
-            when(productRepository.findById(10L)).thenReturn(Optional.empty());
+            // Product of the item no longer exists in DB
+            doThrow(new NotFoundException("Product id snapshot not found."))
+                    .when(stockLedgerService).restore(pendingOrder.getItems());
 
             assertThatThrownBy(() -> orderService.cancelOrder(1L, 1L))
                     .isInstanceOf(NotFoundException.class)
@@ -406,107 +486,206 @@ public class OrderServiceTest {
         }
 
         @Test
-        @DisplayName("no filter - calls findUserOrders with null status")
-        void noFilter_callsFindUserOrders() {
+        @DisplayName("no filter - pages order IDs, then loads relations for that page only")
+        void noFilter_pagesIdsThenLoadsRelations() {
 
             Order pendingOrder = createPendingOrder();
+            Order olderOrder = createPendingOrder();
+            ReflectionTestUtils.setField(olderOrder, "id", 2L);
+            ReflectionTestUtils.setField(olderOrder, "orderNumber", "ORD-2");
 
             OrderFilterRequest filter = buildFilter(null);
-            Page<Order> page = new PageImpl<>(List.of(pendingOrder));
 
-            when(orderRepository.findUserOrders(eq(1L), isNull(), any(Pageable.class)))
-                    .thenReturn(page);
+            when(orderRepository.searchOrderIds(any(), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(1L, 2L), PageRequest.of(0, 10), 2));
+            // Loaded in any order
+            when(orderRepository.findOrderListByIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(olderOrder, pendingOrder));
 
             PaginatedResponse<OrderResponse> response = orderService.getUserOrders(1L, filter);
 
-            assertThat(response).isNotNull();
-            assertThat(response.getTotalElements()).isEqualTo(1L);
-
-            verify(orderRepository, times(1))
-                    .findUserOrders(eq(1L), isNull(), any(Pageable.class));
+            assertThat(response.getTotalElements()).isEqualTo(2L);
+            // Order of the ID page is kept
+            assertThat(response.getContent())
+                    .extracting(OrderResponse::getOrderNumber)
+                    .containsExactly("ORD-1", "ORD-2");
+
+            // Paged in SQL: page/size/sort passed through
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(orderRepository, times(1)).searchOrderIds(any(), pageableCaptor.capture());
+            assertThat(pageableCaptor.getValue().getPageNumber()).isZero();
+            assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(10);
+            assertThat(pageableCaptor.getValue().getSort())
+                    .isEqualTo(Sort.by("createdAt").descending());
         }
 
         @Test
-        @DisplayName("with valid status - passes parsed OrderStatus to repository")
-        void withValidStatus_passesOrderStatusToRepository() {
-
-            Order pendingOrder = createPendingOrder();
+        @DisplayName("OLDEST sort - pages order IDs by createdAt ascending")
+        void oldestSort_pagesIdsAscending() {
 
             OrderFilterRequest filter = buildFilter("PENDING");
-            Page<Order> page = new PageImpl<>(List.of(pendingOrder));
+            filter.setSort("OLDEST");
 
-            when(orderRepository.findUserOrders(eq(1L), eq(OrderStatus.PENDING), any(Pageable.class)))
-                    .thenReturn(page);
+            when(orderRepository.searchOrderIds(any(), any(Pageable.class)))
+                    .thenReturn(Page.empty(PageRequest.of(0, 10)));
 
-            PaginatedResponse<OrderResponse> response = orderService.getUserOrders(1L, filter);
+            orderService.getUserOrders(1L, filter);
 
-            assertThat(response.getTotalElements()).isEqualTo(1L);
-            verify(orderRepository, times(1))
-                    .findUserOrders(eq(1L), eq(OrderStatus.PENDING), any(Pageable.class));
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(orderRepository).searchOrderIds(any(), pageableCaptor.capture());
+            assertThat(pageableCaptor.getValue().getSort())
+                    .isEqualTo(Sort.by("createdAt").ascending());
         }
 
         @Test
-        @DisplayName("with fromDate only - calls findUserOrdersFromDate")
-        void withFromDateOnly_callsFromDateRepository() {
-
-            Order pendingOrder = createPendingOrder();
+        @DisplayName("with fromDate and toDate - same single query path, no relation load on empty page")
+        void withBothDates_singleQueryPath() {
 
             OrderFilterRequest filter = buildFilter(null);
             filter.setFromDate(LocalDate.of(2025, 1, 1));
-            Page<Order> page = new PageImpl<>(List.of(pendingOrder));
+            filter.setToDate(LocalDate.of(2025, 12, 31));
 
-            when(orderRepository.findUserOrdersFromDate(
-                    eq(1L), isNull(), any(), any(Pageable.class)))
-                    .thenReturn(page);
+            when(orderRepository.searchOrderIds(any(), any(Pageable.class)))
+                    .thenReturn(Page.empty(PageRequest.of(0, 10)));
 
             PaginatedResponse<OrderResponse> response = orderService.getUserOrders(1L, filter);
 
-            assertThat(response.getTotalElements()).isEqualTo(1L);
-            verify(orderRepository, times(1))
-                    .findUserOrdersFromDate(eq(1L), isNull(), any(), any(Pageable.class));
+            assertThat(response.getContent()).isEmpty();
+            assertThat(response.getTotalElements()).isZero();
+
+            verify(orderRepository, times(1)).searchOrderIds(any(), any(Pageable.class));
+            verify(orderRepository, never()).findOrderListByIdIn(any());
         }
 
         @Test
-        @DisplayName("with toDate only - calls findUserOrdersToDate")
-        void withToDateOnly_callsToDateRepository() {
+        @DisplayName("cursor mode - seeks order IDs, returns nextCursor without count")
+        void cursorMode_returnsNextCursor() {
 
             Order pendingOrder = createPendingOrder();
+            pendingOrder.setCreatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
 
             OrderFilterRequest filter = buildFilter(null);
-            filter.setToDate(LocalDate.of(2025, 12, 31));
-            Page<Order> page = new PageImpl<>(List.of(pendingOrder));
+            filter.setSize(1);
+            filter.setCursor(""); // first slice
 
-            when(orderRepository.findUserOrdersToDate(
-                    eq(1L), isNull(), any(), any(Pageable.class)))
-                    .thenReturn(page);
+            when(orderRepository.scrollOrderIds(any(), eq(Sort.Direction.DESC), isNull(), eq(1)))
+                    .thenReturn(new SliceImpl<>(List.of(1L), PageRequest.of(0, 1), true));
+            when(orderRepository.findOrderListByIdIn(List.of(1L)))
+                    .thenReturn(List.of(pendingOrder));
 
             PaginatedResponse<OrderResponse> response = orderService.getUserOrders(1L, filter);
 
+            assertThat(response.getContent()).hasSize(1);
+            assertThat(response.isHasNextPage()).isTrue();
+            assertThat(response.getTotalElements()).isNull();
+
+            // Cursor points at the last row of this slice
+            KeysetCursor next = KeysetCursor.decode(response.getNextCursor());
+            assertThat(next.id()).isEqualTo(1L);
+            assertThat(next.value()).isEqualTo("2025-01-01T10:00");
+
+            verify(orderRepository, never()).searchOrderIds(any(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("summaries - one projection query, no order entity or item loaded")
+        void summaries_projectionOnly() {
+
+            OrderFilterRequest filter = buildFilter("pending");
+            OrderSummaryResponse summary = new OrderSummaryResponse(
+                    1L, "ORD-1", OrderStatus.PENDING, PaymentStatus.PENDING,
+                    30_000_000L, 1, LocalDateTime.of(2025, 1, 1, 10, 0)
+            );
+
+            when(orderRepository.searchOrderSummaries(any(), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+
+            PaginatedResponse<OrderSummaryResponse> response = orderService.getUserOrderSummaries(1L, filter);
+
             assertThat(response.getTotalElements()).isEqualTo(1L);
-            verify(orderRepository, times(1))
-                    .findUserOrdersToDate(eq(1L), isNull(), any(), any(Pageable.class));
+            assertThat(response.getContent()).containsExactly(summary);
+            assertThat(summary.getOrderStatus()).isEqualTo("PENDING");
+
+            verify(orderRepository, never()).searchOrderIds(any(), any(Pageable.class));
+            verify(orderRepository, never()).findOrderListByIdIn(any());
         }
 
         @Test
-        @DisplayName("with fromDate and toDate - calls findUserOrdersBetweenDate")
-        void withBothDates_callsBetweenDateRepository() {
+        @DisplayName("cursor issued for another sort - throws BadRequestException")
+        void cursorForAnotherSort_throwsBadRequestException() {
 
-            Order pendingOrder = createPendingOrder();
+            OrderFilterRequest filter = buildFilter(null);
+            filter.setSort("OLDEST");
+            filter.setCursor(KeysetCursor.of(
+                    "createdAt", Sort.Direction.DESC, LocalDateTime.of(2025, 1, 1, 10, 0), 1L
+            ).encode());
+
+            assertThatThrownBy(() -> orderService.getUserOrders(1L, filter))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Cursor does not match the requested sort.");
+        }
+
+        @Test
+        @DisplayName("cursor value of wrong type - throws BadRequestException before any query")
+        void cursorValueOfWrongType_throwsBadRequestException() {
 
             OrderFilterRequest filter = buildFilter(null);
+            filter.setCursor(KeysetCursor.of(
+                    "createdAt", Sort.Direction.DESC, "not-a-date", 1L
+            ).encode());
+
+            assertThatThrownBy(() -> orderService.getUserOrders(1L, filter))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Invalid cursor.");
+
+            verify(orderRepository, never()).scrollOrderIds(any(), any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("adminSearchAllOrders()")
+    class AdminSearchAllOrders {
+
+        @Test
+        @DisplayName("status and date range - pages order IDs of every user, then loads relations")
+        void statusAndDates_pagesIdsThenLoadsRelations() {
+
+            Order pendingOrder = createPendingOrder();
+
+            OrderFilterRequest filter = new OrderFilterRequest();
+            filter.setStatus("pending");
             filter.setFromDate(LocalDate.of(2025, 1, 1));
             filter.setToDate(LocalDate.of(2025, 12, 31));
-            Page<Order> page = new PageImpl<>(List.of(pendingOrder));
+            filter.setPage(2);
+            filter.setSize(10);
 
-            when(orderRepository.findUserOrdersBetweenDate(
-                    eq(1L), isNull(), any(), any(), any(Pageable.class)))
-                    .thenReturn(page);
+            when(orderRepository.searchOrderIds(any(), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(1L), PageRequest.of(2, 10), 21));
+            when(orderRepository.findOrderListByIdIn(List.of(1L)))
+                    .thenReturn(List.of(pendingOrder));
 
-            PaginatedResponse<OrderResponse> response = orderService.getUserOrders(1L, filter);
+            PaginatedResponse<OrderResponse> response = orderService.adminSearchAllOrders(filter);
 
-            assertThat(response.getTotalElements()).isEqualTo(1L);
-            verify(orderRepository, times(1))
-                    .findUserOrdersBetweenDate(eq(1L), isNull(), any(), any(), any(Pageable.class));
+            assertThat(response.getContent()).hasSize(1);
+            assertThat(response.getPageNumber()).isEqualTo(2);
+            assertThat(response.getTotalElements()).isEqualTo(21L);
+            assertThat(response.getTotalPages()).isEqualTo(3);
+
+            verify(orderRepository, times(1)).searchOrderIds(any(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("invalid status filter - throws BadRequestException, no query")
+        void invalidStatusFilter_throwsBadRequestException() {
+
+            OrderFilterRequest filter = new OrderFilterRequest();
+            filter.setStatus("INVALID_STATUS");
+
+            assertThatThrownBy(() -> orderService.adminSearchAllOrders(filter))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Invalid order status.");
+
+            verifyNoInteractions(orderRepository);
         }
     }
 
@@ -659,6 +838,7 @@ public class OrderServiceTest {
             orderService.adminUpdateOrderStatusToCancelled(1L);
 
             assertThat(confirmedOrder.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED);
+            verify(stockLedgerService, times(1)).restore(confirmedOrder.getItems());
             verify(orderRepository, times(1)).save(confirmedOrder);
         }
 
@@ -675,6 +855,7 @@ public class OrderServiceTest {
             assertThatThrownBy(() -> orderService.adminUpdateOrderStatusToCancelled(1L))
                     .isInstanceOf(ConflictException.class);
 
+            verify(stockLedgerService, never()).restore(any());
             verify(orderRepository, never()).save(any());
         }
     }
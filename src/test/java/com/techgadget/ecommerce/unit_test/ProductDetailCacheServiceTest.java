@@ -0,0 +1,212 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techgadget.ecommerce.dto.response.image.ImageResponse;
+import com.techgadget.ecommerce.dto.response.product.CategoryResponse;
+import com.techgadget.ecommerce.dto.response.product.ProductDetailResponse;
+import com.techgadget.ecommerce.exception.NotFoundException;
+import com.techgadget.ecommerce.service.ProductDetailCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductDetailCacheServiceTest {
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final List<String> KEYS = List.of("product-detail:1", "product-detail:version:1");
+
+    private ProductDetailCacheService cacheService;
+    private ProductDetailResponse detail;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new ProductDetailCacheService(
+                stringRedisTemplate,
+                objectMapper,
+                redisMessageListenerContainer,
+                100,
+                Duration.ofMinutes(1),
+                Duration.ofMinutes(10)
+        );
+
+        detail = new ProductDetailResponse(
+                1L,
+                "Phone",
+                "",
+                100_000L,
+                2,
+                List.of(new ImageResponse("http://minio/products/1/a.jpg", true)),
+                Map.of(),
+                new CategoryResponse(1L, "Electronics")
+        );
+    }
+
+    @Nested
+    @DisplayName("get()")
+    class Get {
+
+        @Test
+        @DisplayName("miss on both tiers - loads once, writes Redis, then serves from local")
+        void missOnBothTiers_loadsOnceThenServesLocal() {
+
+            when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+            when(valueOperations.get("product-detail:1")).thenReturn(null);
+            when(stringRedisTemplate.execute(
+                    any(RedisScript.class), eq(KEYS), eq("0"), anyString(), eq("600000"))).thenReturn(1L);
+
+            AtomicInteger loads = new AtomicInteger();
+
+            ProductDetailResponse first = cacheService.get(1L, () -> {
+                loads.incrementAndGet();
+                return detail;
+            });
+            ProductDetailResponse second = cacheService.get(1L, () -> {
+                loads.incrementAndGet();
+                return detail;
+            });
+
+            assertThat(first).isEqualTo(detail);
+            assertThat(second).isEqualTo(detail);
+            assertThat(loads.get()).isEqualTo(1);
+
+            // Written with the version read before loading (no version yet)
+            verify(stringRedisTemplate, times(1)).execute(
+                    any(RedisScript.class), eq(KEYS), eq("0"), anyString(), eq("600000"));
+        }
+
+        @Test
+        @DisplayName("evicted between load and write - version changed, cached in neither tier")
+        void evictedDuringLoad_notCached() {
+
+            when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+            when(valueOperations.get("product-detail:version:1")).thenReturn("3");
+            // Version bumped to 4 by the eviction: conditional write rejected
+            when(stringRedisTemplate.execute(
+                    any(RedisScript.class), eq(KEYS), eq("3"), anyString(), eq("600000"))).thenReturn(0L);
+
+            AtomicInteger loads = new AtomicInteger();
+
+            ProductDetailResponse stale = cacheService.get(1L, () -> {
+                loads.incrementAndGet();
+                // Stock change committed & evicted on another node while loading
+                return detail;
+            });
+            cacheService.get(1L, () -> {
+                loads.incrementAndGet();
+                return detail;
+            });
+
+            assertThat(stale).isEqualTo(detail);
+            // Not kept locally: second get loads again
+            assertThat(loads.get()).isEqualTo(2);
+            verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("hit on Redis - deserializes without calling loader")
+        void hitOnRedis_doesNotCallLoader() throws Exception {
+
+            when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+            when(valueOperations.get("product-detail:1"))
+                    .thenReturn(objectMapper.writeValueAsString(detail));
+
+            ProductDetailResponse response = cacheService.get(1L, () -> {
+                throw new AssertionError("Loader must not be called");
+            });
+
+            assertThat(response).isEqualTo(detail);
+        }
+
+        @Test
+        @DisplayName("Redis unavailable - falls back to loader")
+        void redisUnavailable_fallsBackToLoader() {
+
+            when(stringRedisTemplate.opsForValue()).thenThrow(new IllegalStateException("down"));
+
+            assertThat(cacheService.get(1L, () -> detail)).isEqualTo(detail);
+        }
+
+        @Test
+        @DisplayName("loader throws - exception is rethrown and nothing is cached")
+        void loaderThrows_rethrowsException() {
+
+            when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+            assertThatThrownBy(() -> cacheService.get(1L, () -> {
+                throw new NotFoundException("Product not found.");
+            }))
+                    .isInstanceOf(NotFoundException.class);
+
+            verify(stringRedisTemplate, never()).execute(
+                    any(RedisScript.class), anyList(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("evict() / onMessage()")
+    class Evict {
+
+        @Test
+        @DisplayName("evict outside transaction - deletes Redis keys, bumps versions and broadcasts IDs")
+        void evict_deletesRedisAndBroadcasts() {
+
+            cacheService.evict(List.of(1L, 2L));
+
+            verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(
+                    "product-detail:1", "product-detail:version:1",
+                    "product-detail:2", "product-detail:version:2"
+            )), eq("600000"));
+            verify(stringRedisTemplate).convertAndSend(ProductDetailCacheService.INVALIDATION_CHANNEL, "1,2");
+        }
+
+        @Test
+        @DisplayName("invalidation message - drops local copy, next get reloads")
+        void invalidationMessage_dropsLocalCopy() {
+
+            when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+            AtomicInteger loads = new AtomicInteger();
+            cacheService.get(1L, () -> {
+                loads.incrementAndGet();
+                return detail;
+            });
+
+            // Sent by another node
+            cacheService.onMessage(new DefaultMessage(
+                    ProductDetailCacheService.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "1".getBytes(StandardCharsets.UTF_8)
+            ), null);
+
+            cacheService.get(1L, () -> {
+                loads.incrementAndGet();
+                return detail;
+            });
+
+            assertThat(loads.get()).isEqualTo(2);
+        }
+    }
+}
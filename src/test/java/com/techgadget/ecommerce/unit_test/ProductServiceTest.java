@@ -7,12 +7,20 @@ import com.techgadget.ecommerce.dto.response.product.ProductDetailResponse;
 import com.techgadget.ecommerce.dto.response.product.ProductListResponse;
 import com.techgadget.ecommerce.entity.Category;
 import com.techgadget.ecommerce.entity.Product;
+import com.techgadget.ecommerce.exception.BadRequestException;
+import com.techgadget.ecommerce.exception.ConflictException;
 import com.techgadget.ecommerce.exception.NotFoundException;
 import com.techgadget.ecommerce.repository.CategoryRepository;
+import com.techgadget.ecommerce.repository.KeysetCursor;
+import com.techgadget.ecommerce.repository.ProductListRow;
 import com.techgadget.ecommerce.repository.ProductRepository;
+import com.techgadget.ecommerce.service.HotInventoryService;
+import com.techgadget.ecommerce.service.ProductDetailCacheService;
+import com.techgadget.ecommerce.service.ProductImageService;
 import com.techgadget.ecommerce.service.ProductService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -26,6 +34,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceTest {
@@ -39,8 +48,18 @@ public class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductDetailCacheService productDetailCacheService;
+
+    @Mock
+    private ProductImageService productImageService;
+
+    @Mock
+    private HotInventoryService hotInventoryService;
+
     private Category category;
     private Product product;
+    private ProductListRow productRow;
 
     @BeforeEach
     void setUp() {
@@ -61,12 +80,23 @@ public class ProductServiceTest {
         product.setSpecs(Map.of());
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
+
+        productRow = new ProductListRow(
+                1L, "Phone", "", 100_000L, 2, Map.of(), product.getCreatedAt(),
+                1L, "Electronics", "products/1/thumb.jpg");
     }
 
     @Nested
     @DisplayName("getProductById()")
     class GetProductById {
 
+        @BeforeEach
+        void setUpCacheMiss() {
+            // Cache miss - always run the DB loader
+            when(productDetailCacheService.get(eq(1L), any()))
+                    .thenAnswer(inv -> inv.<Supplier<ProductDetailResponse>>getArgument(1).get());
+        }
+
         @Test
         @DisplayName("success - returns product detail response")
         void success() {
@@ -109,309 +139,303 @@ public class ProductServiceTest {
     @DisplayName("searchProducts()")
     class SearchProducts {
 
-        private Page<Product> singleProductPage;
+        private Page<Long> singleIdPage;
 
         @BeforeEach
         void setUpSearch() {
-            singleProductPage = new PageImpl<>(List.of(product));
+            singleIdPage = new PageImpl<>(List.of(1L));
         }
 
-        @Test
-        @DisplayName("invalid sort direction - default to DESC without throwing")
-        void invalidSortDirection_defaultsToDesc() {
-
+        // Helper method: build SearchProductRequest
+        private SearchProductRequest buildRequest(Long categoryId, Long minPrice, Long maxPrice) {
             SearchProductRequest request = new SearchProductRequest();
             request.setName("");
-            request.setCategoryId(null);
-            request.setMinPrice(null);
-            request.setMaxPrice(null);
+            request.setCategoryId(categoryId);
+            request.setMinPrice(minPrice);
+            request.setMaxPrice(maxPrice);
             request.setPage(0);
             request.setSize(10);
             request.setSortBy("createdAt");
+            request.setSortDir("desc");
+            return request;
+        }
+
+        @Test
+        @DisplayName("invalid sort direction - default to DESC without throwing")
+        void invalidSortDirection_defaultsToDesc() {
+
+            SearchProductRequest request = buildRequest(null, null, null);
             request.setSortDir("INVALID_DIRECTION"); // Invalid sort dir
 
-            when(productRepository.findProductListByName(eq(""), any(Pageable.class)))
-                    .thenReturn(singleProductPage);
+            when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                    .thenReturn(singleIdPage);
+            when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                    .thenReturn(List.of(productRow));
 
             // Make sure Sort Direction parsing process don't throw exception
             assertThatNoException().isThrownBy(() -> productService.searchProducts(request));
+
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(productRepository).searchProductIds(any(), pageableCaptor.capture());
+            assertThat(pageableCaptor.getValue().getSort().getOrderFor("createdAt"))
+                    .isEqualTo(Sort.Order.desc("createdAt"));
         }
 
-        @Nested
-        @DisplayName("with category")
-        class WithCategory {
+        @Test
+        @DisplayName("sort by price - sorts by requested field, not by direction")
+        void sortByPrice_usesRequestedSortField() {
 
-            @Test
-            @DisplayName("category not found - throws NotFoundException")
-            void categoryNotFound_throwsNotFoundException() {
+            SearchProductRequest request = buildRequest(null, null, null);
+            request.setSortBy("price");
+            request.setSortDir("asc");
 
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(99L);
-                request.setMinPrice(null);
-                request.setMaxPrice(null);
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
+            when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                    .thenReturn(singleIdPage);
+            when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                    .thenReturn(List.of(productRow));
 
-                // Category with id 99L is not found
-                when(productRepository.existsByCategory_Id(99L))
-                        .thenReturn(false);
+            productService.searchProducts(request);
 
-                assertThatThrownBy(() -> productService.searchProducts(request))
-                        .isInstanceOf(NotFoundException.class)
-                        .hasMessageContaining("Category not found.");
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(productRepository).searchProductIds(any(), pageableCaptor.capture());
+            assertThat(pageableCaptor.getValue().getSort().getOrderFor("price"))
+                    .isEqualTo(Sort.Order.asc("price"));
+        }
 
-                verify(productRepository, times(1))
-                        .existsByCategory_Id(99L);
-            }
+        @Test
+        @DisplayName("multiple products - keeps order of paged IDs")
+        void multipleProducts_keepsIdPageOrder() {
 
-            @Test
-            @DisplayName("without price min and max price - calls correct method")
-            void withoutMinAndMaxPrice_callsCorrectMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(1L);
-                request.setMinPrice(null);
-                request.setMaxPrice(null);
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
+            ProductListRow secondProduct = new ProductListRow(
+                    2L, "Laptop", "", 200_000L, 1, Map.of(), LocalDateTime.now(), 1L, "Electronics", null);
 
-                when(productRepository.existsByCategory_Id(1L))
-                        .thenReturn(true);
+            SearchProductRequest request = buildRequest(null, null, null);
 
-                when(productRepository.findProductListByNameAndCategory_Id(
-                        eq(""), eq(1L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            // IDs are paged as [2, 1], products are loaded as [1, 2]
+            when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(2L, 1L)));
+            when(productRepository.findProductListRowsByIdIn(List.of(2L, 1L)))
+                    .thenReturn(List.of(productRow, secondProduct));
 
-                PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+            PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
 
-                assertThat(response).isNotNull();
-                assertThat(response.getTotalElements()).isEqualTo(1L);
+            assertThat(response.getContent())
+                    .extracting(ProductListResponse::getId)
+                    .containsExactly(2L, 1L);
+        }
 
-                verify(productRepository, atLeastOnce())
-                        .existsByCategory_Id(1L);
-                verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndCategory_Id(eq(""), eq(1L), any(Pageable.class));
-            }
+        @Test
+        @DisplayName("list rows - maps category & primary image url, first row of duplicated product wins")
+        void listRows_mapsCategoryAndPrimaryImageUrl() {
+
+            // Product with 2 primary images -> 2 rows
+            ProductListRow duplicatedRow = new ProductListRow(
+                    1L, "Phone", "", 100_000L, 2, Map.of(), product.getCreatedAt(),
+                    1L, "Electronics", "products/1/other.jpg");
+
+            SearchProductRequest request = buildRequest(null, null, null);
+
+            when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                    .thenReturn(singleIdPage);
+            when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                    .thenReturn(List.of(productRow, duplicatedRow));
+            when(productImageService.getImageUrls(List.of("products/1/thumb.jpg")))
+                    .thenReturn(Map.of("products/1/thumb.jpg", "http://minio/products/1/thumb.jpg"));
+
+            PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+
+            assertThat(response.getContent()).hasSize(1);
+            ProductListResponse listResponse = response.getContent().getFirst();
+            assertThat(listResponse.getImageUrl()).isEqualTo("http://minio/products/1/thumb.jpg");
+            assertThat(listResponse.getCategory().getId()).isEqualTo(1L);
+            assertThat(listResponse.getCategory().getName()).isEqualTo("Electronics");
+        }
 
-            @Test
-            @DisplayName("with min price, without max price - calls price greater than equal method")
-            void withMinPrice_callsPriceGreaterThanEqualMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(1L);
-                request.setMinPrice(2000L); // Min price is 2000
-                request.setMaxPrice(null);
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
+        @Test
+        @DisplayName("empty ID page - does not load products")
+        void emptyIdPage_doesNotLoadProducts() {
 
-                when(productRepository.existsByCategory_Id(1L))
-                        .thenReturn(true);
+            SearchProductRequest request = buildRequest(null, null, null);
 
-                when(productRepository.findProductListByNameAndCategory_IdAndPriceGreaterThanEqual(
-                        eq(""), eq(1L), eq(2000L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                    .thenReturn(Page.empty());
 
-                PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+            PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
 
-                assertThat(response).isNotNull();
-                assertThat(response.getTotalElements()).isEqualTo(1L);
+            assertThat(response.getContent()).isEmpty();
+            verify(productRepository, never()).findProductListRowsByIdIn(any());
+        }
 
-                verify(productRepository, atLeastOnce())
-                        .existsByCategory_Id(1L);
-                verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndCategory_IdAndPriceGreaterThanEqual(
-                                eq(""), eq(1L), eq(2000L), any(Pageable.class));
-            }
+        @Test
+        @DisplayName("sort by relevance with keyword - pages IDs by relevance")
+        void sortByRelevance_withKeyword_usesRelevanceSearch() {
 
-            @Test
-            @DisplayName("with max price, without min price - calls price less than equal method")
-            void withMaxPrice_callsPriceLessThanEqualMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(1L);
-                request.setMinPrice(null);
-                request.setMaxPrice(1_000_000L); // Max price is 1 million
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
+            SearchProductRequest request = buildRequest(null, null, null);
+            request.setName("phone");
+            request.setSortBy("relevance");
 
-                when(productRepository.existsByCategory_Id(1L))
-                        .thenReturn(true);
+            when(productRepository.searchProductIdsByRelevance(any(), eq("phone"), any(Pageable.class)))
+                    .thenReturn(singleIdPage);
+            when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                    .thenReturn(List.of(productRow));
 
-                when(productRepository.findProductListByNameAndCategory_IdAndPriceLessThanEqual(
-                        eq(""), eq(1L), eq(1_000_000L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
 
-                PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+            assertThat(response.getContent()).hasSize(1);
+            verify(productRepository, never()).searchProductIds(any(), any(Pageable.class));
+        }
 
-                assertThat(response).isNotNull();
-                assertThat(response.getTotalElements()).isEqualTo(1L);
+        @Test
+        @DisplayName("sort by relevance without keyword - falls back to createdAt DESC")
+        void sortByRelevance_withoutKeyword_fallsBackToCreatedAt() {
 
-                verify(productRepository, atLeastOnce())
-                        .existsByCategory_Id(1L);
-                verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndCategory_IdAndPriceLessThanEqual(
-                                eq(""), eq(1L), eq(1_000_000L), any(Pageable.class));
-            }
+            SearchProductRequest request = buildRequest(null, null, null);
+            request.setSortBy("relevance");
 
-            @Test
-            @DisplayName("with min and max price - calls price between method")
-            void withMinAndMaxPrice_callsPriceBetweenMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(1L);
-                request.setMinPrice(0L); // Min price is 0
-                request.setMaxPrice(200_000L); // Max price is 200_000
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
+            when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                    .thenReturn(singleIdPage);
+            when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                    .thenReturn(List.of(productRow));
 
-                when(productRepository.existsByCategory_Id(1L))
-                        .thenReturn(true);
+            productService.searchProducts(request);
 
-                when(productRepository.findProductListByNameAndCategory_IdAndPriceBetween(
-                        eq(""), eq(1L), eq(0L),eq(200_000L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(productRepository).searchProductIds(any(), pageableCaptor.capture());
+            assertThat(pageableCaptor.getValue().getSort().getOrderFor("createdAt"))
+                    .isEqualTo(Sort.Order.desc("createdAt"));
+            verify(productRepository, never()).searchProductIdsByRelevance(any(), any(), any());
+        }
 
-                PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+        @Test
+        @DisplayName("cursor mode - seeks on (price, id) after cursor, no count query")
+        void cursorMode_seeksAfterCursor() {
 
-                assertThat(response).isNotNull();
-                assertThat(response.getTotalElements()).isEqualTo(1L);
+            SearchProductRequest request = buildRequest(null, null, null);
+            request.setSortBy("price");
+            request.setSortDir("asc");
+            request.setCursor(KeysetCursor.of("price", Sort.Direction.ASC, 50_000L, 7L).encode());
 
-                verify(productRepository, atLeastOnce())
-                        .existsByCategory_Id(1L);
-                verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndCategory_IdAndPriceBetween(
-                                eq(""), eq(1L), eq(0L), eq(200_000L), any(Pageable.class));
-            }
+            when(productRepository.scrollProductIds(any(), eq("price"), eq(Sort.Direction.ASC), any(), eq(10)))
+                    .thenReturn(new SliceImpl<>(List.of(1L), PageRequest.of(0, 10), false));
+            when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                    .thenReturn(List.of(productRow));
+
+            PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+
+            assertThat(response.getContent()).hasSize(1);
+            assertThat(response.getNextCursor()).isNull();
+            assertThat(response.isHasNextPage()).isFalse();
+
+            ArgumentCaptor<KeysetCursor> cursorCaptor = ArgumentCaptor.forClass(KeysetCursor.class);
+            verify(productRepository).scrollProductIds(
+                    any(), any(), any(), cursorCaptor.capture(), anyInt());
+            assertThat(cursorCaptor.getValue().id()).isEqualTo(7L);
+            assertThat(cursorCaptor.getValue().value()).isEqualTo("50000");
+
+            verify(productRepository, never()).searchProductIds(any(), any(Pageable.class));
         }
 
-        @Nested
-        @DisplayName("without category")
-        class WithoutCategory {
+        @Test
+        @DisplayName("cursor mode with relevance sort - throws BadRequestException")
+        void cursorModeWithRelevance_throwsBadRequestException() {
 
-            @Test
-            @DisplayName("without price min and max price - calls correct method")
-            void withoutMinAndMaxPrice_callsCorrectMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(null);
-                request.setMinPrice(null);
-                request.setMaxPrice(null);
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
-
-                when(productRepository.findProductListByName(
-                        eq(""), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            SearchProductRequest request = buildRequest(null, null, null);
+            request.setName("phone");
+            request.setSortBy("relevance");
+            request.setCursor("");
 
-                PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+            assertThatThrownBy(() -> productService.searchProducts(request))
+                    .isInstanceOf(BadRequestException.class);
+        }
 
-                assertThat(response).isNotNull();
-                assertThat(response.getTotalElements()).isEqualTo(1L);
+        @Test
+        @DisplayName("malformed cursor - throws BadRequestException")
+        void malformedCursor_throwsBadRequestException() {
 
-                verify(productRepository, atLeastOnce())
-                        .findProductListByName(eq(""), any(Pageable.class));
-            }
+            SearchProductRequest request = buildRequest(null, null, null);
+            request.setCursor("not-a-cursor");
+
+            assertThatThrownBy(() -> productService.searchProducts(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Invalid cursor.");
+        }
+
+        @Nested
+        @DisplayName("with category")
+        class WithCategory {
 
             @Test
-            @DisplayName("with min price, without max price - calls price greater than equal method")
-            void withMinPrice_callsPriceGreaterThanEqualMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(null);
-                request.setMinPrice(2000L); // Min price is 2000
-                request.setMaxPrice(null);
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
-
-                when(productRepository.findProductListByNameAndPriceGreaterThanEqual(
-                        eq(""), eq(2000L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            @DisplayName("category not found - throws NotFoundException")
+            void categoryNotFound_throwsNotFoundException() {
 
-                PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
+                SearchProductRequest request = buildRequest(99L, null, null);
 
-                assertThat(response).isNotNull();
-                assertThat(response.getTotalElements()).isEqualTo(1L);
+                // Category with id 99L is not found
+                when(productRepository.existsByCategory_Id(99L))
+                        .thenReturn(false);
 
-                verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndPriceGreaterThanEqual(
-                                eq(""), eq(2000L), any(Pageable.class));
+                assertThatThrownBy(() -> productService.searchProducts(request))
+                        .isInstanceOf(NotFoundException.class)
+                        .hasMessageContaining("Category not found.");
+
+                verify(productRepository, times(1))
+                        .existsByCategory_Id(99L);
+                verify(productRepository, never())
+                        .searchProductIds(any(), any(Pageable.class));
             }
 
             @Test
-            @DisplayName("with max price, without min price - calls price less than equal method")
-            void withMaxPrice_callsPriceLessThanEqualMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(null);
-                request.setMinPrice(null);
-                request.setMaxPrice(1_000_000L); // Max price is 1 million
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
-
-                when(productRepository.findProductListByNameAndPriceLessThanEqual(
-                        eq(""), eq(1_000_000L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            @DisplayName("with min and max price - pages IDs then loads page products")
+            void withMinAndMaxPrice_pagesIdsThenLoadsProducts() {
+
+                SearchProductRequest request = buildRequest(1L, 0L, 200_000L);
+
+                when(productRepository.existsByCategory_Id(1L))
+                        .thenReturn(true);
+                when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                        .thenReturn(singleIdPage);
+                when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                        .thenReturn(List.of(productRow));
 
                 PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
 
                 assertThat(response).isNotNull();
                 assertThat(response.getTotalElements()).isEqualTo(1L);
+                assertThat(response.getContent()).hasSize(1);
 
                 verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndPriceLessThanEqual(
-                                eq(""), eq(1_000_000L), any(Pageable.class));
+                        .existsByCategory_Id(1L);
+                verify(productRepository, times(1))
+                        .searchProductIds(any(), any(Pageable.class));
+                verify(productRepository, times(1))
+                        .findProductListRowsByIdIn(List.of(1L));
             }
+        }
+
+        @Nested
+        @DisplayName("without category")
+        class WithoutCategory {
 
             @Test
-            @DisplayName("with min and max price - calls price between method")
-            void withMinAndMaxPrice_callsPriceBetweenMethod() {
-
-                SearchProductRequest request = new SearchProductRequest();
-                request.setName("");
-                request.setCategoryId(null);
-                request.setMinPrice(0L); // Min price is 0
-                request.setMaxPrice(200_000L); // Max price is 200_000
-                request.setPage(0);
-                request.setSize(10);
-                request.setSortBy("createdAt");
-                request.setSortDir("desc");
-
-                when(productRepository.findProductListByNameAndPriceBetween(
-                        eq(""), eq(0L),eq(200_000L), any(Pageable.class))
-                ).thenReturn(singleProductPage);
+            @DisplayName("without category - does not check category existence")
+            void withoutCategory_doesNotCheckCategory() {
+
+                SearchProductRequest request = buildRequest(null, 2000L, null);
+
+                when(productRepository.searchProductIds(any(), any(Pageable.class)))
+                        .thenReturn(singleIdPage);
+                when(productRepository.findProductListRowsByIdIn(List.of(1L)))
+                        .thenReturn(List.of(productRow));
 
                 PaginatedResponse<ProductListResponse> response = productService.searchProducts(request);
 
                 assertThat(response).isNotNull();
                 assertThat(response.getTotalElements()).isEqualTo(1L);
 
-                verify(productRepository, atLeastOnce())
-                        .findProductListByNameAndPriceBetween(
-                                eq(""), eq(0L), eq(200_000L), any(Pageable.class));
+                verify(productRepository, never())
+                        .existsByCategory_Id(any());
+                verify(productRepository, times(1))
+                        .searchProductIds(any(), any(Pageable.class));
             }
         }
 
@@ -445,6 +469,8 @@ public class ProductServiceTest {
                     .findById(1L);
             verify(productRepository, atLeastOnce())
                     .save(any(Product.class));
+            // Stock key of a hot ID seeded before the product existed is re-seeded
+            verify(hotInventoryService).resync(any());
         }
 
         @Test
@@ -468,4 +494,51 @@ public class ProductServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("deductStock()")
+    class DeductStock {
+
+        @Test
+        @DisplayName("regular product - decreases DB stock")
+        void regularProduct_decreasesDbStock() {
+
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+            productService.deductStock(1L, 2);
+
+            assertThat(product.getStock()).isZero();
+            verify(productRepository).save(product);
+            verify(hotInventoryService, never()).reserve(any());
+        }
+
+        @Test
+        @DisplayName("hot product - reserved in Redis, DB row untouched")
+        void hotProduct_reservedInRedis() {
+
+            when(hotInventoryService.isHot(1L)).thenReturn(true);
+            when(productRepository.existsById(1L)).thenReturn(true);
+            when(hotInventoryService.reserve(Map.of(1L, 2))).thenReturn(true);
+
+            productService.deductStock(1L, 2);
+
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("hot product with insufficient Redis stock - throws ConflictException")
+        void hotProductInsufficient_throwsConflictException() {
+
+            when(hotInventoryService.isHot(1L)).thenReturn(true);
+            when(productRepository.existsById(1L)).thenReturn(true);
+            when(hotInventoryService.reserve(Map.of(1L, 5))).thenReturn(false);
+
+            assertThatThrownBy(() -> productService.deductStock(1L, 5))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("Stock quantity not sufficient.");
+
+            verify(productRepository, never()).save(any());
+        }
+    }
+
 }
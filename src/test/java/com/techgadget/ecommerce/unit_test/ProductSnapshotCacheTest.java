@@ -0,0 +1,110 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.techgadget.ecommerce.repository.ProductRepository;
+import com.techgadget.ecommerce.repository.ProductSnapshot;
+import com.techgadget.ecommerce.service.ProductDetailCacheService;
+import com.techgadget.ecommerce.service.ProductSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSnapshotCacheTest {
+
+    @Mock private ProductRepository productRepository;
+    @Mock private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private ProductSnapshotCache snapshotCache;
+    private ProductSnapshot phone;
+    private ProductSnapshot laptop;
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache = new ProductSnapshotCache(
+                productRepository,
+                redisMessageListenerContainer,
+                100,
+                Duration.ofMinutes(1)
+        );
+
+        phone = new ProductSnapshot(1L, "Phone", 100_000L, 5, "products/1/a.jpg");
+        laptop = new ProductSnapshot(2L, "Laptop", 300_000L, 2, null);
+    }
+
+    // Helper method: invalidation message of another node
+    private void receiveInvalidation(String body) {
+        snapshotCache.onMessage(new DefaultMessage(
+                ProductDetailCacheService.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)
+        ), null);
+    }
+
+    @Test
+    @DisplayName("misses - loaded in one query, then served from memory")
+    void misses_loadedOnceThenServedFromMemory() {
+
+        when(productRepository.findSnapshotsByIdIn(List.of(1L, 2L))).thenReturn(List.of(phone, laptop));
+
+        Map<Long, ProductSnapshot> first = snapshotCache.getAll(List.of(1L, 2L));
+        Map<Long, ProductSnapshot> second = snapshotCache.getAll(List.of(2L, 1L));
+
+        assertThat(first).containsOnly(entry(1L, phone), entry(2L, laptop));
+        assertThat(second).isEqualTo(first);
+        verify(productRepository, times(1)).findSnapshotsByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("partial hit - only missing products queried, deleted product left out")
+    void partialHit_onlyMissesQueried() {
+
+        when(productRepository.findSnapshotsByIdIn(List.of(1L))).thenReturn(List.of(phone));
+        when(productRepository.findSnapshotsByIdIn(List.of(2L, 3L))).thenReturn(List.of(laptop));
+
+        snapshotCache.getAll(List.of(1L));
+        Map<Long, ProductSnapshot> snapshots = snapshotCache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(snapshots).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("invalidation message - snapshot dropped, next call reloads")
+    void invalidationMessage_reloads() {
+
+        ProductSnapshot repriced = new ProductSnapshot(1L, "Phone", 90_000L, 5, "products/1/a.jpg");
+        when(productRepository.findSnapshotsByIdIn(List.of(1L))).thenReturn(List.of(phone), List.of(repriced));
+
+        snapshotCache.getAll(List.of(1L));
+        receiveInvalidation("1");
+
+        assertThat(snapshotCache.getAll(List.of(1L))).containsEntry(1L, repriced);
+    }
+
+    @Test
+    @DisplayName("invalidated while loading - loaded snapshot returned but not kept")
+    void invalidatedWhileLoading_notKept() {
+
+        when(productRepository.findSnapshotsByIdIn(List.of(1L))).thenAnswer(invocation -> {
+            // Product changed & committed while the (older) row was being read
+            receiveInvalidation("1");
+            return List.of(phone);
+        });
+
+        assertThat(snapshotCache.getAll(List.of(1L))).containsEntry(1L, phone);
+        snapshotCache.getAll(List.of(1L));
+
+        verify(productRepository, times(2)).findSnapshotsByIdIn(List.of(1L));
+    }
+}
@@ -0,0 +1,117 @@
+package com.techgadget.ecommerce.unit_test;
+
+import com.techgadget.ecommerce.entity.OrderItem;
+import com.techgadget.ecommerce.exception.NotFoundException;
+import com.techgadget.ecommerce.repository.OrderRepository;
+import com.techgadget.ecommerce.repository.ProductQuantity;
+import com.techgadget.ecommerce.repository.ProductRepository;
+import com.techgadget.ecommerce.service.HotInventoryService;
+import com.techgadget.ecommerce.service.ProductDetailCacheService;
+import com.techgadget.ecommerce.service.StockLedgerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLedgerServiceTest {
+
+    @InjectMocks
+    private StockLedgerService stockLedgerService;
+
+    @Mock private ProductRepository productRepository;
+    @Mock private OrderRepository orderRepository;
+    @Mock private HotInventoryService hotInventoryService;
+    @Mock private ProductDetailCacheService productDetailCacheService;
+
+    // Helper method: order item of product with quantity
+    private OrderItem item(Long productId, int quantity) {
+        return new OrderItem(null, productId, "Product " + productId, null, quantity, 100_000L);
+    }
+
+    @Nested
+    @DisplayName("restore()")
+    class Restore {
+
+        @Test
+        @DisplayName("many items - summed per product, one batched update, cache evicted")
+        void manyItems_summedPerProduct_oneBatch() {
+
+            when(productRepository.increaseStocks(Map.of(1L, 5, 2L, 1)))
+                    .thenReturn(List.of());
+
+            stockLedgerService.restore(List.of(item(1L, 2), item(2L, 1), item(1L, 3)));
+
+            verify(productRepository, times(1)).increaseStocks(Map.of(1L, 5, 2L, 1));
+            verify(hotInventoryService, times(1)).release(Map.of());
+            verify(productDetailCacheService, times(1)).evict(Set.of(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("hot product - released in Redis, not updated in DB")
+        void hotProduct_releasedInRedis() {
+
+            when(hotInventoryService.isHot(1L)).thenReturn(true);
+            when(productRepository.increaseStocks(Map.of(2L, 1)))
+                    .thenReturn(List.of());
+
+            stockLedgerService.restore(List.of(item(1L, 2), item(2L, 1)));
+
+            verify(hotInventoryService, times(1)).release(Map.of(1L, 2));
+            verify(productRepository, times(1)).increaseStocks(Map.of(2L, 1));
+        }
+
+        @Test
+        @DisplayName("product not found - throws NotFoundException, nothing released")
+        void productNotFound_throwsNotFoundException() {
+
+            when(productRepository.increaseStocks(Map.of(10L, 2)))
+                    .thenReturn(List.of(10L));
+
+            assertThatThrownBy(() -> stockLedgerService.restore(List.of(item(10L, 2))))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Product id snapshot not found.");
+
+            verify(hotInventoryService, never()).release(any());
+            verify(productDetailCacheService, never()).evict(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("restoreOrders()")
+    class RestoreOrders {
+
+        @Test
+        @DisplayName("many orders - quantities summed in SQL, items never loaded")
+        void manyOrders_summedInSql() {
+
+            when(orderRepository.sumItemQuantitiesByOrderIdIn(List.of(1L, 2L, 3L)))
+                    .thenReturn(List.of(new ProductQuantity(1L, 7L), new ProductQuantity(2L, 3L)));
+            when(productRepository.increaseStocks(Map.of(1L, 7, 2L, 3)))
+                    .thenReturn(List.of());
+
+            stockLedgerService.restoreOrders(List.of(1L, 2L, 3L));
+
+            verify(productRepository, times(1)).increaseStocks(Map.of(1L, 7, 2L, 3));
+        }
+
+        @Test
+        @DisplayName("no order - no query")
+        void noOrder_noQuery() {
+
+            stockLedgerService.restoreOrders(List.of());
+
+            verifyNoInteractions(orderRepository, productRepository, hotInventoryService);
+        }
+    }
+}